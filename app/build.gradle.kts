@@ -26,6 +26,26 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+            all { test ->
+                // DBHelper benchmarks (src/test/.../benchmark) only run on request:
+                //   ./gradlew :app:testDebugUnitTest -Pbenchmark [-Pbenchmark.stands=200 ...]
+                if (project.hasProperty("benchmark")) {
+                    test.filter.includeTestsMatching("com.example.kantinkampus.benchmark.*")
+                    test.systemProperty("benchmark.output",
+                        layout.buildDirectory.dir("benchmark").get().asFile.absolutePath)
+                    project.properties
+                        .filterKeys { it.startsWith("benchmark.") }
+                        .forEach { (key, value) -> test.systemProperty(key, value.toString()) }
+                    test.outputs.upToDateWhen { false }
+                } else {
+                    test.exclude("**/benchmark/**")
+                }
+            }
+        }
+    }
 }
 
 dependencies {
@@ -35,6 +55,8 @@ dependencies {
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 
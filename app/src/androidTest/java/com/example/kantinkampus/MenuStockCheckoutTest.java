@@ -0,0 +1,210 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Daily stock under concurrent checkouts: many buyers, each with their own
+ * DBHelper (like every Activity), race for the last portions of one menu.
+ * No more portions may be sold than were stocked, and none may go missing:
+ * sold + left == daily stock after every run.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MenuStockCheckoutTest {
+    private static final String DATABASE_NAME = "kantinkampus_stock_test.db";
+    private static final int THREADS = 16;
+    private static final long RETRY_WINDOW_MS = 30_000; // retry like a user tapping "Pesan" again
+
+    private Context context;
+    private DBHelper dbHelper;
+    private int standId;
+    private int buyerSeq; // unique buyers across several checkout rounds
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        dbHelper = new DBHelper(context, DATABASE_NAME);
+
+        int sellerId = (int) dbHelper.registerUser("stock.seller@kantin.test", "stock123",
+                "Penjual Stok", "seller", "08000000", "KARTU-S", null);
+        standId = (int) dbHelper.createStand(sellerId, "Stand Rendang", "Stand uji stok", null);
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void concurrentCheckoutsNeverOversell() throws Exception {
+        int menuId = addStockedMenu("Rendang", 30);
+        List<Long> orderIds = checkoutConcurrently(menuId, 50, 1);
+
+        Menu menu = dbHelper.getMenuById(menuId);
+        assertStockConserved(menuId, 30);
+        assertEquals(30, orderIds.size());
+        assertEquals(0, menu.getStockLeft());
+        assertFalse(menu.isAvailable());
+    }
+
+    @Test
+    public void multiPortionCartIsAllOrNothing() throws Exception {
+        int menuId = addStockedMenu("Gulai", 5);
+        List<Long> orderIds = checkoutConcurrently(menuId, 10, 2);
+
+        // 2 + 2 fit, the third cart would need 2 of the 1 portion left
+        Menu menu = dbHelper.getMenuById(menuId);
+        assertStockConserved(menuId, 5);
+        assertEquals(2, orderIds.size());
+        assertEquals(4, soldQty(menuId));
+        assertEquals(1, menu.getStockLeft());
+        assertTrue(menu.isAvailable());
+    }
+
+    @Test
+    public void cancelGivesPortionsBack() throws Exception {
+        int menuId = addStockedMenu("Sate", 3);
+        List<Long> orderIds = checkoutConcurrently(menuId, 5, 1);
+        assertStockConserved(menuId, 3);
+        assertEquals(3, orderIds.size());
+        assertFalse(dbHelper.getMenuById(menuId).isAvailable());
+
+        assertEquals(1, dbHelper.cancelOrder(orderIds.get(0).intValue(), "Uji pembatalan"));
+
+        Menu menu = dbHelper.getMenuById(menuId);
+        assertEquals(1, menu.getStockLeft());
+        assertTrue(menu.isAvailable());
+    }
+
+    @Test
+    public void raisingStockMidDayKeepsPortionsSold() throws Exception {
+        int menuId = addStockedMenu("Soto", 30);
+        assertEquals(25, checkoutConcurrently(menuId, 25, 1).size());
+
+        // 30 -> 40 after 25 sold: 15 left, not a fresh 40
+        assertEquals(1, dbHelper.updateMenuStock(menuId, 40));
+        assertEquals(15, dbHelper.getMenuById(menuId).getStockLeft());
+        assertStockConserved(menuId, 40);
+
+        List<Long> orderIds = checkoutConcurrently(menuId, 30, 1);
+        Menu menu = dbHelper.getMenuById(menuId);
+        assertStockConserved(menuId, 40);
+        assertEquals(15, orderIds.size());
+        assertEquals(0, menu.getStockLeft());
+        assertFalse(menu.isAvailable());
+    }
+
+    @Test
+    public void loweringStockBelowSoldClosesMenu() throws Exception {
+        int menuId = addStockedMenu("Pecel", 30);
+        assertEquals(25, checkoutConcurrently(menuId, 25, 1).size());
+
+        assertEquals(1, dbHelper.updateMenuStock(menuId, 20));
+        Menu menu = dbHelper.getMenuById(menuId);
+        assertEquals(0, menu.getStockLeft());
+        assertFalse(menu.isAvailable());
+        assertEquals(0, checkoutConcurrently(menuId, 3, 1).size());
+    }
+
+    // ==================== HELPERS ====================
+
+    private int addStockedMenu(String name, int dailyStock) {
+        int menuId = (int) dbHelper.addMenu(standId, name, 15000, null, "Menu uji stok", "🍛 Makanan Berat");
+        assertEquals(1, dbHelper.updateMenuStock(menuId, dailyStock));
+        return menuId;
+    }
+
+    /**
+     * Every buyer fills a cart with qty portions, then all check out at once
+     * A buyer keeps retrying until it gets an order or the menu has fewer than
+     * qty portions left, so lock conflicts alone never leave stock unsold.
+     * RETRY_WINDOW_MS only bounds a hung run.
+     */
+    private List<Long> checkoutConcurrently(int menuId, int buyers, int qty) throws InterruptedException {
+        List<Integer> buyerIds = new ArrayList<>();
+        for (int b = 0; b < buyers; b++) {
+            int i = buyerSeq++;
+            int buyerId = (int) dbHelper.registerUser("stock.buyer" + menuId + "-" + i + "@kantin.test", "stock123",
+                    "Pembeli " + i, "buyer", "0811" + i, "NIM-S" + menuId + "-" + i, "mahasiswa");
+            dbHelper.addToCart(buyerId, menuId, qty, null);
+            buyerIds.add(buyerId);
+        }
+
+        List<Long> orderIds = Collections.synchronizedList(new ArrayList<Long>());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int buyerId : buyerIds) {
+            pool.execute(() -> {
+                DBHelper buyerDb = new DBHelper(context, DATABASE_NAME);
+                try {
+                    start.await();
+                    long deadline = System.currentTimeMillis() + RETRY_WINDOW_MS;
+                    while (System.currentTimeMillis() < deadline) {
+                        List<Long> created = buyerDb.createOrdersFromCart(buyerId, "💵 Cash");
+                        if (!created.isEmpty()) {
+                            orderIds.addAll(created);
+                            return;
+                        }
+                        if (buyerDb.getMenuById(menuId).getStockLeft() < qty) {
+                            return; // sold out, not a lock conflict
+                        }
+                        Thread.sleep(5);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    buyerDb.close();
+                }
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        return orderIds;
+    }
+
+    /**
+     * The invariant the exact counts rely on: never oversold, nothing lost
+     */
+    private void assertStockConserved(int menuId, int dailyStock) {
+        int sold = soldQty(menuId);
+        int left = dbHelper.getMenuById(menuId).getStockLeft();
+        assertTrue("oversold: " + sold + " of " + dailyStock, sold <= dailyStock);
+        assertEquals(dailyStock, sold + left);
+    }
+
+    private int soldQty(int menuId) {
+        Cursor cursor = dbHelper.getReadableDatabase().rawQuery(
+                "SELECT COALESCE(SUM(qty), 0) FROM order_items WHERE menu_id = ?",
+                new String[]{String.valueOf(menuId)});
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : -1;
+        } finally {
+            cursor.close();
+        }
+    }
+}
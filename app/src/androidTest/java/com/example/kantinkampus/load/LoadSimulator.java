@@ -0,0 +1,438 @@
+package com.example.kantinkampus.load;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Bundle;
+import android.util.Log;
+
+import com.example.kantinkampus.DBHelper;
+import com.example.kantinkampus.Menu;
+import com.example.kantinkampus.Order;
+import com.example.kantinkampus.QueryStats;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LOAD SIMULATOR
+ * Lunch-rush traffic against a separate real SQLite file:
+ * - virtual buyers (thread pool) add to cart, check out, attach payment proof
+ * - one virtual seller per stand verifies, cooks, marks ready and completes
+ * Every virtual user has its own DBHelper, like every Activity does.
+ * Reports throughput, commit latency, lock errors and consistency checks.
+ */
+public class LoadSimulator {
+    private static final String TAG = "LoadSimulator";
+    public static final String DATABASE_NAME = "kantinkampus_load.db";
+
+    private static final String[] SELLER_STAGES = {"pending_verification", "verified", "cooking", "ready"};
+    private static final int MAX_CHECKOUT_ATTEMPTS = 3;
+    private static final int STOP_GRACE_SEC = 10; // after a timeout, for interrupted workers to exit
+
+    // ==================== CONFIG ====================
+
+    public static class Config {
+        public final int stands;
+        public final int menusPerStand;
+        public final int buyers;
+        public final int buyerThreads;
+        public final int maxStandsPerCart;
+        public final int maxThinkMs;
+        public final int timeoutSec;
+        public final long seed;
+
+        public Config(Bundle args) {
+            stands = getInt(args, "stands", 40);
+            menusPerStand = getInt(args, "menusPerStand", 12);
+            buyers = getInt(args, "buyers", 2000);
+            buyerThreads = getInt(args, "buyerThreads", 32);
+            maxStandsPerCart = getInt(args, "maxStandsPerCart", 2);
+            maxThinkMs = getInt(args, "maxThinkMs", 20);
+            timeoutSec = getInt(args, "timeoutSec", 600);
+            seed = getInt(args, "seed", 42);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("stands", stands);
+            map.put("menusPerStand", menusPerStand);
+            map.put("buyers", buyers);
+            map.put("buyerThreads", buyerThreads);
+            map.put("maxStandsPerCart", maxStandsPerCart);
+            map.put("maxThinkMs", maxThinkMs);
+            map.put("seed", seed);
+            return map;
+        }
+
+        private static int getInt(Bundle args, String key, int defaultValue) {
+            String value = args != null ? args.getString("load." + key) : null;
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        }
+    }
+
+    // ==================== RESULT ====================
+
+    public static class Result {
+        public boolean complete; // false = timed out, workers were interrupted, numbers are partial
+        public long elapsedMs;
+        public long checkouts;
+        public long ordersCreated;
+        public long ordersCompleted;
+        public long statusChanges;
+        public long failedCheckouts;
+        public long failedStatusChanges;
+        public long lockErrors;
+        public long[] checkoutLatencyNs;
+        public long[] statusLatencyNs;
+        public final Map<String, Long> consistencyViolations = new LinkedHashMap<>();
+
+        public boolean isConsistent() {
+            for (long count : consistencyViolations.values()) {
+                if (count != 0) return false;
+            }
+            return true;
+        }
+    }
+
+    private final Context context;
+    private final Config config;
+    private final Random random;
+
+    private final List<Integer> sellerIds = new ArrayList<>();
+    private final List<Integer> buyerIds = new ArrayList<>();
+    private final List<List<Menu>> menusByStand = new ArrayList<>();
+
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder ordersCreated = new LongAdder();
+    private final LongAdder ordersCompleted = new LongAdder();
+    private final LongAdder statusChanges = new LongAdder();
+    private final LongAdder failedCheckouts = new LongAdder();
+    private final LongAdder failedStatusChanges = new LongAdder();
+    private final List<Long> checkoutLatencies = Collections.synchronizedList(new ArrayList<Long>());
+    private final List<Long> statusLatencies = Collections.synchronizedList(new ArrayList<Long>());
+
+    public LoadSimulator(Context context, Config config) {
+        this.context = context;
+        this.config = config;
+        this.random = new Random(config.seed);
+    }
+
+    /**
+     * Fresh database, seeded with stands, menus and buyers
+     */
+    public void setUp() {
+        context.deleteDatabase(DATABASE_NAME);
+        DBHelper dbHelper = new DBHelper(context, DATABASE_NAME);
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < config.stands; i++) {
+                int sellerId = (int) dbHelper.registerUser("load.seller" + i + "@kantin.test", "load123",
+                        "Penjual " + i, "seller", "0800000" + i, "KARTU-L" + i, null);
+                int standId = (int) dbHelper.createStand(sellerId, "Stand " + i, "Stand simulasi", null);
+                sellerIds.add(sellerId);
+
+                for (int j = 0; j < config.menusPerStand; j++) {
+                    dbHelper.addMenu(standId, "Menu " + i + "-" + j, (5 + random.nextInt(26)) * 1000,
+                            null, "Menu simulasi", "🍛 Makanan Berat");
+                }
+            }
+
+            for (int i = 0; i < config.buyers; i++) {
+                buyerIds.add((int) dbHelper.registerUser("load.buyer" + i + "@kantin.test", "load123",
+                        "Pembeli " + i, "buyer", "0811111" + i, "NIM-L" + i, "mahasiswa"));
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        for (int sellerId : sellerIds) {
+            List<Menu> menus = new ArrayList<>();
+            for (Menu menu : dbHelper.getMenusByStand(dbHelper.getStandBySeller(sellerId).getId())) {
+                menus.add(menu);
+            }
+            menusByStand.add(menus);
+        }
+        dbHelper.close();
+    }
+
+    public Result run() throws InterruptedException {
+        QueryStats.getInstance().reset();
+        AtomicBoolean buyersDone = new AtomicBoolean(false);
+
+        ExecutorService sellerPool = Executors.newFixedThreadPool(sellerIds.size());
+        ExecutorService buyerPool = Executors.newFixedThreadPool(config.buyerThreads);
+        long start = System.nanoTime();
+
+        for (int sellerId : sellerIds) {
+            sellerPool.execute(() -> runSeller(sellerId, buyersDone));
+        }
+        for (int i = 0; i < buyerIds.size(); i++) {
+            int buyerId = buyerIds.get(i);
+            long buyerSeed = config.seed * 31 + i;
+            buyerPool.execute(() -> runBuyer(buyerId, new Random(buyerSeed)));
+        }
+
+        buyerPool.shutdown();
+        boolean complete = buyerPool.awaitTermination(config.timeoutSec, TimeUnit.SECONDS);
+        buyersDone.set(true);
+        sellerPool.shutdown();
+        complete &= sellerPool.awaitTermination(config.timeoutSec, TimeUnit.SECONDS);
+
+        Result result = new Result();
+        result.complete = complete;
+        result.elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        if (!complete) {
+            // Stop the stragglers before anything reads the database
+            buyerPool.shutdownNow();
+            sellerPool.shutdownNow();
+            buyerPool.awaitTermination(STOP_GRACE_SEC, TimeUnit.SECONDS);
+            sellerPool.awaitTermination(STOP_GRACE_SEC, TimeUnit.SECONDS);
+            Log.w(TAG, "⚠️ Run timed out after " + config.timeoutSec + " s, report is incomplete");
+        }
+        result.checkouts = checkouts.sum();
+        result.ordersCreated = ordersCreated.sum();
+        result.ordersCompleted = ordersCompleted.sum();
+        result.statusChanges = statusChanges.sum();
+        result.failedCheckouts = failedCheckouts.sum();
+        result.failedStatusChanges = failedStatusChanges.sum();
+        result.lockErrors = QueryStats.getInstance().getLockErrorCount();
+        result.checkoutLatencyNs = toSortedArray(checkoutLatencies);
+        result.statusLatencyNs = toSortedArray(statusLatencies);
+        if (complete) {
+            checkConsistency(result); // meaningless while workers were cut off mid-order
+        }
+        return result;
+    }
+
+    // ==================== VIRTUAL USERS ====================
+
+    private void runBuyer(int buyerId, Random rnd) {
+        DBHelper dbHelper = new DBHelper(context, DATABASE_NAME);
+        try {
+            int standsInCart = 1 + rnd.nextInt(config.maxStandsPerCart);
+            for (int s = 0; s < standsInCart; s++) {
+                List<Menu> menus = menusByStand.get(rnd.nextInt(menusByStand.size()));
+                int items = 1 + rnd.nextInt(3);
+                for (int k = 0; k < items; k++) {
+                    Menu menu = menus.get(rnd.nextInt(menus.size()));
+                    dbHelper.addToCart(buyerId, menu.getId(), 1 + rnd.nextInt(2), null);
+                    think(rnd);
+                }
+            }
+
+            // Retry like a user tapping "Pesan" again
+            for (int attempt = 0; attempt < MAX_CHECKOUT_ATTEMPTS; attempt++) {
+                long t = System.nanoTime();
+                List<Long> orderIds = dbHelper.createOrdersFromCart(buyerId, "🏦 Transfer Bank");
+                checkoutLatencies.add(System.nanoTime() - t);
+
+                if (!orderIds.isEmpty()) {
+                    List<Integer> ids = new ArrayList<>();
+                    for (Long id : orderIds) ids.add(id.intValue());
+                    dbHelper.updatePaymentProof(ids, null);
+
+                    checkouts.increment();
+                    ordersCreated.add(orderIds.size());
+                    return;
+                }
+                failedCheckouts.increment();
+                think(rnd);
+            }
+        } catch (RuntimeException e) {
+            // e.g. beginTransaction() outside DBHelper's try blocks
+            Log.e(TAG, "Buyer " + buyerId + " failed: " + e.getMessage());
+            failedCheckouts.increment();
+        } finally {
+            dbHelper.close();
+        }
+    }
+
+    private void runSeller(int sellerId, AtomicBoolean buyersDone) {
+        DBHelper dbHelper = new DBHelper(context, DATABASE_NAME);
+        Random rnd = new Random(config.seed + sellerId);
+        try {
+            while (true) {
+                boolean finalPass = buyersDone.get();
+                int advanced = 0;
+
+                for (String stage : SELLER_STAGES) {
+                    for (Order order : dbHelper.getOrdersBySellerAndStatus(sellerId, stage)) {
+                        long t = System.nanoTime();
+                        int rows = stage.equals("pending_verification")
+                                ? dbHelper.verifyPayment(order.getId(), true, null)
+                                : dbHelper.updateOrderStatus(order.getId(), nextStatus(stage));
+                        statusLatencies.add(System.nanoTime() - t);
+
+                        if (rows > 0) {
+                            statusChanges.increment();
+                            advanced++;
+                            if (stage.equals("ready")) ordersCompleted.increment();
+                        } else {
+                            failedStatusChanges.increment();
+                        }
+                    }
+                }
+
+                // Drain until buyers are done and a full pass finds nothing left
+                if (finalPass && advanced == 0) return;
+                think(rnd);
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Seller " + sellerId + " failed: " + e.getMessage());
+        } finally {
+            dbHelper.close();
+        }
+    }
+
+    private static String nextStatus(String status) {
+        switch (status) {
+            case "verified":
+                return "cooking";
+            case "cooking":
+                return "ready";
+            default:
+                return "completed";
+        }
+    }
+
+    private void think(Random rnd) {
+        if (config.maxThinkMs <= 0) return;
+        try {
+            Thread.sleep(rnd.nextInt(config.maxThinkMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== CONSISTENCY ====================
+
+    private void checkConsistency(Result result) {
+        DBHelper dbHelper = new DBHelper(context, DATABASE_NAME);
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+
+        result.consistencyViolations.put("non_empty_carts_after_checkout",
+                count(db, "SELECT COUNT(DISTINCT buyer_id) FROM cart") - (buyerIds.size() - result.checkouts));
+        result.consistencyViolations.put("order_total_mismatch",
+                count(db, "SELECT COUNT(*) FROM orders o WHERE o.total <> " +
+                        "(SELECT COALESCE(SUM(subtotal), 0) FROM order_items WHERE order_id = o.id)"));
+        result.consistencyViolations.put("orders_without_items",
+                count(db, "SELECT COUNT(*) FROM orders o WHERE NOT EXISTS " +
+                        "(SELECT 1 FROM order_items WHERE order_id = o.id)"));
+        result.consistencyViolations.put("cart_counter_mismatch",
+                count(db, "SELECT COUNT(*) FROM user_counters uc WHERE uc.cart_count <> " +
+                        "(SELECT COALESCE(SUM(qty), 0) FROM cart WHERE buyer_id = uc.user_id)"));
+        result.consistencyViolations.put("unfinished_orders",
+                count(db, "SELECT COUNT(*) FROM orders WHERE status NOT IN ('completed', 'cancelled')"));
+        result.consistencyViolations.put("orders_created_vs_rows",
+                count(db, "SELECT COUNT(*) FROM orders o JOIN users u ON u.id = o.buyer_id " +
+                        "WHERE u.email LIKE 'load.buyer%'") - result.ordersCreated);
+
+        dbHelper.close();
+    }
+
+    private static long count(SQLiteDatabase db, String sql) {
+        Cursor cursor = db.rawQuery(sql, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getLong(0) : -1;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // ==================== REPORT ====================
+
+    public File writeReport(Result result) throws IOException {
+        File dir = new File(context.getFilesDir(), "load");
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+        File file = new File(dir, "results-" + timestamp + ".json");
+
+        double seconds = Math.max(result.elapsedMs, 1) / 1000.0;
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"timestamp\": \"").append(timestamp).append("\",\n");
+        json.append("  \"config\": ").append(toJson(config.toMap())).append(",\n");
+        json.append("  \"complete\": ").append(result.complete).append(",\n");
+        json.append("  \"elapsedMs\": ").append(result.elapsedMs).append(",\n");
+        json.append("  \"checkouts\": ").append(result.checkouts).append(",\n");
+        json.append("  \"ordersCreated\": ").append(result.ordersCreated).append(",\n");
+        json.append("  \"ordersCompleted\": ").append(result.ordersCompleted).append(",\n");
+        json.append(String.format(Locale.ROOT, "  \"checkoutsPerSec\": %.2f,%n", result.checkouts / seconds));
+        json.append(String.format(Locale.ROOT, "  \"statusChangesPerSec\": %.2f,%n", result.statusChanges / seconds));
+        json.append("  \"failedCheckouts\": ").append(result.failedCheckouts).append(",\n");
+        json.append("  \"failedStatusChanges\": ").append(result.failedStatusChanges).append(",\n");
+        json.append("  \"lockErrors\": ").append(result.lockErrors).append(",\n");
+        json.append("  \"checkoutLatency\": ").append(latencyJson(result.checkoutLatencyNs)).append(",\n");
+        json.append("  \"statusLatency\": ").append(latencyJson(result.statusLatencyNs)).append(",\n");
+        json.append("  \"consistencyViolations\": ").append(toJson(new LinkedHashMap<String, Object>(result.consistencyViolations))).append("\n");
+        json.append("}\n");
+
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(json.toString());
+        } finally {
+            writer.close();
+        }
+
+        for (String line : json.toString().split("\n")) {
+            Log.i(TAG, line);
+        }
+        QueryStats.getInstance().dumpToLog();
+        return file;
+    }
+
+    private static String latencyJson(long[] sortedNs) {
+        if (sortedNs.length == 0) return "{}";
+        return String.format(Locale.ROOT, "{\"count\": %d, \"p50Ms\": %.2f, \"p95Ms\": %.2f, \"p99Ms\": %.2f, \"maxMs\": %.2f}",
+                sortedNs.length, percentile(sortedNs, 0.50) / 1e6, percentile(sortedNs, 0.95) / 1e6,
+                percentile(sortedNs, 0.99) / 1e6, sortedNs[sortedNs.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static long[] toSortedArray(List<Long> values) {
+        long[] array;
+        synchronized (values) {
+            array = new long[values.size()];
+            for (int i = 0; i < array.length; i++) array[i] = values.get(i);
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    private static String toJson(Map<String, Object> map) {
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (!first) sb.append(", ");
+            first = false;
+            sb.append("\"").append(entry.getKey()).append("\": ").append(entry.getValue());
+        }
+        return sb.append("}").toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.kantinkampus.load;
+
+import android.content.Context;
+import android.os.Bundle;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Lunch-rush load simulation on a device/emulator. Skipped unless requested:
+ *
+ *   ./gradlew connectedAndroidTest \
+ *       -Pandroid.testInstrumentationRunnerArguments.load=true \
+ *       -Pandroid.testInstrumentationRunnerArguments.load.buyers=2000
+ *
+ * Report: logcat tag LoadSimulator + files/load/results-<timestamp>.json
+ */
+@RunWith(AndroidJUnit4.class)
+public class LunchRushSimulationTest {
+
+    @Test
+    public void lunchRush() throws Exception {
+        Bundle args = InstrumentationRegistry.getArguments();
+        assumeTrue("true".equals(args.getString("load")));
+
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        LoadSimulator simulator = new LoadSimulator(context, new LoadSimulator.Config(args));
+        simulator.setUp();
+
+        LoadSimulator.Result result = simulator.run();
+        File report = simulator.writeReport(result);
+
+        assertTrue(report.exists());
+        assertTrue("Run timed out, report is incomplete", result.complete);
+        assertTrue("Consistency violations: " + result.consistencyViolations, result.isConsistent());
+        assertEquals(result.ordersCreated, result.ordersCompleted);
+    }
+}
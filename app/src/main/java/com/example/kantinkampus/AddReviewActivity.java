@@ -46,6 +46,14 @@ public class AddReviewActivity extends AppCompatActivity {
         dbHelper = new DBHelper(this);
         sessionManager = new SessionManager(this);
 
+        // Only the buyer's own completed orders, one review per menu and order
+        if (!dbHelper.canReview(sessionManager.getUserId(), menuId, orderId)) {
+            Toast.makeText(this, "Menu ini tidak bisa diulas (pesanan belum selesai atau sudah diulas)",
+                    Toast.LENGTH_LONG).show();
+            finish();
+            return;
+        }
+
         // Setup toolbar
         Toolbar toolbar = findViewById(R.id.toolbar);
         setSupportActionBar(toolbar);
@@ -0,0 +1,102 @@
+package com.example.kantinkampus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * BADGE COUNTERS
+ * In-memory mirror of the user_counters table (cart qty + unread notifications).
+ * DBHelper fills it on first read and keeps it in sync on every write,
+ * so badges can be read on every resume without touching SQLite.
+ */
+public class BadgeCounters {
+
+    public interface OnBadgeChangeListener {
+        void onBadgeCountsChanged();
+    }
+
+    private static BadgeCounters instance;
+
+    // userId -> {cartCount, unreadCount}
+    private final Map<Integer, int[]> counts = new ConcurrentHashMap<>();
+    private final List<OnBadgeChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private BadgeCounters() {}
+
+    public static synchronized BadgeCounters getInstance() {
+        if (instance == null) {
+            instance = new BadgeCounters();
+        }
+        return instance;
+    }
+
+    /**
+     * @return {cartCount, unreadCount} or null if not cached
+     */
+    int[] get(int userId) {
+        return counts.get(userId);
+    }
+
+    void put(int userId, int cartCount, int unreadCount) {
+        counts.put(userId, new int[]{cartCount, unreadCount});
+    }
+
+    /**
+     * Apply a known change to the cart badge (no reload needed)
+     */
+    void addCart(int userId, int delta) {
+        int[] c = counts.get(userId);
+        if (c != null) {
+            counts.put(userId, new int[]{Math.max(0, c[0] + delta), c[1]});
+        }
+        notifyListeners();
+    }
+
+    void setCart(int userId, int cartCount) {
+        int[] c = counts.get(userId);
+        if (c != null) {
+            counts.put(userId, new int[]{cartCount, c[1]});
+        }
+        notifyListeners();
+    }
+
+    void setUnread(int userId, int unreadCount) {
+        int[] c = counts.get(userId);
+        if (c != null) {
+            counts.put(userId, new int[]{c[0], unreadCount});
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Drop one user's cached values, next read reloads the counters row
+     */
+    void invalidate(int userId) {
+        counts.remove(userId);
+        notifyListeners();
+    }
+
+    /**
+     * Drop everything (writes where the affected user is not known up front)
+     */
+    void invalidateAll() {
+        counts.clear();
+        notifyListeners();
+    }
+
+    public void addListener(OnBadgeChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(OnBadgeChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyListeners() {
+        for (OnBadgeChangeListener listener : listeners) {
+            listener.onBadgeCountsChanged();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * BLOB STORE
+ * App-private, content-addressed storage for photos (payment proofs, menu images).
+ * - Photos are re-encoded to a bounded JPEG on a background thread
+ * - Files are keyed by SHA-256 of the encoded bytes and written once
+ * - Rows reference them as "blob:<sha256>" (orders.payment_proof, menus.image, stands.image)
+ * - DB triggers keep a ref_count per blob; garbage collection deletes orphans
+ * put() and the collector hold fileLock around "file + row" so a collected
+ * row never leaves a re-registered hash without its file.
+ */
+public class BlobStore {
+    private static final String TAG = "BlobStore";
+    public static final String REF_PREFIX = "blob:";
+
+    private static final String BLOB_DIR = "blobs";
+    private static final int MAX_DIMENSION = 1280; // px, longest side
+    private static final int JPEG_QUALITY = 80;
+    private static final long GC_GRACE_MS = 24L * 60 * 60 * 1000; // unreferenced blobs kept 1 day
+    private static final String PREF_NAME = "KantinKampusMaintenance";
+    private static final String KEY_LAST_GC = "blobGcLastRun";
+
+    public interface OnBlobStoredListener {
+        void onBlobStored(String ref); // null if failed
+    }
+
+    private static BlobStore instance;
+
+    private final Context context;
+    private final File blobDir;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Object fileLock = new Object();
+
+    private BlobStore(Context context) {
+        this.context = context.getApplicationContext();
+        blobDir = new File(this.context.getFilesDir(), BLOB_DIR);
+        if (!blobDir.exists()) {
+            blobDir.mkdirs();
+        }
+    }
+
+    public static synchronized BlobStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new BlobStore(context);
+        }
+        return instance;
+    }
+
+    public static boolean isBlobRef(String value) {
+        return value != null && value.startsWith(REF_PREFIX);
+    }
+
+    /**
+     * File for a "blob:<sha256>" reference
+     */
+    public File getFile(String ref) {
+        return new File(blobDir, ref.substring(REF_PREFIX.length()) + ".jpg");
+    }
+
+    /**
+     * Re-encode + store a picked photo in the background, result on the main thread
+     */
+    public void putAsync(Uri source, OnBlobStoredListener listener) {
+        executor.execute(() -> {
+            String ref = put(source);
+            mainHandler.post(() -> listener.onBlobStored(ref));
+        });
+    }
+
+    /**
+     * Re-encode + store a photo (call off the main thread)
+     * @return "blob:<sha256>" or null if failed
+     */
+    public String put(Uri source) {
+        try {
+            byte[] encoded = reencode(source);
+            if (encoded == null) return null;
+
+            String hash = sha256(encoded);
+            String ref = REF_PREFIX + hash;
+            File file = getFile(ref);
+
+            synchronized (fileLock) {
+                // Write once: identical content is stored a single time
+                if (!file.exists() && !write(hash, encoded, file)) return null;
+
+                new DBHelper(context).registerBlob(hash, encoded.length);
+
+                // The row is live again; make sure the file behind it still is too
+                if (!file.exists() && !write(hash, encoded, file)) return null;
+            }
+            return ref;
+
+        } catch (Exception e) {
+            Log.e(TAG, "Error storing blob: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Write via a temp file + rename, so a crash never leaves a truncated blob
+     */
+    private boolean write(String hash, byte[] encoded, File file) throws IOException {
+        File tmp = new File(blobDir, hash + ".tmp");
+        FileOutputStream out = new FileOutputStream(tmp);
+        try {
+            out.write(encoded);
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decode downsampled and compress to a JPEG no larger than MAX_DIMENSION
+     */
+    private byte[] reencode(Uri source) throws Exception {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        InputStream in = context.getContentResolver().openInputStream(source);
+        if (in == null) return null;
+        BitmapFactory.decodeStream(in, null, options);
+        in.close();
+
+        int longest = Math.max(options.outWidth, options.outHeight);
+        if (longest <= 0) return null;
+
+        int sample = 1;
+        while (longest / (sample * 2) >= MAX_DIMENSION) {
+            sample *= 2;
+        }
+        options.inSampleSize = sample;
+        options.inJustDecodeBounds = false;
+
+        in = context.getContentResolver().openInputStream(source);
+        if (in == null) return null;
+        Bitmap bitmap = BitmapFactory.decodeStream(in, null, options);
+        in.close();
+        if (bitmap == null) return null;
+
+        // Final exact scale down
+        int max = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        if (max > MAX_DIMENSION) {
+            float scale = (float) MAX_DIMENSION / max;
+            Bitmap scaled = Bitmap.createScaledBitmap(bitmap,
+                    Math.round(bitmap.getWidth() * scale), Math.round(bitmap.getHeight() * scale), true);
+            bitmap.recycle();
+            bitmap = scaled;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+        bitmap.recycle();
+        return out.toByteArray();
+    }
+
+    // ==================== GARBAGE COLLECTION ====================
+
+    /**
+     * Delete blobs no row references anymore, at most once a day
+     */
+    public void collectGarbageIfDue() {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        long now = System.currentTimeMillis();
+
+        if (now - prefs.getLong(KEY_LAST_GC, 0) < GC_GRACE_MS) {
+            return;
+        }
+        prefs.edit().putLong(KEY_LAST_GC, now).apply();
+
+        executor.execute(this::collectGarbage);
+    }
+
+    /**
+     * Remove orphaned blobs (ref_count 0 past the grace period) and stray temp files
+     * @return number of files deleted
+     */
+    public int collectGarbage() {
+        int deleted = 0;
+        long cutoff = System.currentTimeMillis() - GC_GRACE_MS;
+        DBHelper dbHelper = new DBHelper(context);
+
+        // Row first, file only if the row was really gone: a blob re-registered
+        // by put() in the meantime fails the delete and keeps its file
+        List<String> orphans = dbHelper.getOrphanBlobs(cutoff);
+        for (String hash : orphans) {
+            synchronized (fileLock) {
+                if (dbHelper.deleteBlob(hash, cutoff)) {
+                    getFile(REF_PREFIX + hash).delete();
+                    deleted++;
+                }
+            }
+        }
+
+        // Leftovers from interrupted writes
+        File[] files = blobDir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                if (f.getName().endsWith(".tmp") && f.lastModified() < cutoff && f.delete()) {
+                    deleted++;
+                }
+            }
+        }
+
+        Log.d(TAG, "Blob GC removed " + deleted + " files");
+        return deleted;
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(data);
+        StringBuilder sb = new StringBuilder();
+        for (byte b : hash) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
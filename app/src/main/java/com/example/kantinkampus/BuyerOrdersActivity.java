@@ -1,10 +1,12 @@
 package com.example.kantinkampus;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.LinearLayout;
 import android.widget.TextView;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -16,18 +18,24 @@ import java.util.List;
 /**
  * BUYER ORDERS ACTIVITY
  * Shows buyer's order history with status filtering
+ * History is paged while scrolling; archived orders load after the recent ones
  */
 public class BuyerOrdersActivity extends AppCompatActivity {
+    private static final int PAGE_SIZE = 20;
+    private static final int PENDING_REVIEWS_LIMIT = 50;
+
     private TabLayout tabLayout;
     private RecyclerView rvOrders;
     private LinearLayout layoutEmpty;
-    private TextView tvEmptyMessage;
+    private TextView tvEmptyMessage, tvPendingReviews;
 
     private DBHelper dbHelper;
     private SessionManager sessionManager;
     private OrderAdapterBuyer adapter;
     private List<Order> orders;
     private String currentFilter = "all";
+    private OrderHistoryPager pager;
+    private LinearLayoutManager layoutManager;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -51,11 +59,25 @@ public class BuyerOrdersActivity extends AppCompatActivity {
         rvOrders = findViewById(R.id.rvOrders);
         layoutEmpty = findViewById(R.id.layoutEmpty);
         tvEmptyMessage = findViewById(R.id.tvEmptyMessage);
+        tvPendingReviews = findViewById(R.id.tvPendingReviews);
+        tvPendingReviews.setOnClickListener(v -> showPendingReviews());
 
         // Setup RecyclerView
-        rvOrders.setLayoutManager(new LinearLayoutManager(this));
+        layoutManager = new LinearLayoutManager(this);
+        rvOrders.setLayoutManager(layoutManager);
         orders = new ArrayList<>();
 
+        // Load next page when near the end of the list
+        rvOrders.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && pager != null && pager.hasMore() && adapter != null
+                        && layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - 5) {
+                    adapter.addPage(pager.nextPage());
+                }
+            }
+        });
+
         // Setup tabs
         setupTabs();
 
@@ -103,42 +125,14 @@ public class BuyerOrdersActivity extends AppCompatActivity {
 
     private void loadOrders(String filter) {
         int userId = sessionManager.getUserId();
-        List<Order> allOrders = dbHelper.getOrdersByBuyer(userId);
+        String[] statuses = getFilterStatuses(filter);
 
-        orders.clear();
+        // Only completed/cancelled orders are ever archived
+        boolean includeArchive = statuses == null || filter.equals("completed");
+        pager = new OrderHistoryPager(PAGE_SIZE, includeArchive, (archived, beforeId, limit) ->
+                dbHelper.getBuyerOrdersPage(userId, statuses, archived, beforeId, limit));
 
-        if (filter.equals("all")) {
-            orders.addAll(allOrders);
-        } else {
-            for (Order order : allOrders) {
-                String status = order.getStatus();
-
-                switch (filter) {
-                    case "pending":
-                        if (status.equals("pending_payment") ||
-                                status.equals("pending_verification") ||
-                                status.equals("verified")) {
-                            orders.add(order);
-                        }
-                        break;
-                    case "cooking":
-                        if (status.equals("cooking")) {
-                            orders.add(order);
-                        }
-                        break;
-                    case "ready":
-                        if (status.equals("ready")) {
-                            orders.add(order);
-                        }
-                        break;
-                    case "completed":
-                        if (status.equals("completed")) {
-                            orders.add(order);
-                        }
-                        break;
-                }
-            }
-        }
+        orders = new ArrayList<>(pager.nextPage());
 
         if (orders.isEmpty()) {
             rvOrders.setVisibility(View.GONE);
@@ -169,10 +163,36 @@ public class BuyerOrdersActivity extends AppCompatActivity {
                 // Show order details
                 showOrderDetails(order);
             });
+            adapter.setEtaSource(new OrderAdapterBuyer.EtaSource() {
+                @Override
+                public StandLoad getStandLoad(int standId) {
+                    return dbHelper.getStandLoad(standId);
+                }
+
+                @Override
+                public long[] getOrderPrepEstimate(int orderId) {
+                    return dbHelper.getOrderPrepEstimate(orderId);
+                }
+            });
             rvOrders.setAdapter(adapter);
         }
     }
 
+    private String[] getFilterStatuses(String filter) {
+        switch (filter) {
+            case "pending":
+                return new String[]{"pending_payment", "pending_verification", "verified"};
+            case "cooking":
+                return new String[]{"cooking"};
+            case "ready":
+                return new String[]{"ready"};
+            case "completed":
+                return new String[]{"completed"};
+            default:
+                return null; // all
+        }
+    }
+
     private void showOrderDetails(Order order) {
         // Get order items
         List<OrderItem> items = dbHelper.getOrderItems(order.getId());
@@ -222,10 +242,54 @@ public class BuyerOrdersActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Banner with the number of menus still waiting for a review
+     */
+    private void updatePendingReviews() {
+        int count = dbHelper.getPendingReviews(sessionManager.getUserId(), PENDING_REVIEWS_LIMIT).size();
+
+        if (count == 0) {
+            tvPendingReviews.setVisibility(View.GONE);
+        } else {
+            tvPendingReviews.setVisibility(View.VISIBLE);
+            tvPendingReviews.setText("⭐ " + (count >= PENDING_REVIEWS_LIMIT ? count + "+" : count)
+                    + " menu menunggu ulasan Anda");
+        }
+    }
+
+    private void showPendingReviews() {
+        List<OrderItem> pending = dbHelper.getPendingReviews(sessionManager.getUserId(), PENDING_REVIEWS_LIMIT);
+        if (pending.isEmpty()) {
+            updatePendingReviews();
+            return;
+        }
+
+        String[] labels = new String[pending.size()];
+        for (int i = 0; i < pending.size(); i++) {
+            OrderItem item = pending.get(i);
+            labels[i] = "🍽️ " + item.getMenuName() + " x" + item.getQty() + " • Pesanan #" + item.getOrderId();
+        }
+
+        new androidx.appcompat.app.AlertDialog.Builder(this)
+                .setTitle("⭐ Beri Ulasan")
+                .setItems(labels, (dialog, which) -> openAddReview(pending.get(which)))
+                .setNegativeButton("Nanti", null)
+                .show();
+    }
+
+    private void openAddReview(OrderItem item) {
+        Intent intent = new Intent(this, AddReviewActivity.class);
+        intent.putExtra("menu_id", item.getMenuId());
+        intent.putExtra("order_id", item.getOrderId());
+        intent.putExtra("menu_name", item.getMenuName());
+        startActivity(intent);
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
         loadOrders(currentFilter);
+        updatePendingReviews();
     }
 
     @Override
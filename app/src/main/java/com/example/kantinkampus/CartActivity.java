@@ -15,18 +15,20 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * CART ACTIVITY - Multi-Stand Support
  * Groups cart items by stand for separate checkout
  */
 public class CartActivity extends AppCompatActivity {
-    private RecyclerView rvCart;
-    private LinearLayout layoutEmpty;
+    private RecyclerView rvCart, rvOftenOrdered;
+    private LinearLayout layoutEmpty, layoutOftenOrdered;
     private TextView tvTotal, btnCheckout, tvEmptyMessage;
     private DBHelper dbHelper;
     private SessionManager sessionManager;
@@ -57,9 +59,12 @@ public class CartActivity extends AppCompatActivity {
         tvTotal = findViewById(R.id.tvTotal);
         btnCheckout = findViewById(R.id.btnCheckout);
         tvEmptyMessage = findViewById(R.id.tvEmptyMessage);
+        rvOftenOrdered = findViewById(R.id.rvOftenOrdered);
+        layoutOftenOrdered = findViewById(R.id.layoutOftenOrdered);
 
         // Setup RecyclerView
         rvCart.setLayoutManager(new LinearLayoutManager(this));
+        rvOftenOrdered.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false));
         cartGroups = new ArrayList<>();
 
         // Load cart
@@ -87,6 +92,7 @@ public class CartActivity extends AppCompatActivity {
         if (groupedItems.isEmpty()) {
             // Show empty state
             rvCart.setVisibility(View.GONE);
+            layoutOftenOrdered.setVisibility(View.GONE);
             layoutEmpty.setVisibility(View.VISIBLE);
             tvTotal.setText("Rp 0");
             btnCheckout.setEnabled(false);
@@ -137,7 +143,51 @@ public class CartActivity extends AppCompatActivity {
 
             // Update total
             updateTotal();
+
+            loadOftenOrdered(groupedItems);
+        }
+    }
+
+    /**
+     * Suggestions for the whole cart: menus often ordered with any of its lines
+     */
+    private void loadOftenOrdered(Map<Integer, List<CartItem>> groupedItems) {
+        Set<Integer> menuIds = new HashSet<>();
+        for (List<CartItem> items : groupedItems.values()) {
+            for (CartItem item : items) {
+                menuIds.add(item.getMenu().getId());
+            }
+        }
+
+        List<Menu> suggestions = dbHelper.getOftenOrderedWith(menuIds, 8);
+        if (suggestions.isEmpty()) {
+            layoutOftenOrdered.setVisibility(View.GONE);
+            return;
         }
+
+        layoutOftenOrdered.setVisibility(View.VISIBLE);
+        rvOftenOrdered.setAdapter(new MenuSuggestionAdapter(this, suggestions,
+                new MenuSuggestionAdapter.OnSuggestionListener() {
+                    @Override
+                    public void onSuggestionClick(Menu menu) {
+                        Intent intent = new Intent(CartActivity.this, MenuDetailActivity.class);
+                        intent.putExtra("menu_id", menu.getId());
+                        startActivity(intent);
+                    }
+
+                    @Override
+                    public void onAddToCart(Menu menu) {
+                        long result = dbHelper.addToCart(sessionManager.getUserId(), menu.getId(), 1, null);
+                        if (result > 0) {
+                            Toast.makeText(CartActivity.this,
+                                    "✅ " + menu.getNama() + " ditambahkan ke keranjang!", Toast.LENGTH_SHORT).show();
+                            loadCart();
+                        } else {
+                            Toast.makeText(CartActivity.this,
+                                    "Gagal menambahkan ke keranjang", Toast.LENGTH_SHORT).show();
+                        }
+                    }
+                }));
     }
 
     private void updateQuantity(CartItem item, int newQty) {
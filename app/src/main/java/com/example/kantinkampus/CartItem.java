@@ -6,6 +6,7 @@ public class CartItem {
     private int menuId;
     private int qty;
     private String notes;
+    private int seenPrice; // menu price when the line was added, 0 = unknown
 
     // For display
     private Menu menu;
@@ -28,6 +29,9 @@ public class CartItem {
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
 
+    public int getSeenPrice() { return seenPrice; }
+    public void setSeenPrice(int seenPrice) { this.seenPrice = seenPrice; }
+
     public Menu getMenu() { return menu; }
     public void setMenu(Menu menu) { this.menu = menu; }
 
@@ -0,0 +1,121 @@
+package com.example.kantinkampus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CART REVALIDATION
+ * Differences between the cart as the buyer added it and the menus right now:
+ * - lines whose menu became unavailable (left out of the order, kept in the cart)
+ * - lines whose price changed since they were added (charged at the new price)
+ * Built from the cart/menus join that checkout reads anyway, no extra queries.
+ * Checkout only goes through with changes the buyer has confirmed.
+ */
+public class CartRevalidation {
+
+    /**
+     * One flagged cart line
+     */
+    public static class Line {
+        public final int cartId;
+        public final String name;
+        public final int qty;
+        public final int oldPrice;
+        public final int newPrice;
+
+        Line(CartItem item) {
+            this.cartId = item.getId();
+            this.name = item.getMenu().getNama();
+            this.qty = item.getQty();
+            this.newPrice = item.getMenu().getHarga();
+            this.oldPrice = item.getSeenPrice() > 0 ? item.getSeenPrice() : newPrice;
+        }
+    }
+
+    private final List<CartItem> orderableItems = new ArrayList<>();
+    private final List<Line> unavailable = new ArrayList<>();
+    private final List<Line> priceChanges = new ArrayList<>();
+    private int oldTotal; // what the cart came to when the lines were added
+    private int newTotal; // what the orderable lines cost now
+
+    public static CartRevalidation of(List<CartItem> items) {
+        CartRevalidation result = new CartRevalidation();
+        for (CartItem item : items) {
+            Line line = new Line(item);
+            result.oldTotal += line.oldPrice * line.qty;
+
+            if (!item.getMenu().isAvailable()) {
+                result.unavailable.add(line);
+                continue;
+            }
+            if (line.oldPrice != line.newPrice) {
+                result.priceChanges.add(line);
+            }
+            result.orderableItems.add(item);
+            result.newTotal += item.getSubtotal();
+        }
+        return result;
+    }
+
+    public List<CartItem> getOrderableItems() {
+        return orderableItems;
+    }
+
+    public List<Line> getUnavailable() {
+        return unavailable;
+    }
+
+    public List<Line> getPriceChanges() {
+        return priceChanges;
+    }
+
+    public int getOldTotal() {
+        return oldTotal;
+    }
+
+    public int getNewTotal() {
+        return newTotal;
+    }
+
+    public boolean hasChanges() {
+        return !unavailable.isEmpty() || !priceChanges.isEmpty();
+    }
+
+    /**
+     * Same outcome as the one the buyer confirmed: same lines left out, same total
+     */
+    public boolean matches(CartRevalidation confirmed) {
+        if (confirmed == null || confirmed.newTotal != newTotal
+                || confirmed.unavailable.size() != unavailable.size()
+                || confirmed.orderableItems.size() != orderableItems.size()) {
+            return false;
+        }
+        for (int i = 0; i < unavailable.size(); i++) {
+            if (confirmed.unavailable.get(i).cartId != unavailable.get(i).cartId) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Flagged lines for the confirmation dialog, empty if nothing changed
+     */
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (Line line : unavailable) {
+            sb.append("❌ ").append(line.name).append(" x").append(line.qty)
+                    .append(": tidak tersedia, tidak ikut dipesan\n");
+        }
+        for (Line line : priceChanges) {
+            sb.append("💱 ").append(line.name).append(": ")
+                    .append(formatPrice(line.oldPrice)).append(" → ").append(formatPrice(line.newPrice)).append("\n");
+        }
+        if (hasChanges()) {
+            sb.append("\n💰 Total: ").append(formatPrice(oldTotal)).append(" → ").append(formatPrice(newTotal));
+        }
+        return sb.toString();
+    }
+
+    private static String formatPrice(int price) {
+        return "Rp " + String.format("%,d", price).replace(',', '.');
+    }
+}
@@ -1,32 +1,57 @@
 package com.example.kantinkampus;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.MenuItem;
 import android.view.View;
-import android.widget.EditText;
+import android.widget.ArrayAdapter;
+import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.RadioButton;
 import android.widget.RadioGroup;
+import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * CHECKOUT ACTIVITY - Payment First System
  * Handles payment method selection and order creation
+ * Buyers pick "as soon as possible" or a pickup slot with room at every stand
+ * ASAP is refused while a stand's queue is over its budget (busy mode)
+ * Cart changes (unavailable menus, new prices) are shown and must be confirmed
  */
 public class CheckoutActivity extends AppCompatActivity {
     private RadioGroup rgPaymentMethod;
     private RadioButton rbCash, rbOvo, rbGopay, rbDana, rbTransfer;
     private LinearLayout layoutTransferInfo;
     private TextView tvTotal, btnPlaceOrder, tvOrderSummary;
-    private EditText etPaymentProof;
+    private TextView btnPickPaymentProof;
+    private ImageView ivPaymentProof;
+    private String paymentProofRef; // "blob:<sha256>" once stored
+    private Spinner spPickupSlot;
+    private TextView tvPickupSlotInfo;
+    private List<String> pickupSlots = new ArrayList<>(); // index 0 = null (ASAP)
+    private Map<Integer, Integer> itemsPerStand = new HashMap<>();
+    private CartRevalidation revalidation; // cart vs menus as shown on this screen
+
+    private final ActivityResultLauncher<String> pickPaymentProof =
+            registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
+                if (uri != null) storePaymentProof(uri);
+            });
 
     private DBHelper dbHelper;
     private SessionManager sessionManager;
@@ -63,13 +88,17 @@ public class CheckoutActivity extends AppCompatActivity {
         tvTotal = findViewById(R.id.tvTotal);
         btnPlaceOrder = findViewById(R.id.btnPlaceOrder);
         tvOrderSummary = findViewById(R.id.tvOrderSummary);
-        etPaymentProof = findViewById(R.id.etPaymentProof);
+        btnPickPaymentProof = findViewById(R.id.btnPickPaymentProof);
+        ivPaymentProof = findViewById(R.id.ivPaymentProof);
+        spPickupSlot = findViewById(R.id.spPickupSlot);
+        tvPickupSlotInfo = findViewById(R.id.tvPickupSlotInfo);
 
         // Display total
         tvTotal.setText(formatPrice(totalAmount));
 
         // Load order summary
         loadOrderSummary();
+        loadPickupSlots();
 
         // Payment method selection
         rgPaymentMethod.setOnCheckedChangeListener((group, checkedId) -> {
@@ -80,13 +109,21 @@ public class CheckoutActivity extends AppCompatActivity {
             }
         });
 
+        // Payment proof photo
+        btnPickPaymentProof.setOnClickListener(v -> pickPaymentProof.launch("image/*"));
+
         // Place order button
         btnPlaceOrder.setOnClickListener(v -> confirmOrder());
     }
 
     private void loadOrderSummary() {
         int userId = sessionManager.getUserId();
-        List<CartItem> cartItems = dbHelper.getCartItems(userId);
+        revalidation = dbHelper.revalidateCart(userId);
+        List<CartItem> cartItems = revalidation.getOrderableItems();
+
+        // Charge what the menus cost now, not the total the cart screen had
+        totalAmount = revalidation.getNewTotal();
+        tvTotal.setText(formatPrice(totalAmount));
 
         StringBuilder summary = new StringBuilder();
         summary.append("📦 Ringkasan Pesanan:\n\n");
@@ -110,10 +147,128 @@ public class CheckoutActivity extends AppCompatActivity {
         }
 
         summary.append("\n💰 Total: ").append(formatPrice(totalAmount));
+        if (revalidation.hasChanges()) {
+            summary.append("\n\n⚠️ Keranjang berubah:\n").append(revalidation.getSummary());
+        }
 
         tvOrderSummary.setText(summary.toString());
     }
 
+    /**
+     * Next slots where every stand in the cart still has capacity
+     */
+    private void loadPickupSlots() {
+        itemsPerStand = new HashMap<>();
+        Map<Integer, Set<Integer>> menusPerStand = new HashMap<>();
+        for (CartItem item : revalidation.getOrderableItems()) {
+            int standId = item.getMenu().getStandId();
+            Integer qty = itemsPerStand.get(standId);
+            itemsPerStand.put(standId, (qty != null ? qty : 0) + item.getQty());
+
+            Set<Integer> menuIds = menusPerStand.get(standId);
+            if (menuIds == null) {
+                menuIds = new HashSet<>();
+                menusPerStand.put(standId, menuIds);
+            }
+            menuIds.add(item.getMenu().getId());
+        }
+
+        pickupSlots = new ArrayList<>();
+        pickupSlots.add(null);
+        pickupSlots.addAll(dbHelper.getAvailablePickupSlots(itemsPerStand, 8));
+
+        List<String> labels = new ArrayList<>();
+        for (String slot : pickupSlots) {
+            labels.add(slot == null ? "⚡ Secepatnya" : "⏰ " + Order.formatPickupSlot(slot));
+        }
+
+        ArrayAdapter<String> adapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_item, labels);
+        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spPickupSlot.setAdapter(adapter);
+
+        // "Secepatnya" is ready when the slowest stand is: its queue + cook time of these menus
+        long etaMs = 0;
+        for (StandLoad load : getBusyStands(false, 0)) {
+            long cookMs = dbHelper.getMenuCookMs(load.getStandId(), menusPerStand.get(load.getStandId()));
+            etaMs = Math.max(etaMs, load.getQueueMs() + (cookMs > 0 ? cookMs : load.getOrderMs()));
+        }
+        int etaMinutes = (int) Math.ceil(etaMs / 60000.0);
+
+        String info = pickupSlots.size() > 1 ?
+                "Pilih slot agar pesanan siap tepat waktu" :
+                "⚠️ Semua slot dalam 4 jam ke depan sudah penuh";
+        if (etaMinutes > 0) {
+            info = "⏱️ Secepatnya: siap ± " + etaMinutes + " menit\n" + info;
+        }
+        tvPickupSlotInfo.setText(info);
+    }
+
+    /**
+     * Cart lines asking for more portions than are left today, or null
+     */
+    private String getShortStockText() {
+        StringBuilder text = new StringBuilder();
+        for (CartItem item : dbHelper.getCartItems(sessionManager.getUserId())) {
+            int left = item.getMenu().getStockLeft();
+            if (left >= 0 && left < item.getQty()) {
+                text.append("• ").append(item.getMenu().getNama())
+                        .append(left == 0 ? ": habis" : ": sisa " + left).append("\n");
+            }
+        }
+        return text.length() > 0 ? text.toString() : null;
+    }
+
+    /**
+     * Loads of the stands in the cart
+     * @param overBudgetOnly true = only stands that cannot take this cart leadMs from now
+     */
+    private List<StandLoad> getBusyStands(boolean overBudgetOnly, long leadMs) {
+        List<StandLoad> loads = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : itemsPerStand.entrySet()) {
+            StandLoad load = dbHelper.getStandLoad(entry.getKey());
+            if (load != null && (!overBudgetOnly || !load.canAcceptAt(entry.getValue(), leadMs))) {
+                loads.add(load);
+            }
+        }
+        return loads;
+    }
+
+    /**
+     * Busy mode: orders over the stand's budget are refused, the buyer can defer
+     * to a later pickup slot (the budget then applies to the queue expected by then)
+     * @return true if the order may go ahead
+     */
+    private boolean checkAdmission() {
+        String slot = getSelectedPickupSlot();
+        List<StandLoad> busy = getBusyStands(true, DBHelper.getPickupSlotLeadMs(slot));
+        if (busy.isEmpty()) {
+            return true;
+        }
+
+        StringBuilder message = new StringBuilder();
+        for (StandLoad load : busy) {
+            message.append("🏪 ").append(load.getStandName())
+                    .append(": estimasi tunggu ~").append(load.getEstimatedWaitMinutes()).append(" menit\n");
+        }
+        message.append(slot == null
+                        ? "\nStand sedang ramai, pesanan \"Secepatnya\" belum bisa diterima. "
+                        : "\nStand masih ramai pada slot " + Order.formatPickupSlot(slot) + ". ")
+                .append("Pilih waktu pengambilan yang lebih lambat.");
+
+        new AlertDialog.Builder(this)
+                .setTitle("🔥 Stand Sedang Ramai")
+                .setMessage(message.toString())
+                .setPositiveButton("Pilih Waktu", (dialog, which) -> spPickupSlot.performClick())
+                .setNegativeButton("Batal", null)
+                .show();
+        return false;
+    }
+
+    private String getSelectedPickupSlot() {
+        int position = spPickupSlot.getSelectedItemPosition();
+        return position > 0 && position < pickupSlots.size() ? pickupSlots.get(position) : null;
+    }
+
     private void confirmOrder() {
         // Validate payment method
         int selectedId = rgPaymentMethod.getCheckedRadioButtonId();
@@ -128,16 +283,26 @@ public class CheckoutActivity extends AppCompatActivity {
         // If transfer, validate payment proof
         String paymentProof = null;
         if (selectedId == R.id.rbTransfer) {
-            paymentProof = etPaymentProof.getText().toString().trim();
-            if (paymentProof.isEmpty()) {
-                etPaymentProof.setError("Upload bukti pembayaran");
-                etPaymentProof.requestFocus();
+            paymentProof = paymentProofRef;
+            if (paymentProof == null) {
+                Toast.makeText(this, "Upload bukti pembayaran", Toast.LENGTH_SHORT).show();
                 return;
             }
         }
 
-        // Show confirmation
-        String message = "Metode Pembayaran: " + paymentMethod + "\n" +
+        if (!checkAdmission()) {
+            return;
+        }
+
+        if (revalidation.getOrderableItems().isEmpty()) {
+            Toast.makeText(this, "❌ Tidak ada menu yang tersedia di keranjang", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        // Show confirmation, including anything that changed since the items were added
+        String message = (revalidation.hasChanges() ? "⚠️ Keranjang berubah:\n" + revalidation.getSummary() + "\n\n" : "") +
+                "Metode Pembayaran: " + paymentMethod + "\n" +
+                "Waktu Ambil: " + Order.formatPickupSlot(getSelectedPickupSlot()) + "\n" +
                 "Total: " + formatPrice(totalAmount) + "\n\n";
 
         if (selectedId == R.id.rbCash) {
@@ -161,15 +326,23 @@ public class CheckoutActivity extends AppCompatActivity {
     private void processOrder(String paymentMethod, String paymentProof) {
         int buyerId = sessionManager.getUserId();
 
-        // Create orders (grouped by stand)
-        List<Long> orderIds = dbHelper.createOrdersFromCart(buyerId, paymentMethod);
+        // Create orders (grouped by stand), booked into the chosen slot
+        String pickupSlot = getSelectedPickupSlot();
+        CartRevalidation confirmed = revalidation;
+        List<Long> orderIds = dbHelper.createOrdersFromCart(buyerId, paymentMethod, pickupSlot, confirmed);
+        String shortStock = orderIds.isEmpty() ? getShortStockText() : null;
+        if (orderIds.isEmpty()) {
+            loadOrderSummary(); // latest prices and availability
+        }
 
         if (!orderIds.isEmpty()) {
-            // If transfer, update payment proof
+            // If transfer, all orders reference the same stored proof
             if (paymentProof != null) {
+                List<Integer> ids = new ArrayList<>();
                 for (Long orderId : orderIds) {
-                    dbHelper.updatePaymentProof(orderId.intValue(), paymentProof);
+                    ids.add(orderId.intValue());
                 }
+                dbHelper.updatePaymentProof(ids, paymentProof);
             }
 
             // Show success
@@ -196,11 +369,59 @@ public class CheckoutActivity extends AppCompatActivity {
                     .setCancelable(false)
                     .show();
 
+        } else if (revalidation.hasChanges() && !revalidation.matches(confirmed)) {
+            // Menus changed again after the buyer confirmed
+            new AlertDialog.Builder(this)
+                    .setTitle("🔄 Keranjang Berubah")
+                    .setMessage(revalidation.getSummary() + "\n\nPeriksa ringkasan lalu pesan lagi.")
+                    .setPositiveButton("OK", null)
+                    .show();
+        } else if (shortStock != null) {
+            // Other buyers took the last portions
+            new AlertDialog.Builder(this)
+                    .setTitle("📦 Stok Tidak Cukup")
+                    .setMessage(shortStock + "\nUbah jumlah di keranjang lalu coba lagi.")
+                    .setPositiveButton("OK", null)
+                    .show();
+        } else if (!getBusyStands(true, DBHelper.getPickupSlotLeadMs(pickupSlot)).isEmpty()) {
+            // The queue filled up between the check and the order
+            checkAdmission();
+            loadPickupSlots();
+        } else if (pickupSlot != null) {
+            // Most likely someone else took the last places in the slot
+            Toast.makeText(this, "⚠️ Slot " + Order.formatPickupSlot(pickupSlot) +
+                    " sudah penuh. Pilih slot lain.", Toast.LENGTH_LONG).show();
+            loadPickupSlots();
         } else {
             Toast.makeText(this, "Gagal membuat pesanan. Coba lagi.", Toast.LENGTH_SHORT).show();
         }
     }
 
+    /**
+     * Re-encode + store the picked photo in the background
+     */
+    private void storePaymentProof(Uri uri) {
+        btnPickPaymentProof.setEnabled(false);
+        btnPickPaymentProof.setText("⏳ Memproses foto...");
+
+        BlobStore.getInstance(this).putAsync(uri, ref -> {
+            if (isFinishing() || isDestroyed()) return;
+
+            btnPickPaymentProof.setEnabled(true);
+            if (ref == null) {
+                btnPickPaymentProof.setText("📷 Pilih Foto Bukti Transfer");
+                Toast.makeText(this, "Gagal memproses foto", Toast.LENGTH_SHORT).show();
+                return;
+            }
+
+            paymentProofRef = ref;
+            btnPickPaymentProof.setText("✅ Bukti terpilih (ketuk untuk ganti)");
+            ivPaymentProof.setVisibility(View.VISIBLE);
+            ImageLoader loader = ImageLoader.getInstance(this);
+            loader.load(ref, ivPaymentProof, loader.dpToPx(160), R.drawable.ic_book_placeholder);
+        });
+    }
+
     private String formatPrice(int price) {
         NumberFormat formatter = NumberFormat.getCurrencyInstance(new Locale("id", "ID"));
         return formatter.format(price).replace("IDR", "Rp").replace(",00", "");
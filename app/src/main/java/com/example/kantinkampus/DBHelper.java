@@ -3,18 +3,29 @@ package com.example.kantinkampus;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
+import android.util.SparseBooleanArray;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 
 import java.util.Map;
 import java.util.LinkedHashMap;
+import java.util.Set;
 
 /**
  * KANTIN KAMPUS - COMPLETE DATABASE HELPER
@@ -30,7 +41,7 @@ import java.util.LinkedHashMap;
 public class DBHelper extends SQLiteOpenHelper {
     private static final String TAG = "DBHelper";
     private static final String DATABASE_NAME = "kantinkampus_v3.db";
-    private static final int DATABASE_VERSION = 3;
+    private static final int DATABASE_VERSION = 19;
 
     // ==================== TABLES ====================
 
@@ -54,6 +65,8 @@ public class DBHelper extends SQLiteOpenHelper {
     private static final String STAND_DESCRIPTION = "description";
     private static final String STAND_IMAGE = "image";
     private static final String STAND_CREATED_AT = "created_at";
+    private static final String STAND_SLOT_CAPACITY = "slot_capacity"; // items per pickup slot, 0 = unlimited
+    private static final String STAND_MAX_OPEN_ITEMS = "max_open_items"; // admission budget, 0 = unlimited
 
     // Table: Menus
     private static final String TABLE_MENU = "menus";
@@ -66,6 +79,9 @@ public class DBHelper extends SQLiteOpenHelper {
     private static final String MENU_CATEGORY = "category";
     private static final String MENU_STATUS = "status"; // 'available', 'unavailable'
     private static final String MENU_CREATED_AT = "created_at";
+    private static final String MENU_DAILY_STOCK = "daily_stock"; // portions per day, 0 = unlimited
+    private static final String MENU_STOCK = "stock"; // portions left on stock_date
+    private static final String MENU_STOCK_DATE = "stock_date"; // yyyy-MM-dd, older = not restocked yet
 
     // Table: Cart (Support Multi-Stand)
     private static final String TABLE_CART = "cart";
@@ -74,6 +90,7 @@ public class DBHelper extends SQLiteOpenHelper {
     private static final String CART_MENU_ID = "menu_id";
     private static final String CART_QTY = "qty";
     private static final String CART_NOTES = "notes";
+    private static final String CART_SEEN_PRICE = "seen_price"; // menu price when added/last changed
 
     // Table: Orders (Grouped by Stand)
     private static final String TABLE_ORDERS = "orders";
@@ -90,6 +107,7 @@ public class DBHelper extends SQLiteOpenHelper {
     private static final String ORDER_BUYER_NOTES = "buyer_notes";
     private static final String ORDER_CREATED_AT = "created_at";
     private static final String ORDER_UPDATED_AT = "updated_at";
+    private static final String ORDER_PICKUP_SLOT = "pickup_slot"; // slot start "yyyy-MM-dd HH:mm", null = ASAP
 
     // Table: Order Items
     private static final String TABLE_ORDER_ITEMS = "order_items";
@@ -128,11 +146,115 @@ public class DBHelper extends SQLiteOpenHelper {
     private static final String NOTIF_IS_READ = "is_read";
     private static final String NOTIF_CREATED_AT = "created_at";
 
+    // Table: User Counters (badge counts, maintained by triggers)
+    private static final String TABLE_USER_COUNTERS = "user_counters";
+    private static final String COUNTER_USER_ID = "user_id";
+    private static final String COUNTER_CART_COUNT = "cart_count"; // SUM(cart.qty)
+    private static final String COUNTER_UNREAD_COUNT = "unread_count"; // unread notifications
+
+    // Table: Blobs (content-addressed photo files, see BlobStore)
+    private static final String TABLE_BLOBS = "blobs";
+    private static final String BLOB_HASH = "hash"; // SHA-256, file name
+    private static final String BLOB_SIZE = "size";
+    private static final String BLOB_REF_COUNT = "ref_count"; // maintained by triggers
+    private static final String BLOB_CREATED_AT = "created_at"; // millis
+
+    // Archive tier: terminal orders moved out of the hot tables by OrderArchiveJob
+    // Same columns as orders / order_items, no foreign keys
+    private static final String TABLE_ORDERS_ARCHIVE = "orders_archive";
+    private static final String TABLE_ORDER_ITEMS_ARCHIVE = "order_items_archive";
+
+    // Table: Order Events (append-only status log, written by triggers on orders)
+    // Integer status code + epoch millis, no foreign keys so it outlives archiving
+    private static final String TABLE_ORDER_EVENTS = "order_events";
+    private static final String EVENT_ORDER_ID = "order_id";
+    private static final String EVENT_STAND_ID = "stand_id";
+    private static final String EVENT_STATUS = "status"; // index in ORDER_EVENT_STATUSES
+    private static final String EVENT_AT = "at"; // millis
+    private static final String[] ORDER_EVENT_STATUSES = {
+            "pending_payment", "pending_verification", "verified", "cooking", "ready", "completed", "cancelled"
+    };
+
+    // Table: Kitchen Queue (item qty per menu across a stand's open orders, maintained by triggers)
+    private static final String TABLE_KITCHEN_QUEUE = "kitchen_queue";
+    private static final String KQ_STAND_ID = "stand_id";
+    private static final String KQ_STATUS = "status"; // 'verified' (to cook) or 'cooking'
+    private static final String KQ_MENU_ID = "menu_id";
+    private static final String KQ_QTY = "qty";
+    private static final String KQ_ORDER_COUNT = "order_count";
+    private static final String KITCHEN_STATUSES = "('verified', 'cooking')";
+
+    // Table: Pickup Slot Counters (items booked per stand and slot, see reservePickupSlot)
+    private static final String TABLE_PICKUP_SLOTS = "pickup_slot_counters";
+    private static final String SLOT_STAND_ID = "stand_id";
+    private static final String SLOT_START = "slot_start"; // same format as orders.pickup_slot
+    private static final String SLOT_ITEMS = "items";
+
+    // Table: Stand Load (live queue depth per stand, maintained by triggers)
+    private static final String TABLE_STAND_LOAD = "stand_load";
+    private static final String LOAD_STAND_ID = "stand_id";
+    private static final String LOAD_OPEN_ORDERS = "open_orders";
+    private static final String LOAD_OPEN_ITEMS = "open_items";
+    // Placed but not ready yet: these still need kitchen time
+    private static final String OPEN_STATUSES = "('pending_payment', 'pending_verification', 'verified', 'cooking')";
+
+    // Table: Prep Time Stats (EWMA cook times, updated by trigger on cooking -> ready)
+    // menu_id = 0 is the stand-wide row
+    private static final String TABLE_PREP_TIME = "prep_time_stats";
+    private static final String PREP_STAND_ID = "stand_id";
+    private static final String PREP_MENU_ID = "menu_id";
+    private static final String PREP_ITEM_MS = "item_ms"; // cook time per item (kitchen throughput)
+    private static final String PREP_ORDER_MS = "order_ms"; // cook time of a whole order
+    private static final String PREP_SAMPLES = "samples";
+    private static final double PREP_EWMA_ALPHA = 0.2;
+
+    // Co-occurrence: how many orders contained both menus, one row per direction
+    private static final String TABLE_MENU_PAIRS = "menu_pairs";
+    private static final String PAIR_MENU_ID = "menu_id";
+    private static final String PAIR_OTHER_ID = "other_id";
+    private static final String PAIR_ORDERS = "orders";
+    private static final int MENU_PAIRS_KEEP = 20; // partners kept per menu after pruning
+    private static final int MENU_PAIRS_CAP = 2 * MENU_PAIRS_KEEP; // per-checkout cap, room for rising pairs
+
+    // Per-buyer affinity: order lines per menu, split by time of day (MenuRanker.DAYPARTS)
+    private static final String TABLE_USER_AFFINITY = "user_affinity";
+    private static final String AFF_USER_ID = "user_id";
+    private static final String AFF_MENU_ID = "menu_id";
+    private static final String AFF_ORDERS = "orders";
+    private static final String[] AFF_DAYPART_ORDERS = {"orders_morning", "orders_lunch", "orders_afternoon", "orders_evening"};
+
+    // Star histogram per menu, maintained by addReview (stars_1 .. stars_5)
+    private static final String TABLE_MENU_RATINGS = "menu_ratings";
+    private static final String RATING_MENU_ID = "menu_id";
+    private static final String RATING_STARS_PREFIX = "stars_";
+
+    public static final int PICKUP_SLOT_MINUTES = 15;
+    private static final int PICKUP_SLOT_HORIZON = 16; // slots offered at checkout (4 hours)
+
+    private static final String ORDER_COLUMNS = ORDER_ID + ", " + ORDER_BUYER_ID + ", " + ORDER_STAND_ID + ", "
+            + ORDER_TOTAL + ", " + ORDER_STATUS + ", " + ORDER_PAYMENT_METHOD + ", " + ORDER_PAYMENT_PROOF + ", "
+            + ORDER_PAYMENT_STATUS + ", " + ORDER_SELLER_NOTES + ", " + ORDER_BUYER_NOTES + ", "
+            + ORDER_CREATED_AT + ", " + ORDER_UPDATED_AT + ", " + ORDER_PICKUP_SLOT;
+    private static final String ITEM_COLUMNS = ITEM_ID + ", " + ITEM_ORDER_ID + ", " + ITEM_MENU_ID + ", "
+            + ITEM_QTY + ", " + ITEM_PRICE + ", " + ITEM_SUBTOTAL;
+
+    // Seller filter on orders / orders_archive, served by the (stand_id, status, id) indexes
+    private static final String STANDS_OF_SELLER = "o." + ORDER_STAND_ID + " IN (SELECT " + STAND_ID
+            + " FROM " + TABLE_STAND + " WHERE " + STAND_SELLER_ID + " = ?)";
+
     private Context context;
 
     public DBHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this(context, DATABASE_NAME);
+    }
+
+    /**
+     * Helper on a separate database file (load simulation, benchmarks)
+     */
+    public DBHelper(Context context, String databaseName) {
+        super(context, databaseName, null, DATABASE_VERSION);
         this.context = context;
+        setWriteAheadLoggingEnabled(true); // readers never wait on writers, see DatabaseMaintenance
     }
 
     @Override
@@ -257,6 +379,9 @@ public class DBHelper extends SQLiteOpenHelper {
                     + "FOREIGN KEY(" + NOTIF_ORDER_ID + ") REFERENCES " + TABLE_ORDERS + "(" + ORDER_ID + ") ON DELETE CASCADE)";
             db.execSQL(createNotifications);
 
+            // Apply incremental schema changes (v4+)
+            applyMigrations(db, 3);
+
             // Insert Demo Data
             insertDemoData(db);
 
@@ -271,6 +396,12 @@ public class DBHelper extends SQLiteOpenHelper {
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         Log.w(TAG, "Upgrading database from version " + oldVersion + " to " + newVersion);
 
+        // v3+ databases keep their data and get incremental migrations
+        if (oldVersion >= 3) {
+            applyMigrations(db, oldVersion);
+            return;
+        }
+
         // Drop all tables
         db.execSQL("DROP TABLE IF EXISTS " + TABLE_NOTIFICATIONS);
         db.execSQL("DROP TABLE IF EXISTS " + TABLE_REVIEWS);
@@ -286,6 +417,525 @@ public class DBHelper extends SQLiteOpenHelper {
         onCreate(db);
     }
 
+    /**
+     * Incremental schema changes on top of the v3 base schema
+     * Each block runs once, for databases older than that version
+     */
+    private void applyMigrations(SQLiteDatabase db, int fromVersion) {
+        if (fromVersion < 4) {
+            // Notification inbox: keyset paging + unread lookups
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_user_id ON " + TABLE_NOTIFICATIONS +
+                    "(" + NOTIF_USER_ID + ", " + NOTIF_ID + ")");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_notifications_user_read ON " + TABLE_NOTIFICATIONS +
+                    "(" + NOTIF_USER_ID + ", " + NOTIF_IS_READ + ")");
+        }
+
+        if (fromVersion < 5) {
+            // Badge counters, kept in sync by triggers on cart & notifications
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_USER_COUNTERS + " ("
+                    + COUNTER_USER_ID + " INTEGER PRIMARY KEY, "
+                    + COUNTER_CART_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+                    + COUNTER_UNREAD_COUNT + " INTEGER NOT NULL DEFAULT 0)");
+
+            String ensureRow = "INSERT OR IGNORE INTO " + TABLE_USER_COUNTERS + "(" + COUNTER_USER_ID + ") VALUES ";
+
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_cart_insert AFTER INSERT ON " + TABLE_CART + " BEGIN "
+                    + ensureRow + "(NEW." + CART_BUYER_ID + "); "
+                    + "UPDATE " + TABLE_USER_COUNTERS + " SET " + COUNTER_CART_COUNT + " = " + COUNTER_CART_COUNT + " + NEW." + CART_QTY
+                    + " WHERE " + COUNTER_USER_ID + " = NEW." + CART_BUYER_ID + "; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_cart_update AFTER UPDATE OF " + CART_QTY + " ON " + TABLE_CART + " BEGIN "
+                    + "UPDATE " + TABLE_USER_COUNTERS + " SET " + COUNTER_CART_COUNT + " = " + COUNTER_CART_COUNT + " + NEW." + CART_QTY + " - OLD." + CART_QTY
+                    + " WHERE " + COUNTER_USER_ID + " = NEW." + CART_BUYER_ID + "; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_cart_delete AFTER DELETE ON " + TABLE_CART + " BEGIN "
+                    + "UPDATE " + TABLE_USER_COUNTERS + " SET " + COUNTER_CART_COUNT + " = " + COUNTER_CART_COUNT + " - OLD." + CART_QTY
+                    + " WHERE " + COUNTER_USER_ID + " = OLD." + CART_BUYER_ID + "; END");
+
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_notif_insert AFTER INSERT ON " + TABLE_NOTIFICATIONS
+                    + " WHEN NEW." + NOTIF_IS_READ + " = 0 BEGIN "
+                    + ensureRow + "(NEW." + NOTIF_USER_ID + "); "
+                    + "UPDATE " + TABLE_USER_COUNTERS + " SET " + COUNTER_UNREAD_COUNT + " = " + COUNTER_UNREAD_COUNT + " + 1"
+                    + " WHERE " + COUNTER_USER_ID + " = NEW." + NOTIF_USER_ID + "; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_notif_read AFTER UPDATE OF " + NOTIF_IS_READ + " ON " + TABLE_NOTIFICATIONS
+                    + " WHEN OLD." + NOTIF_IS_READ + " <> NEW." + NOTIF_IS_READ + " BEGIN "
+                    + "UPDATE " + TABLE_USER_COUNTERS + " SET " + COUNTER_UNREAD_COUNT + " = " + COUNTER_UNREAD_COUNT
+                    + " + (CASE WHEN NEW." + NOTIF_IS_READ + " = 0 THEN 1 ELSE -1 END)"
+                    + " WHERE " + COUNTER_USER_ID + " = NEW." + NOTIF_USER_ID + "; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_notif_delete AFTER DELETE ON " + TABLE_NOTIFICATIONS
+                    + " WHEN OLD." + NOTIF_IS_READ + " = 0 BEGIN "
+                    + "UPDATE " + TABLE_USER_COUNTERS + " SET " + COUNTER_UNREAD_COUNT + " = " + COUNTER_UNREAD_COUNT + " - 1"
+                    + " WHERE " + COUNTER_USER_ID + " = OLD." + NOTIF_USER_ID + "; END");
+
+            // Backfill from existing rows
+            db.execSQL("INSERT OR REPLACE INTO " + TABLE_USER_COUNTERS + " ("
+                    + COUNTER_USER_ID + ", " + COUNTER_CART_COUNT + ", " + COUNTER_UNREAD_COUNT + ") "
+                    + "SELECT u." + USER_ID + ", "
+                    + "(SELECT COALESCE(SUM(" + CART_QTY + "), 0) FROM " + TABLE_CART + " WHERE " + CART_BUYER_ID + " = u." + USER_ID + "), "
+                    + "(SELECT COUNT(*) FROM " + TABLE_NOTIFICATIONS + " WHERE " + NOTIF_USER_ID + " = u." + USER_ID
+                    + " AND " + NOTIF_IS_READ + " = 0) "
+                    + "FROM " + TABLE_USERS + " u");
+        }
+
+        if (fromVersion < 6) {
+            // Blob reference counts, kept in sync by triggers on every column holding "blob:<sha256>"
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_BLOBS + " ("
+                    + BLOB_HASH + " TEXT PRIMARY KEY, "
+                    + BLOB_SIZE + " INTEGER NOT NULL DEFAULT 0, "
+                    + BLOB_REF_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+                    + BLOB_CREATED_AT + " INTEGER NOT NULL DEFAULT 0)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_blobs_ref_count ON " + TABLE_BLOBS + "(" + BLOB_REF_COUNT + ")");
+
+            createBlobRefTriggers(db, TABLE_MENU, MENU_IMAGE);
+            createBlobRefTriggers(db, TABLE_STAND, STAND_IMAGE);
+            createBlobRefTriggers(db, TABLE_ORDERS, ORDER_PAYMENT_PROOF);
+        }
+
+        if (fromVersion < 7) {
+            // Per-stand order history by date (sales export, date-range reports)
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_orders_stand_created ON " + TABLE_ORDERS +
+                    "(" + ORDER_STAND_ID + ", " + ORDER_CREATED_AT + ")");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_order_items_order ON " + TABLE_ORDER_ITEMS +
+                    "(" + ITEM_ORDER_ID + ")");
+        }
+
+        if (fromVersion < 8) {
+            // Archive tier (OrderArchiveJob), history pages read it only past the hot set
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_ORDERS_ARCHIVE + " ("
+                    + ORDER_ID + " INTEGER PRIMARY KEY, "
+                    + ORDER_BUYER_ID + " INTEGER NOT NULL, "
+                    + ORDER_STAND_ID + " INTEGER NOT NULL, "
+                    + ORDER_TOTAL + " INTEGER NOT NULL, "
+                    + ORDER_STATUS + " TEXT, "
+                    + ORDER_PAYMENT_METHOD + " TEXT, "
+                    + ORDER_PAYMENT_PROOF + " TEXT, "
+                    + ORDER_PAYMENT_STATUS + " TEXT, "
+                    + ORDER_SELLER_NOTES + " TEXT, "
+                    + ORDER_BUYER_NOTES + " TEXT, "
+                    + ORDER_CREATED_AT + " TEXT NOT NULL, "
+                    + ORDER_UPDATED_AT + " TEXT NOT NULL)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_ORDER_ITEMS_ARCHIVE + " ("
+                    + ITEM_ID + " INTEGER PRIMARY KEY, "
+                    + ITEM_ORDER_ID + " INTEGER NOT NULL, "
+                    + ITEM_MENU_ID + " INTEGER NOT NULL, "
+                    + ITEM_QTY + " INTEGER NOT NULL, "
+                    + ITEM_PRICE + " INTEGER NOT NULL, "
+                    + ITEM_SUBTOTAL + " INTEGER NOT NULL)");
+
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_orders_archive_buyer ON " + TABLE_ORDERS_ARCHIVE +
+                    "(" + ORDER_BUYER_ID + ", " + ORDER_ID + ")");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_orders_archive_stand ON " + TABLE_ORDERS_ARCHIVE +
+                    "(" + ORDER_STAND_ID + ", " + ORDER_STATUS + ", " + ORDER_ID + ")");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_order_items_archive_order ON " + TABLE_ORDER_ITEMS_ARCHIVE +
+                    "(" + ITEM_ORDER_ID + ")");
+
+            // Hot history pages (keyset on id) + archive candidate scan
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_orders_buyer ON " + TABLE_ORDERS +
+                    "(" + ORDER_BUYER_ID + ", " + ORDER_ID + ")");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_orders_stand_status ON " + TABLE_ORDERS +
+                    "(" + ORDER_STAND_ID + ", " + ORDER_STATUS + ", " + ORDER_ID + ")");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_orders_status_updated ON " + TABLE_ORDERS +
+                    "(" + ORDER_STATUS + ", " + ORDER_UPDATED_AT + ")");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_reviews_order ON " + TABLE_REVIEWS +
+                    "(" + REVIEW_ORDER_ID + ")");
+
+            // Moving a row must keep its payment proof referenced
+            createBlobRefTriggers(db, TABLE_ORDERS_ARCHIVE, ORDER_PAYMENT_PROOF);
+        }
+
+        if (fromVersion < 9) {
+            // Order status log for stage latency stats (getStageDelays)
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_ORDER_EVENTS + " ("
+                    + EVENT_ORDER_ID + " INTEGER NOT NULL, "
+                    + EVENT_STAND_ID + " INTEGER NOT NULL, "
+                    + EVENT_STATUS + " INTEGER NOT NULL, "
+                    + EVENT_AT + " INTEGER NOT NULL)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_order_events_order ON " + TABLE_ORDER_EVENTS +
+                    "(" + EVENT_ORDER_ID + ", " + EVENT_STATUS + ")");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_order_events_stand ON " + TABLE_ORDER_EVENTS +
+                    "(" + EVENT_STAND_ID + ", " + EVENT_STATUS + ", " + EVENT_AT + ")");
+
+            // Triggers fire inside the writer's transaction: every transition (createOrdersFromCart,
+            // verifyPayment, updateOrderStatus, cancelOrder, bulk updates) is logged with it
+            StringBuilder code = new StringBuilder("CASE NEW." + ORDER_STATUS);
+            for (int i = 0; i < ORDER_EVENT_STATUSES.length; i++) {
+                code.append(" WHEN '").append(ORDER_EVENT_STATUSES[i]).append("' THEN ").append(i);
+            }
+            code.append(" ELSE -1 END");
+            String log = "INSERT INTO " + TABLE_ORDER_EVENTS + " VALUES (NEW." + ORDER_ID + ", NEW." + ORDER_STAND_ID
+                    + ", " + code + ", CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)); ";
+
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_order_events_insert AFTER INSERT ON " + TABLE_ORDERS
+                    + " BEGIN " + log + "END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_order_events_status AFTER UPDATE OF " + ORDER_STATUS
+                    + " ON " + TABLE_ORDERS + " WHEN OLD." + ORDER_STATUS + " IS NOT NEW." + ORDER_STATUS
+                    + " BEGIN " + log + "END");
+        }
+
+        if (fromVersion < 10) {
+            // Kitchen batching view (getKitchenBatches): one row per stand/status/menu
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_KITCHEN_QUEUE + " ("
+                    + KQ_STAND_ID + " INTEGER NOT NULL, "
+                    + KQ_STATUS + " TEXT NOT NULL, "
+                    + KQ_MENU_ID + " INTEGER NOT NULL, "
+                    + KQ_QTY + " INTEGER NOT NULL DEFAULT 0, "
+                    + KQ_ORDER_COUNT + " INTEGER NOT NULL DEFAULT 0, "
+                    + "PRIMARY KEY (" + KQ_STAND_ID + ", " + KQ_STATUS + ", " + KQ_MENU_ID + "))");
+
+            // Orders enter/leave the queue on status changes; items are always written before that
+            String enter = "WHEN NEW." + ORDER_STATUS + " IN " + KITCHEN_STATUSES;
+            String leave = "WHEN OLD." + ORDER_STATUS + " IN " + KITCHEN_STATUSES;
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_kitchen_enter AFTER UPDATE OF " + ORDER_STATUS + " ON " + TABLE_ORDERS
+                    + " " + enter + " AND OLD." + ORDER_STATUS + " IS NOT NEW." + ORDER_STATUS
+                    + " BEGIN " + buildKitchenQueueSql("NEW", "+") + "END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_kitchen_leave AFTER UPDATE OF " + ORDER_STATUS + " ON " + TABLE_ORDERS
+                    + " " + leave + " AND OLD." + ORDER_STATUS + " IS NOT NEW." + ORDER_STATUS
+                    + " BEGIN " + buildKitchenQueueSql("OLD", "-") + "END");
+            // BEFORE: the items are still there (cascade deletes them with the order)
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_kitchen_delete BEFORE DELETE ON " + TABLE_ORDERS
+                    + " " + leave + " BEGIN " + buildKitchenQueueSql("OLD", "-") + "END");
+
+            rebuildKitchenQueue(db);
+        }
+
+        if (fromVersion < 11) {
+            // Pickup slots: per-stand capacity, chosen slot on the order, booked items per slot
+            db.execSQL("ALTER TABLE " + TABLE_STAND + " ADD COLUMN " + STAND_SLOT_CAPACITY + " INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS + " ADD COLUMN " + ORDER_PICKUP_SLOT + " TEXT");
+            db.execSQL("ALTER TABLE " + TABLE_ORDERS_ARCHIVE + " ADD COLUMN " + ORDER_PICKUP_SLOT + " TEXT");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_PICKUP_SLOTS + " ("
+                    + SLOT_STAND_ID + " INTEGER NOT NULL, "
+                    + SLOT_START + " TEXT NOT NULL, "
+                    + SLOT_ITEMS + " INTEGER NOT NULL DEFAULT 0, "
+                    + "PRIMARY KEY (" + SLOT_STAND_ID + ", " + SLOT_START + "))");
+
+            // A cancelled (or rejected) order gives its items back to the slot
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_pickup_slot_release AFTER UPDATE OF " + ORDER_STATUS + " ON " + TABLE_ORDERS
+                    + " WHEN NEW." + ORDER_STATUS + " = 'cancelled' AND OLD." + ORDER_STATUS + " IS NOT 'cancelled'"
+                    + " AND NEW." + ORDER_PICKUP_SLOT + " IS NOT NULL BEGIN "
+                    + "UPDATE " + TABLE_PICKUP_SLOTS + " SET " + SLOT_ITEMS + " = " + SLOT_ITEMS
+                    + " - (SELECT COALESCE(SUM(" + ITEM_QTY + "), 0) FROM " + TABLE_ORDER_ITEMS
+                    + " WHERE " + ITEM_ORDER_ID + " = NEW." + ORDER_ID + ")"
+                    + " WHERE " + SLOT_STAND_ID + " = NEW." + ORDER_STAND_ID + " AND " + SLOT_START + " = NEW." + ORDER_PICKUP_SLOT + "; END");
+        }
+
+        if (fromVersion < 12) {
+            // Admission control: per-stand open-item budget + live queue depth
+            db.execSQL("ALTER TABLE " + TABLE_STAND + " ADD COLUMN " + STAND_MAX_OPEN_ITEMS + " INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_STAND_LOAD + " ("
+                    + LOAD_STAND_ID + " INTEGER PRIMARY KEY, "
+                    + LOAD_OPEN_ORDERS + " INTEGER NOT NULL DEFAULT 0, "
+                    + LOAD_OPEN_ITEMS + " INTEGER NOT NULL DEFAULT 0)");
+
+            String ensureRow = "INSERT OR IGNORE INTO " + TABLE_STAND_LOAD + "(" + LOAD_STAND_ID + ") VALUES ";
+            String itemsOf = "(SELECT COALESCE(SUM(" + ITEM_QTY + "), 0) FROM " + TABLE_ORDER_ITEMS + " WHERE " + ITEM_ORDER_ID + " = ";
+
+            // New orders count at once; their items arrive right after, in the same transaction
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_load_order_insert AFTER INSERT ON " + TABLE_ORDERS
+                    + " WHEN NEW." + ORDER_STATUS + " IN " + OPEN_STATUSES + " BEGIN "
+                    + ensureRow + "(NEW." + ORDER_STAND_ID + "); "
+                    + "UPDATE " + TABLE_STAND_LOAD + " SET " + LOAD_OPEN_ORDERS + " = " + LOAD_OPEN_ORDERS + " + 1"
+                    + " WHERE " + LOAD_STAND_ID + " = NEW." + ORDER_STAND_ID + "; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_load_item_insert AFTER INSERT ON " + TABLE_ORDER_ITEMS
+                    + " WHEN (SELECT " + ORDER_STATUS + " FROM " + TABLE_ORDERS + " WHERE " + ORDER_ID + " = NEW." + ITEM_ORDER_ID + ")"
+                    + " IN " + OPEN_STATUSES + " BEGIN "
+                    + "UPDATE " + TABLE_STAND_LOAD + " SET " + LOAD_OPEN_ITEMS + " = " + LOAD_OPEN_ITEMS + " + NEW." + ITEM_QTY
+                    + " WHERE " + LOAD_STAND_ID + " = (SELECT " + ORDER_STAND_ID + " FROM " + TABLE_ORDERS
+                    + " WHERE " + ORDER_ID + " = NEW." + ITEM_ORDER_ID + "); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_load_leave AFTER UPDATE OF " + ORDER_STATUS + " ON " + TABLE_ORDERS
+                    + " WHEN OLD." + ORDER_STATUS + " IN " + OPEN_STATUSES + " AND NEW." + ORDER_STATUS + " NOT IN " + OPEN_STATUSES + " BEGIN "
+                    + "UPDATE " + TABLE_STAND_LOAD + " SET " + LOAD_OPEN_ORDERS + " = " + LOAD_OPEN_ORDERS + " - 1, "
+                    + LOAD_OPEN_ITEMS + " = " + LOAD_OPEN_ITEMS + " - " + itemsOf + "OLD." + ORDER_ID + ")"
+                    + " WHERE " + LOAD_STAND_ID + " = OLD." + ORDER_STAND_ID + "; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_load_enter AFTER UPDATE OF " + ORDER_STATUS + " ON " + TABLE_ORDERS
+                    + " WHEN OLD." + ORDER_STATUS + " NOT IN " + OPEN_STATUSES + " AND NEW." + ORDER_STATUS + " IN " + OPEN_STATUSES + " BEGIN "
+                    + ensureRow + "(NEW." + ORDER_STAND_ID + "); "
+                    + "UPDATE " + TABLE_STAND_LOAD + " SET " + LOAD_OPEN_ORDERS + " = " + LOAD_OPEN_ORDERS + " + 1, "
+                    + LOAD_OPEN_ITEMS + " = " + LOAD_OPEN_ITEMS + " + " + itemsOf + "NEW." + ORDER_ID + ")"
+                    + " WHERE " + LOAD_STAND_ID + " = NEW." + ORDER_STAND_ID + "; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_load_delete BEFORE DELETE ON " + TABLE_ORDERS
+                    + " WHEN OLD." + ORDER_STATUS + " IN " + OPEN_STATUSES + " BEGIN "
+                    + "UPDATE " + TABLE_STAND_LOAD + " SET " + LOAD_OPEN_ORDERS + " = " + LOAD_OPEN_ORDERS + " - 1, "
+                    + LOAD_OPEN_ITEMS + " = " + LOAD_OPEN_ITEMS + " - " + itemsOf + "OLD." + ORDER_ID + ")"
+                    + " WHERE " + LOAD_STAND_ID + " = OLD." + ORDER_STAND_ID + "; END");
+
+            // Backfill from open orders
+            db.execSQL("INSERT OR REPLACE INTO " + TABLE_STAND_LOAD + " "
+                    + "SELECT o." + ORDER_STAND_ID + ", COUNT(*), COALESCE(SUM(" + itemsOf + "o." + ORDER_ID + ")), 0) "
+                    + "FROM " + TABLE_ORDERS + " o WHERE o." + ORDER_STATUS + " IN " + OPEN_STATUSES + " "
+                    + "GROUP BY o." + ORDER_STAND_ID);
+        }
+
+        if (fromVersion < 13) {
+            // Prep-time model: one EWMA step per finished cook, never a history scan
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_PREP_TIME + " ("
+                    + PREP_STAND_ID + " INTEGER NOT NULL, "
+                    + PREP_MENU_ID + " INTEGER NOT NULL, "
+                    + PREP_ITEM_MS + " REAL NOT NULL DEFAULT 0, "
+                    + PREP_ORDER_MS + " REAL NOT NULL DEFAULT 0, "
+                    + PREP_SAMPLES + " INTEGER NOT NULL DEFAULT 0, "
+                    + "PRIMARY KEY (" + PREP_STAND_ID + ", " + PREP_MENU_ID + "))");
+
+            // Cook time = gap between the updated_at written on -> cooking and on -> ready
+            String cookMs = "((julianday(NEW." + ORDER_UPDATED_AT + ") - julianday(OLD." + ORDER_UPDATED_AT + ")) * 86400000.0)";
+            String qty = "MAX(1, (SELECT SUM(" + ITEM_QTY + ") FROM " + TABLE_ORDER_ITEMS + " WHERE " + ITEM_ORDER_ID + " = NEW." + ORDER_ID + "))";
+            String menusOfOrder = "SELECT " + ITEM_MENU_ID + " FROM " + TABLE_ORDER_ITEMS + " WHERE " + ITEM_ORDER_ID + " = NEW." + ORDER_ID;
+
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_prep_time AFTER UPDATE OF " + ORDER_STATUS + " ON " + TABLE_ORDERS
+                    + " WHEN OLD." + ORDER_STATUS + " = 'cooking' AND NEW." + ORDER_STATUS + " = 'ready'"
+                    + " AND " + cookMs + " BETWEEN 1 AND 10800000 BEGIN " // ignore clock jumps and forgotten orders (> 3 h)
+                    + "INSERT OR IGNORE INTO " + TABLE_PREP_TIME + "(" + PREP_STAND_ID + ", " + PREP_MENU_ID + ") "
+                    + "VALUES (NEW." + ORDER_STAND_ID + ", 0); "
+                    + "INSERT OR IGNORE INTO " + TABLE_PREP_TIME + "(" + PREP_STAND_ID + ", " + PREP_MENU_ID + ") "
+                    + "SELECT DISTINCT NEW." + ORDER_STAND_ID + ", " + ITEM_MENU_ID + " FROM " + TABLE_ORDER_ITEMS
+                    + " WHERE " + ITEM_ORDER_ID + " = NEW." + ORDER_ID + "; "
+                    + "UPDATE " + TABLE_PREP_TIME + " SET "
+                    + PREP_ITEM_MS + " = " + ewma(PREP_ITEM_MS, cookMs + " / " + qty) + ", "
+                    + PREP_ORDER_MS + " = " + ewma(PREP_ORDER_MS, cookMs) + ", "
+                    + PREP_SAMPLES + " = " + PREP_SAMPLES + " + 1 "
+                    + "WHERE " + PREP_STAND_ID + " = NEW." + ORDER_STAND_ID
+                    + " AND (" + PREP_MENU_ID + " = 0 OR " + PREP_MENU_ID + " IN (" + menusOfOrder + ")); END");
+        }
+
+        if (fromVersion < 14) {
+            // Daily stock: decremented at checkout; a stock_date before today means "full again"
+            db.execSQL("ALTER TABLE " + TABLE_MENU + " ADD COLUMN " + MENU_DAILY_STOCK + " INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_MENU + " ADD COLUMN " + MENU_STOCK + " INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_MENU + " ADD COLUMN " + MENU_STOCK_DATE + " TEXT");
+
+            // A cancelled order gives its portions back, if they were taken from today's stock;
+            // a menu that ran out is available again
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_menu_stock_restore AFTER UPDATE OF " + ORDER_STATUS + " ON " + TABLE_ORDERS
+                    + " WHEN NEW." + ORDER_STATUS + " = 'cancelled' AND OLD." + ORDER_STATUS + " IS NOT 'cancelled' BEGIN "
+                    + "UPDATE " + TABLE_MENU + " SET "
+                    + MENU_STOCK + " = " + MENU_STOCK + " + (SELECT SUM(" + ITEM_QTY + ") FROM " + TABLE_ORDER_ITEMS
+                    + " WHERE " + ITEM_ORDER_ID + " = NEW." + ORDER_ID + " AND " + ITEM_MENU_ID + " = " + TABLE_MENU + "." + MENU_ID + "), "
+                    + MENU_STATUS + " = CASE WHEN " + MENU_STOCK + " <= 0 AND " + MENU_STATUS + " = 'unavailable'"
+                    + " THEN 'available' ELSE " + MENU_STATUS + " END "
+                    + "WHERE " + MENU_DAILY_STOCK + " > 0 AND " + MENU_STOCK_DATE + " = date(NEW." + ORDER_CREATED_AT + ")"
+                    + " AND " + MENU_ID + " IN (SELECT " + ITEM_MENU_ID + " FROM " + TABLE_ORDER_ITEMS
+                    + " WHERE " + ITEM_ORDER_ID + " = NEW." + ORDER_ID + "); END");
+        }
+
+        if (fromVersion < 15) {
+            // Price the buyer saw: checkout revalidates the cart against it
+            db.execSQL("ALTER TABLE " + TABLE_CART + " ADD COLUMN " + CART_SEEN_PRICE + " INTEGER NOT NULL DEFAULT 0");
+
+            String seenPrice = "UPDATE " + TABLE_CART + " SET " + CART_SEEN_PRICE + " = (SELECT " + MENU_PRICE
+                    + " FROM " + TABLE_MENU + " WHERE " + MENU_ID + " = NEW." + CART_MENU_ID + ")"
+                    + " WHERE " + CART_ID + " = NEW." + CART_ID + "; ";
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_cart_seen_price_insert AFTER INSERT ON " + TABLE_CART
+                    + " BEGIN " + seenPrice + "END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_cart_seen_price_update AFTER UPDATE OF " + CART_QTY + " ON " + TABLE_CART
+                    + " BEGIN " + seenPrice + "END");
+
+            db.execSQL("UPDATE " + TABLE_CART + " SET " + CART_SEEN_PRICE + " = (SELECT " + MENU_PRICE
+                    + " FROM " + TABLE_MENU + " WHERE " + TABLE_MENU + "." + MENU_ID + " = " + TABLE_CART + "." + CART_MENU_ID + ")");
+        }
+
+        if (fromVersion < 16) {
+            // "Often ordered with": sparse pair counts, read top-first through the index
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_MENU_PAIRS + " ("
+                    + PAIR_MENU_ID + " INTEGER NOT NULL, "
+                    + PAIR_OTHER_ID + " INTEGER NOT NULL, "
+                    + PAIR_ORDERS + " INTEGER NOT NULL DEFAULT 0, "
+                    + "PRIMARY KEY (" + PAIR_MENU_ID + ", " + PAIR_OTHER_ID + "))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_menu_pairs_top ON " + TABLE_MENU_PAIRS
+                    + "(" + PAIR_MENU_ID + ", " + PAIR_ORDERS + ")");
+
+            // Each new item pairs with the items already in its order (checkout inserts them one by one)
+            String others = "SELECT DISTINCT " + ITEM_MENU_ID + " FROM " + TABLE_ORDER_ITEMS
+                    + " WHERE " + ITEM_ORDER_ID + " = NEW." + ITEM_ORDER_ID + " AND " + ITEM_MENU_ID + " <> NEW." + ITEM_MENU_ID
+                    + " AND " + ITEM_ID + " <> NEW." + ITEM_ID;
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_menu_pairs AFTER INSERT ON " + TABLE_ORDER_ITEMS + " BEGIN "
+                    + "INSERT OR IGNORE INTO " + TABLE_MENU_PAIRS + "(" + PAIR_MENU_ID + ", " + PAIR_OTHER_ID + ") "
+                    + "SELECT NEW." + ITEM_MENU_ID + ", " + ITEM_MENU_ID + " FROM (" + others + "); "
+                    + "INSERT OR IGNORE INTO " + TABLE_MENU_PAIRS + "(" + PAIR_MENU_ID + ", " + PAIR_OTHER_ID + ") "
+                    + "SELECT " + ITEM_MENU_ID + ", NEW." + ITEM_MENU_ID + " FROM (" + others + "); "
+                    + "UPDATE " + TABLE_MENU_PAIRS + " SET " + PAIR_ORDERS + " = " + PAIR_ORDERS + " + 1 "
+                    + "WHERE (" + PAIR_MENU_ID + " = NEW." + ITEM_MENU_ID + " AND " + PAIR_OTHER_ID + " IN (" + others + "))"
+                    + " OR (" + PAIR_OTHER_ID + " = NEW." + ITEM_MENU_ID + " AND " + PAIR_MENU_ID + " IN (" + others + ")); END");
+
+            // Backfill from the orders still in the hot table (one-time self-join)
+            db.execSQL("INSERT OR REPLACE INTO " + TABLE_MENU_PAIRS + " "
+                    + "SELECT a." + ITEM_MENU_ID + ", b." + ITEM_MENU_ID + ", COUNT(DISTINCT a." + ITEM_ORDER_ID + ") "
+                    + "FROM " + TABLE_ORDER_ITEMS + " a JOIN " + TABLE_ORDER_ITEMS + " b"
+                    + " ON b." + ITEM_ORDER_ID + " = a." + ITEM_ORDER_ID + " AND b." + ITEM_MENU_ID + " <> a." + ITEM_MENU_ID + " "
+                    + "GROUP BY a." + ITEM_MENU_ID + ", b." + ITEM_MENU_ID);
+            db.execSQL(buildMenuPairsPruneSql());
+        }
+
+        if (fromVersion < 17) {
+            // Personalized ranking: what each buyer orders, and when (one PK range read per buyer)
+            StringBuilder columns = new StringBuilder();
+            for (String column : AFF_DAYPART_ORDERS) {
+                columns.append(column).append(" INTEGER NOT NULL DEFAULT 0, ");
+            }
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_USER_AFFINITY + " ("
+                    + AFF_USER_ID + " INTEGER NOT NULL, "
+                    + AFF_MENU_ID + " INTEGER NOT NULL, "
+                    + AFF_ORDERS + " INTEGER NOT NULL DEFAULT 0, "
+                    + columns
+                    + "PRIMARY KEY (" + AFF_USER_ID + ", " + AFF_MENU_ID + "))");
+
+            // Each new order line counts once for its buyer, in the daypart the order was placed
+            String order = "FROM " + TABLE_ORDERS + " WHERE " + ORDER_ID + " = NEW." + ITEM_ORDER_ID;
+            String daypart = MenuRanker.daypartSql("CAST(strftime('%H', (SELECT " + ORDER_CREATED_AT + " " + order + ")) AS INTEGER)");
+            StringBuilder bump = new StringBuilder(AFF_ORDERS + " = " + AFF_ORDERS + " + 1");
+            for (int i = 0; i < AFF_DAYPART_ORDERS.length; i++) {
+                bump.append(", ").append(AFF_DAYPART_ORDERS[i]).append(" = ").append(AFF_DAYPART_ORDERS[i])
+                        .append(" + (").append(daypart).append(" = ").append(i).append(")");
+            }
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_user_affinity AFTER INSERT ON " + TABLE_ORDER_ITEMS + " BEGIN "
+                    + "INSERT OR IGNORE INTO " + TABLE_USER_AFFINITY + "(" + AFF_USER_ID + ", " + AFF_MENU_ID + ") "
+                    + "SELECT " + ORDER_BUYER_ID + ", NEW." + ITEM_MENU_ID + " " + order + "; "
+                    + "UPDATE " + TABLE_USER_AFFINITY + " SET " + bump + " "
+                    + "WHERE " + AFF_USER_ID + " = (SELECT " + ORDER_BUYER_ID + " " + order + ") "
+                    + "AND " + AFF_MENU_ID + " = NEW." + ITEM_MENU_ID + "; END");
+
+            // Backfill from hot and archived orders
+            String lines = "SELECT o." + ORDER_BUYER_ID + " AS buyer, i." + ITEM_MENU_ID + " AS menu, "
+                    + MenuRanker.daypartSql("CAST(strftime('%H', o." + ORDER_CREATED_AT + ") AS INTEGER)") + " AS part FROM ";
+            String join = " i ON i." + ITEM_ORDER_ID + " = o." + ORDER_ID;
+            StringBuilder sums = new StringBuilder();
+            for (int i = 0; i < AFF_DAYPART_ORDERS.length; i++) {
+                sums.append(", SUM(part = ").append(i).append(")");
+            }
+            db.execSQL("INSERT OR REPLACE INTO " + TABLE_USER_AFFINITY + " "
+                    + "SELECT buyer, menu, COUNT(*)" + sums + " FROM ("
+                    + lines + TABLE_ORDERS + " o JOIN " + TABLE_ORDER_ITEMS + join + " UNION ALL "
+                    + lines + TABLE_ORDERS_ARCHIVE + " o JOIN " + TABLE_ORDER_ITEMS_ARCHIVE + join + ") "
+                    + "GROUP BY buyer, menu");
+        }
+
+        if (fromVersion < 18) {
+            // Review summary without scanning reviews, and keyset paging on (created_at, id)
+            StringBuilder columns = new StringBuilder();
+            for (int star = 1; star <= RatingHistogram.STARS; star++) {
+                columns.append(", ").append(RATING_STARS_PREFIX).append(star).append(" INTEGER NOT NULL DEFAULT 0");
+            }
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + TABLE_MENU_RATINGS + " ("
+                    + RATING_MENU_ID + " INTEGER PRIMARY KEY" + columns + ")");
+            db.execSQL(buildMenuRatingsRebuildSql());
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_reviews_menu_page ON " + TABLE_REVIEWS
+                    + "(" + REVIEW_MENU_ID + ", " + REVIEW_CREATED_AT + ", " + REVIEW_ID + ")");
+        }
+
+        if (fromVersion < 19) {
+            // One review per buyer, menu and order: drop repeats (keep the first), then recount
+            db.execSQL("DELETE FROM " + TABLE_REVIEWS + " WHERE " + REVIEW_ID + " NOT IN (SELECT MIN(" + REVIEW_ID + ") FROM "
+                    + TABLE_REVIEWS + " GROUP BY " + REVIEW_BUYER_ID + ", " + REVIEW_MENU_ID + ", " + REVIEW_ORDER_ID + ")");
+            db.execSQL("DELETE FROM " + TABLE_MENU_RATINGS);
+            db.execSQL(buildMenuRatingsRebuildSql());
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS idx_reviews_unique ON " + TABLE_REVIEWS
+                    + "(" + REVIEW_BUYER_ID + ", " + REVIEW_MENU_ID + ", " + REVIEW_ORDER_ID + ")");
+
+            // Eligibility: (order, menu) line lookup; pending list: a buyer's completed orders
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_order_items_order_menu ON " + TABLE_ORDER_ITEMS
+                    + "(" + ITEM_ORDER_ID + ", " + ITEM_MENU_ID + ")");
+            db.execSQL("DROP INDEX IF EXISTS idx_order_items_order"); // prefix of the one above
+            db.execSQL("CREATE INDEX IF NOT EXISTS idx_orders_buyer_status ON " + TABLE_ORDERS
+                    + "(" + ORDER_BUYER_ID + ", " + ORDER_STATUS + ", " + ORDER_UPDATED_AT + ")");
+        }
+    }
+
+    /**
+     * Recount menu_ratings from the reviews table
+     */
+    private String buildMenuRatingsRebuildSql() {
+        StringBuilder sums = new StringBuilder();
+        for (int star = 1; star <= RatingHistogram.STARS; star++) {
+            sums.append(", SUM(").append(REVIEW_RATING).append(" = ").append(star).append(")");
+        }
+        return "INSERT OR REPLACE INTO " + TABLE_MENU_RATINGS + " SELECT " + REVIEW_MENU_ID + sums
+                + " FROM " + TABLE_REVIEWS + " GROUP BY " + REVIEW_MENU_ID;
+    }
+
+    /**
+     * Keep only the MENU_PAIRS_KEEP most frequent partners of every menu
+     * (SQLite on API 24 has no window functions: correlated LIMIT instead)
+     */
+    private String buildMenuPairsPruneSql() {
+        return "DELETE FROM " + TABLE_MENU_PAIRS + " WHERE " + PAIR_MENU_ID + " IN ("
+                + "SELECT " + PAIR_MENU_ID + " FROM " + TABLE_MENU_PAIRS + " GROUP BY " + PAIR_MENU_ID
+                + " HAVING COUNT(*) > " + MENU_PAIRS_KEEP + ") AND " + PAIR_OTHER_ID + " NOT IN ("
+                + "SELECT p." + PAIR_OTHER_ID + " FROM " + TABLE_MENU_PAIRS + " p"
+                + " WHERE p." + PAIR_MENU_ID + " = " + TABLE_MENU_PAIRS + "." + PAIR_MENU_ID
+                + " ORDER BY p." + PAIR_ORDERS + " DESC, p." + PAIR_OTHER_ID + " LIMIT " + MENU_PAIRS_KEEP + ")";
+    }
+
+    /**
+     * SQL for one EWMA step; the first sample is taken as is
+     */
+    private String ewma(String column, String sample) {
+        return "(CASE WHEN " + PREP_SAMPLES + " = 0 THEN " + sample
+                + " ELSE " + column + " + " + PREP_EWMA_ALPHA + " * (" + sample + " - " + column + ") END)";
+    }
+
+    /**
+     * Increment/decrement blobs.ref_count when a blob reference is written, replaced or deleted
+     */
+    private void createBlobRefTriggers(SQLiteDatabase db, String table, String column) {
+        String prefix = "'" + BlobStore.REF_PREFIX + "%'";
+        int offset = BlobStore.REF_PREFIX.length() + 1;
+        String name = "trg_blob_" + table + "_" + column;
+
+        String inc = "INSERT OR IGNORE INTO " + TABLE_BLOBS + "(" + BLOB_HASH + ") VALUES (substr(NEW." + column + ", " + offset + ")); "
+                + "UPDATE " + TABLE_BLOBS + " SET " + BLOB_REF_COUNT + " = " + BLOB_REF_COUNT + " + 1"
+                + " WHERE " + BLOB_HASH + " = substr(NEW." + column + ", " + offset + "); ";
+        String dec = "UPDATE " + TABLE_BLOBS + " SET " + BLOB_REF_COUNT + " = " + BLOB_REF_COUNT + " - 1"
+                + " WHERE " + BLOB_HASH + " = substr(OLD." + column + ", " + offset + "); ";
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + name + "_insert AFTER INSERT ON " + table
+                + " WHEN NEW." + column + " LIKE " + prefix + " BEGIN " + inc + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + name + "_update_old AFTER UPDATE OF " + column + " ON " + table
+                + " WHEN OLD." + column + " IS NOT NEW." + column + " AND OLD." + column + " LIKE " + prefix
+                + " BEGIN " + dec + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + name + "_update_new AFTER UPDATE OF " + column + " ON " + table
+                + " WHEN OLD." + column + " IS NOT NEW." + column + " AND NEW." + column + " LIKE " + prefix
+                + " BEGIN " + inc + "END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS " + name + "_delete AFTER DELETE ON " + table
+                + " WHEN OLD." + column + " LIKE " + prefix + " BEGIN " + dec + "END");
+    }
+
+    /**
+     * Trigger body: add (+) or remove (-) one order's items in kitchen_queue
+     * @param row "NEW" or "OLD"
+     */
+    private String buildKitchenQueueSql(String row, String sign) {
+        String orderItems = "FROM " + TABLE_ORDER_ITEMS + " i WHERE i." + ITEM_ORDER_ID + " = " + row + "." + ORDER_ID;
+        String key = KQ_STAND_ID + " = " + row + "." + ORDER_STAND_ID + " AND " + KQ_STATUS + " = " + row + "." + ORDER_STATUS;
+
+        String sql = "";
+        if ("+".equals(sign)) {
+            sql += "INSERT OR IGNORE INTO " + TABLE_KITCHEN_QUEUE + "(" + KQ_STAND_ID + ", " + KQ_STATUS + ", " + KQ_MENU_ID + ") "
+                    + "SELECT DISTINCT " + row + "." + ORDER_STAND_ID + ", " + row + "." + ORDER_STATUS + ", i." + ITEM_MENU_ID
+                    + " " + orderItems + "; ";
+        }
+        sql += "UPDATE " + TABLE_KITCHEN_QUEUE + " SET "
+                + KQ_QTY + " = " + KQ_QTY + " " + sign + " (SELECT SUM(i." + ITEM_QTY + ") " + orderItems
+                + " AND i." + ITEM_MENU_ID + " = " + TABLE_KITCHEN_QUEUE + "." + KQ_MENU_ID + "), "
+                + KQ_ORDER_COUNT + " = " + KQ_ORDER_COUNT + " " + sign + " 1 "
+                + "WHERE " + key + " AND " + KQ_MENU_ID + " IN (SELECT i." + ITEM_MENU_ID + " " + orderItems + "); ";
+        if ("-".equals(sign)) {
+            sql += "DELETE FROM " + TABLE_KITCHEN_QUEUE + " WHERE " + key + " AND " + KQ_QTY + " <= 0; ";
+        }
+        return sql;
+    }
+
+    /**
+     * Recompute kitchen_queue from the open orders in one grouped query
+     */
+    private void rebuildKitchenQueue(SQLiteDatabase db) {
+        db.execSQL("DELETE FROM " + TABLE_KITCHEN_QUEUE);
+        db.execSQL("INSERT INTO " + TABLE_KITCHEN_QUEUE + " "
+                + "SELECT o." + ORDER_STAND_ID + ", o." + ORDER_STATUS + ", i." + ITEM_MENU_ID + ", "
+                + "SUM(i." + ITEM_QTY + "), COUNT(DISTINCT o." + ORDER_ID + ") "
+                + "FROM " + TABLE_ORDERS + " o "
+                + "INNER JOIN " + TABLE_ORDER_ITEMS + " i ON i." + ITEM_ORDER_ID + " = o." + ORDER_ID + " "
+                + "WHERE o." + ORDER_STATUS + " IN " + KITCHEN_STATUSES + " "
+                + "GROUP BY o." + ORDER_STAND_ID + ", o." + ORDER_STATUS + ", i." + ITEM_MENU_ID);
+    }
+
     @Override
     public void onConfigure(SQLiteDatabase db) {
         super.onConfigure(db);
@@ -399,6 +1049,10 @@ public class DBHelper extends SQLiteOpenHelper {
         return sdf.format(new Date());
     }
 
+    private String getToday() {
+        return new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
+    }
+
     // ==================== USER AUTHENTICATION ====================
 
     /**
@@ -418,7 +1072,7 @@ public class DBHelper extends SQLiteOpenHelper {
 
         try {
             // Check if email exists
-            Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_USERS + " WHERE " + USER_EMAIL + " = ?",
+            Cursor cursor = rawQuery(db, "registerUser", "SELECT * FROM " + TABLE_USERS + " WHERE " + USER_EMAIL + " = ?",
                     new String[]{email});
 
             if (cursor.getCount() > 0) {
@@ -438,7 +1092,7 @@ public class DBHelper extends SQLiteOpenHelper {
             values.put(USER_TYPE, type);
             values.put(USER_CREATED_AT, getCurrentTimestamp());
 
-            long userId = db.insert(TABLE_USERS, null, values);
+            long userId = insert(db, "registerUser", TABLE_USERS, null, values);
 
             if (userId > 0) {
                 Log.d(TAG, "✅ User registered: " + email + " as " + role);
@@ -460,7 +1114,7 @@ public class DBHelper extends SQLiteOpenHelper {
         SQLiteDatabase db = this.getReadableDatabase();
 
         try {
-            Cursor cursor = db.rawQuery(
+            Cursor cursor = rawQuery(db, "loginUser",
                     "SELECT * FROM " + TABLE_USERS + " WHERE " + USER_EMAIL + " = ? AND " + USER_PASSWORD + " = ?",
                     new String[]{email, password}
             );
@@ -497,7 +1151,7 @@ public class DBHelper extends SQLiteOpenHelper {
         SQLiteDatabase db = this.getReadableDatabase();
 
         try {
-            Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_USERS + " WHERE " + USER_ID + " = ?",
+            Cursor cursor = rawQuery(db, "getUserById", "SELECT * FROM " + TABLE_USERS + " WHERE " + USER_ID + " = ?",
                     new String[]{String.valueOf(userId)});
 
             User user = null;
@@ -531,7 +1185,7 @@ public class DBHelper extends SQLiteOpenHelper {
 
         try {
             // Check if seller already has a stand
-            Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_STAND + " WHERE " + STAND_SELLER_ID + " = ?",
+            Cursor cursor = rawQuery(db, "createStand", "SELECT * FROM " + TABLE_STAND + " WHERE " + STAND_SELLER_ID + " = ?",
                     new String[]{String.valueOf(sellerId)});
 
             if (cursor.getCount() > 0) {
@@ -549,7 +1203,7 @@ public class DBHelper extends SQLiteOpenHelper {
             values.put(STAND_IMAGE, image);
             values.put(STAND_CREATED_AT, getCurrentTimestamp());
 
-            long standId = db.insert(TABLE_STAND, null, values);
+            long standId = insert(db, "createStand", TABLE_STAND, null, values);
 
             if (standId > 0) {
                 Log.d(TAG, "✅ Stand created: " + name);
@@ -570,7 +1224,7 @@ public class DBHelper extends SQLiteOpenHelper {
         SQLiteDatabase db = this.getReadableDatabase();
 
         try {
-            Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_STAND + " WHERE " + STAND_SELLER_ID + " = ?",
+            Cursor cursor = rawQuery(db, "getStandBySeller", "SELECT * FROM " + TABLE_STAND + " WHERE " + STAND_SELLER_ID + " = ?",
                     new String[]{String.valueOf(sellerId)});
 
             Stand stand = null;
@@ -581,6 +1235,8 @@ public class DBHelper extends SQLiteOpenHelper {
                 stand.setDeskripsi(cursor.getString(cursor.getColumnIndexOrThrow(STAND_DESCRIPTION)));
                 stand.setImage(cursor.getString(cursor.getColumnIndexOrThrow(STAND_IMAGE)));
                 stand.setOwnerId(cursor.getInt(cursor.getColumnIndexOrThrow(STAND_SELLER_ID)));
+                stand.setSlotCapacity(cursor.getInt(cursor.getColumnIndexOrThrow(STAND_SLOT_CAPACITY)));
+                stand.setMaxOpenItems(cursor.getInt(cursor.getColumnIndexOrThrow(STAND_MAX_OPEN_ITEMS)));
             }
             cursor.close();
             return stand;
@@ -605,7 +1261,7 @@ public class DBHelper extends SQLiteOpenHelper {
                 values.put(STAND_IMAGE, image);
             }
 
-            int rows = db.update(TABLE_STAND, values, STAND_ID + " = ?",
+            int rows = update(db, "updateStand", TABLE_STAND, values, STAND_ID + " = ?",
                     new String[]{String.valueOf(standId)});
 
             if (rows > 0) {
@@ -620,6 +1276,29 @@ public class DBHelper extends SQLiteOpenHelper {
         }
     }
 
+    /**
+     * Stand capacity settings (0 = unlimited)
+     * @param slotCapacity items accepted per pickup slot
+     * @param maxOpenItems items allowed in the queue before ASAP orders are refused
+     * Orders already accepted are kept when a limit is lowered.
+     */
+    public int updateStandCapacity(int standId, int slotCapacity, int maxOpenItems) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        try {
+            ContentValues values = new ContentValues();
+            values.put(STAND_SLOT_CAPACITY, Math.max(0, slotCapacity));
+            values.put(STAND_MAX_OPEN_ITEMS, Math.max(0, maxOpenItems));
+
+            return update(db, "updateStandCapacity", TABLE_STAND, values, STAND_ID + " = ?",
+                    new String[]{String.valueOf(standId)});
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error updating stand capacity: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+
     /**
      * Get all stands (for buyers)
      */
@@ -633,7 +1312,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "INNER JOIN " + TABLE_USERS + " u ON s." + STAND_SELLER_ID + " = u." + USER_ID + " " +
                     "ORDER BY s." + STAND_CREATED_AT + " DESC";
 
-            Cursor cursor = db.rawQuery(query, null);
+            Cursor cursor = rawQuery(db, "getAllStands", query, null);
 
             if (cursor.moveToFirst()) {
                 do {
@@ -675,7 +1354,7 @@ public class DBHelper extends SQLiteOpenHelper {
             values.put(MENU_STATUS, "available");
             values.put(MENU_CREATED_AT, getCurrentTimestamp());
 
-            long menuId = db.insert(TABLE_MENU, null, values);
+            long menuId = insert(db, "addMenu", TABLE_MENU, null, values);
 
             if (menuId > 0) {
                 Log.d(TAG, "✅ Menu added: " + name);
@@ -689,6 +1368,78 @@ public class DBHelper extends SQLiteOpenHelper {
         }
     }
 
+    /**
+     * Bulk import menus from CSV
+     * Streams rows from the parser into ONE transaction with ONE compiled INSERT.
+     * The parser is read while the write lock is held: give it a local file, not a picked content:// stream.
+     * Invalid rows and names already in the stand (or earlier in the file) are
+     * skipped and reported per line; a database error rolls back the whole import.
+     */
+    public MenuCsvImporter.Result importMenus(int standId, MenuCsvImporter parser) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        MenuCsvImporter.Result result = new MenuCsvImporter.Result();
+        long startMs = System.currentTimeMillis();
+
+        // Existing names, for duplicate detection (case-insensitive)
+        Set<String> names = new HashSet<>();
+        Cursor cursor = null;
+        try {
+            cursor = rawQuery(db, "importMenus",
+                    "SELECT " + MENU_NAME + " FROM " + TABLE_MENU + " WHERE " + MENU_STAND_ID + " = ?",
+                    new String[]{String.valueOf(standId)});
+            while (cursor.moveToNext()) {
+                names.add(cursor.getString(0).toLowerCase(Locale.ROOT));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error reading menu names: " + e.getMessage(), e);
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+
+        String sql = "INSERT INTO " + TABLE_MENU + " (" +
+                MENU_STAND_ID + ", " + MENU_NAME + ", " + MENU_PRICE + ", " +
+                MENU_DESCRIPTION + ", " + MENU_CATEGORY + ", " + MENU_STATUS + ", " +
+                MENU_CREATED_AT + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        SQLiteStatement stmt = null;
+        try {
+            beginTransaction(db, "importMenus");
+            stmt = db.compileStatement(sql);
+
+            String timestamp = getCurrentTimestamp();
+
+            MenuCsvImporter.Row row;
+            while ((row = parser.next()) != null) {
+                if (row.error != null) {
+                    result.errors.add("Baris " + row.line + ": " + row.error);
+                    continue;
+                }
+                if (!names.add(row.name.toLowerCase(Locale.ROOT))) {
+                    result.errors.add("Baris " + row.line + ": menu \"" + row.name + "\" sudah ada");
+                    continue;
+                }
+
+                executeInsert(stmt, "importMenus", sql, standId, row.name, row.price,
+                        row.description, row.category, row.status, timestamp);
+                result.imported++;
+            }
+
+            db.setTransactionSuccessful();
+            Log.d(TAG, "✅ Imported " + result.imported + " menus, " + result.errors.size() + " rows skipped");
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error importing menus: " + e.getMessage(), e);
+            result.imported = 0;
+            result.fatalError = e.getMessage();
+        } finally {
+            if (stmt != null) stmt.close();
+            endTransaction(db);
+        }
+
+        result.elapsedMs = System.currentTimeMillis() - startMs;
+        return result;
+    }
+
     /**
      * Update menu
      */
@@ -707,7 +1458,7 @@ public class DBHelper extends SQLiteOpenHelper {
             values.put(MENU_CATEGORY, category);
             values.put(MENU_STATUS, status);
 
-            int rows = db.update(TABLE_MENU, values, MENU_ID + " = ?",
+            int rows = update(db, "updateMenu", TABLE_MENU, values, MENU_ID + " = ?",
                     new String[]{String.valueOf(menuId)});
 
             if (rows > 0) {
@@ -729,7 +1480,7 @@ public class DBHelper extends SQLiteOpenHelper {
         SQLiteDatabase db = this.getWritableDatabase();
 
         try {
-            int rows = db.delete(TABLE_MENU, MENU_ID + " = ?",
+            int rows = delete(db, "deleteMenu", TABLE_MENU, MENU_ID + " = ?",
                     new String[]{String.valueOf(menuId)});
 
             if (rows > 0) {
@@ -761,7 +1512,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "GROUP BY m." + MENU_ID + " " +
                     "ORDER BY m." + MENU_CREATED_AT + " DESC";
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(standId)});
+            Cursor cursor = rawQuery(db, "getMenusByStand", query, new String[]{String.valueOf(standId)});
 
             if (cursor.moveToFirst()) {
                 do {
@@ -774,6 +1525,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     menu.setDeskripsi(cursor.getString(cursor.getColumnIndexOrThrow(MENU_DESCRIPTION)));
                     menu.setKategori(cursor.getString(cursor.getColumnIndexOrThrow(MENU_CATEGORY)));
                     menu.setStatus(cursor.getString(cursor.getColumnIndexOrThrow(MENU_STATUS)));
+                    readMenuStock(cursor, menu);
                     menu.setAverageRating(cursor.getFloat(cursor.getColumnIndexOrThrow("avg_rating")));
                     menu.setTotalReviews(cursor.getInt(cursor.getColumnIndexOrThrow("total_reviews")));
                     menus.add(menu);
@@ -795,7 +1547,7 @@ public class DBHelper extends SQLiteOpenHelper {
         SQLiteDatabase db = this.getReadableDatabase();
 
         try {
-            Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_MENU + " WHERE " + MENU_ID + " = ?",
+            Cursor cursor = rawQuery(db, "getMenuById", "SELECT * FROM " + TABLE_MENU + " WHERE " + MENU_ID + " = ?",
                     new String[]{String.valueOf(menuId)});
 
             Menu menu = null;
@@ -809,6 +1561,7 @@ public class DBHelper extends SQLiteOpenHelper {
                 menu.setDeskripsi(cursor.getString(cursor.getColumnIndexOrThrow(MENU_DESCRIPTION)));
                 menu.setKategori(cursor.getString(cursor.getColumnIndexOrThrow(MENU_CATEGORY)));
                 menu.setStatus(cursor.getString(cursor.getColumnIndexOrThrow(MENU_STATUS)));
+                readMenuStock(cursor, menu);
             }
             cursor.close();
             return menu;
@@ -819,6 +1572,93 @@ public class DBHelper extends SQLiteOpenHelper {
         }
     }
 
+    private void readMenuStock(Cursor cursor, Menu menu) {
+        menu.setDailyStock(cursor.getInt(cursor.getColumnIndexOrThrow(MENU_DAILY_STOCK)));
+        menu.setStock(cursor.getInt(cursor.getColumnIndexOrThrow(MENU_STOCK)));
+        menu.setStockDate(cursor.getString(cursor.getColumnIndexOrThrow(MENU_STOCK_DATE)));
+    }
+
+    /**
+     * Set a menu's daily stock (0 = unlimited)
+     * Portions already sold today stay sold: a mid-day change only moves today's
+     * remaining stock by the difference, so raising 30 to 40 after 25 sales leaves 15.
+     * The menu is marked unavailable if that leaves nothing, available again if it had run out.
+     */
+    public int updateMenuStock(int menuId, int dailyStock) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        String counting = MENU_DAILY_STOCK + " > 0 AND " + MENU_STOCK_DATE + " = ?2";
+        String newLeft = "(CASE WHEN " + counting + " THEN MAX(0, " + MENU_STOCK + " + ?1 - " + MENU_DAILY_STOCK + ")" +
+                " ELSE ?1 END)";
+        String sql = "UPDATE " + TABLE_MENU + " SET " +
+                MENU_DAILY_STOCK + " = ?1, " + MENU_STOCK + " = " + newLeft + ", " + MENU_STOCK_DATE + " = ?2, " +
+                MENU_STATUS + " = CASE WHEN ?1 > 0 AND " + newLeft + " <= 0 THEN 'unavailable'" +
+                " WHEN ?1 > 0 AND " + MENU_DAILY_STOCK + " > 0 AND " + MENU_STOCK + " <= 0" +
+                " AND " + MENU_STATUS + " = 'unavailable' THEN 'available' ELSE " + MENU_STATUS + " END " +
+                "WHERE " + MENU_ID + " = ?3";
+
+        SQLiteStatement stmt = null;
+        try {
+            stmt = db.compileStatement(sql);
+            int rows = executeUpdateDelete(stmt, "updateMenuStock", sql, dailyStock, getToday(), menuId);
+            Log.d(TAG, "✅ Menu stock set to " + dailyStock);
+            return rows;
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error updating menu stock: " + e.getMessage(), e);
+            return 0;
+        } finally {
+            if (stmt != null) stmt.close();
+        }
+    }
+
+    /**
+     * Start a new stock day: refill menus last counted before today and make
+     * the ones that ran out available again (OrderArchiveJob, once per day)
+     * Checkout does not depend on this, it treats an old stock_date as full.
+     */
+    public int restockDailyMenus() {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        try {
+            ContentValues values = new ContentValues();
+            values.put(MENU_STATUS, "available");
+            int revived = update(db, "restockDailyMenus", TABLE_MENU, values,
+                    MENU_DAILY_STOCK + " > 0 AND " + MENU_STOCK + " <= 0 AND " + MENU_STATUS + " = 'unavailable'" +
+                            " AND " + MENU_STOCK_DATE + " < ?", new String[]{getToday()});
+
+            execSQL(db, "restockDailyMenus", "UPDATE " + TABLE_MENU + " SET " +
+                    MENU_STOCK + " = " + MENU_DAILY_STOCK + ", " + MENU_STOCK_DATE + " = ? " +
+                    "WHERE " + MENU_DAILY_STOCK + " > 0 AND " + MENU_STOCK_DATE + " < ?", new Object[]{getToday(), getToday()});
+            return revived;
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error restocking menus: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Take qty portions of a stock-tracked menu, inside the checkout transaction
+     * Guarded UPDATE: succeeds only while enough portions are left, and marks
+     * the menu unavailable when it takes the last one.
+     */
+    private boolean reserveMenuStock(SQLiteDatabase db, int menuId, int qty) {
+        String left = "(CASE WHEN " + MENU_STOCK_DATE + " = ?2 THEN " + MENU_STOCK + " ELSE " + MENU_DAILY_STOCK + " END)";
+        String sql = "UPDATE " + TABLE_MENU + " SET " +
+                MENU_STOCK + " = " + left + " - ?1, " +
+                MENU_STOCK_DATE + " = ?2, " +
+                MENU_STATUS + " = CASE WHEN " + left + " - ?1 <= 0 THEN 'unavailable' ELSE " + MENU_STATUS + " END " +
+                "WHERE " + MENU_ID + " = ?3 AND " + MENU_DAILY_STOCK + " > 0 AND " + left + " >= ?1";
+
+        SQLiteStatement stmt = db.compileStatement(sql);
+        try {
+            return executeUpdateDelete(stmt, "reserveMenuStock", sql, qty, getToday(), menuId) > 0;
+        } finally {
+            stmt.close();
+        }
+    }
+
     // ==================== CART MANAGEMENT (MULTI-STAND SUPPORT) ====================
 
     /**
@@ -829,7 +1669,7 @@ public class DBHelper extends SQLiteOpenHelper {
 
         try {
             // Check if item already in cart
-            Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_CART +
+            Cursor cursor = rawQuery(db, "addToCart", "SELECT * FROM " + TABLE_CART +
                             " WHERE " + CART_BUYER_ID + " = ? AND " + CART_MENU_ID + " = ?",
                     new String[]{String.valueOf(buyerId), String.valueOf(menuId)});
 
@@ -845,10 +1685,14 @@ public class DBHelper extends SQLiteOpenHelper {
                     values.put(CART_NOTES, notes);
                 }
 
-                int rows = db.update(TABLE_CART, values,
+                int rows = update(db, "addToCart", TABLE_CART, values,
                         CART_BUYER_ID + " = ? AND " + CART_MENU_ID + " = ?",
                         new String[]{String.valueOf(buyerId), String.valueOf(menuId)});
 
+                if (rows > 0) {
+                    BadgeCounters.getInstance().addCart(buyerId, qty);
+                }
+
                 return rows;
             } else {
                 cursor.close();
@@ -860,7 +1704,12 @@ public class DBHelper extends SQLiteOpenHelper {
                 values.put(CART_QTY, qty);
                 values.put(CART_NOTES, notes);
 
-                return db.insert(TABLE_CART, null, values);
+                long cartId = insert(db, "addToCart", TABLE_CART, null, values);
+                if (cartId > 0) {
+                    BadgeCounters.getInstance().addCart(buyerId, qty);
+                }
+
+                return cartId;
             }
 
         } catch (Exception e) {
@@ -884,7 +1733,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "WHERE c." + CART_BUYER_ID + " = ? " +
                     "ORDER BY s." + STAND_NAME + ", m." + MENU_NAME;
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(buyerId)});
+            Cursor cursor = rawQuery(db, "getCartItems", query, new String[]{String.valueOf(buyerId)});
 
             if (cursor.moveToFirst()) {
                 do {
@@ -893,6 +1742,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     item.setUserId(buyerId);
                     item.setQty(cursor.getInt(cursor.getColumnIndexOrThrow(CART_QTY)));
                     item.setNotes(cursor.getString(cursor.getColumnIndexOrThrow(CART_NOTES)));
+                    item.setSeenPrice(cursor.getInt(cursor.getColumnIndexOrThrow(CART_SEEN_PRICE)));
 
                     Menu menu = new Menu();
                     menu.setId(cursor.getInt(cursor.getColumnIndexOrThrow(MENU_ID)));
@@ -900,6 +1750,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     menu.setNama(cursor.getString(cursor.getColumnIndexOrThrow(MENU_NAME)));
                     menu.setHarga(cursor.getInt(cursor.getColumnIndexOrThrow(MENU_PRICE)));
                     menu.setStatus(cursor.getString(cursor.getColumnIndexOrThrow(MENU_STATUS)));
+                    readMenuStock(cursor, menu);
 
                     item.setMenu(menu);
                     items.add(item);
@@ -923,19 +1774,22 @@ public class DBHelper extends SQLiteOpenHelper {
         try {
             if (qty <= 0) {
                 // Delete if qty is 0
-                return db.delete(TABLE_CART, CART_ID + " = ?",
+                return delete(db, "updateCartQty", TABLE_CART, CART_ID + " = ?",
                         new String[]{String.valueOf(cartId)});
             } else {
                 ContentValues values = new ContentValues();
                 values.put(CART_QTY, qty);
 
-                return db.update(TABLE_CART, values, CART_ID + " = ?",
+                return update(db, "updateCartQty", TABLE_CART, values, CART_ID + " = ?",
                         new String[]{String.valueOf(cartId)});
             }
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error updating cart: " + e.getMessage(), e);
             return 0;
+        } finally {
+            // Buyer is not known from cartId, reload counters on next read
+            BadgeCounters.getInstance().invalidateAll();
         }
     }
 
@@ -946,37 +1800,55 @@ public class DBHelper extends SQLiteOpenHelper {
         SQLiteDatabase db = this.getWritableDatabase();
 
         try {
-            return db.delete(TABLE_CART, CART_BUYER_ID + " = ?",
+            return delete(db, "clearCart", TABLE_CART, CART_BUYER_ID + " = ?",
                     new String[]{String.valueOf(buyerId)});
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error clearing cart: " + e.getMessage(), e);
             return 0;
+        } finally {
+            BadgeCounters.getInstance().invalidate(buyerId);
         }
     }
 
     /**
-     * Get cart count
+     * Get cart count (badge)
+     * Served from BadgeCounters, falls back to one primary-key read of user_counters
      */
     public int getCartCount(int buyerId) {
+        return getBadgeCounts(buyerId)[0];
+    }
+
+    /**
+     * Helper: Badge counts {cartCount, unreadCount} for a user
+     */
+    private int[] getBadgeCounts(int userId) {
+        int[] cached = BadgeCounters.getInstance().get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        int[] counts = new int[]{0, 0};
         SQLiteDatabase db = this.getReadableDatabase();
 
         try {
-            Cursor cursor = db.rawQuery("SELECT SUM(" + CART_QTY + ") FROM " + TABLE_CART +
-                            " WHERE " + CART_BUYER_ID + " = ?",
-                    new String[]{String.valueOf(buyerId)});
+            Cursor cursor = rawQuery(db, "getBadgeCounts", "SELECT " + COUNTER_CART_COUNT + ", " + COUNTER_UNREAD_COUNT +
+                            " FROM " + TABLE_USER_COUNTERS + " WHERE " + COUNTER_USER_ID + " = ?",
+                    new String[]{String.valueOf(userId)});
 
-            int count = 0;
             if (cursor.moveToFirst()) {
-                count = cursor.getInt(0);
+                counts[0] = cursor.getInt(0);
+                counts[1] = cursor.getInt(1);
             }
             cursor.close();
-            return count;
+
+            BadgeCounters.getInstance().put(userId, counts[0], counts[1]);
 
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error getting cart count: " + e.getMessage(), e);
-            return 0;
+            Log.e(TAG, "❌ Error getting badge counts: " + e.getMessage(), e);
         }
+
+        return counts;
     }
 
     // ==================== ORDER MANAGEMENT (NEW SYSTEM) ====================
@@ -986,18 +1858,55 @@ public class DBHelper extends SQLiteOpenHelper {
      * Returns list of order IDs created (one per stand)
      */
     public List<Long> createOrdersFromCart(int buyerId, String paymentMethod) {
+        return createOrdersFromCart(buyerId, paymentMethod, null);
+    }
+
+    /**
+     * Create orders from cart for a pickup slot (null = as soon as possible)
+     * Refuses any cart that changed since it was added (see below).
+     */
+    public List<Long> createOrdersFromCart(int buyerId, String paymentMethod, String pickupSlot) {
+        return createOrdersFromCart(buyerId, paymentMethod, pickupSlot, null);
+    }
+
+    /**
+     * Cart vs current menus, from the same single join checkout uses
+     */
+    public CartRevalidation revalidateCart(int buyerId) {
+        return CartRevalidation.of(getCartItems(buyerId));
+    }
+
+    /**
+     * Create orders from cart for a pickup slot (null = as soon as possible)
+     * The cart is revalidated inside the transaction: unavailable lines are left
+     * out (and stay in the cart), the rest is charged at today's price. If that
+     * differs from what was added, it must match the confirmed revalidation.
+     * Each stand's items are booked into the slot in the same transaction;
+     * ASAP orders must fit the stand's open-item budget instead.
+     * Stock-tracked menus give up their portions in the same transaction too.
+     * If any stand refuses, nothing is created (empty list).
+     */
+    public List<Long> createOrdersFromCart(int buyerId, String paymentMethod, String pickupSlot,
+                                           CartRevalidation confirmed) {
         List<Long> orderIds = new ArrayList<>();
         SQLiteDatabase db = this.getWritableDatabase();
 
         try {
-            db.beginTransaction();
+            beginTransaction(db, "createOrdersFromCart");
 
-            // Get cart items grouped by stand
-            List<CartItem> cartItems = getCartItems(buyerId);
+            // One cart/menus join, checked against what the buyer confirmed
+            CartRevalidation current = CartRevalidation.of(getCartItems(buyerId));
+            if (current.hasChanges() && !current.matches(confirmed)) {
+                throw new IllegalStateException("Cart changed: " + current.getUnavailable().size() + " unavailable, "
+                        + current.getPriceChanges().size() + " price changes");
+            }
+            if (current.getOrderableItems().isEmpty()) {
+                throw new IllegalStateException("Nothing to order");
+            }
 
             // Group by stand
             java.util.Map<Integer, List<CartItem>> standGroups = new java.util.HashMap<>();
-            for (CartItem item : cartItems) {
+            for (CartItem item : current.getOrderableItems()) {
                 int standId = item.getMenu().getStandId();
                 if (!standGroups.containsKey(standId)) {
                     standGroups.put(standId, new ArrayList<>());
@@ -1012,8 +1921,26 @@ public class DBHelper extends SQLiteOpenHelper {
 
                 // Calculate total
                 int total = 0;
+                int qty = 0;
                 for (CartItem item : items) {
                     total += item.getSubtotal();
+                    qty += item.getQty();
+                }
+
+                if (pickupSlot != null && !reservePickupSlot(db, standId, pickupSlot, qty)) {
+                    throw new IllegalStateException("Pickup slot " + pickupSlot + " full for stand " + standId);
+                }
+                for (CartItem item : items) {
+                    // Same transaction as the order: a refused line rolls back the portions already taken
+                    if (item.getMenu().getDailyStock() > 0 && !reserveMenuStock(db, item.getMenu().getId(), item.getQty())) {
+                        throw new IllegalStateException("Menu " + item.getMenu().getId() + " out of stock");
+                    }
+                }
+                // Checked inside the write transaction, so concurrent checkouts cannot both squeeze in.
+                // Slot orders too: they join the queue right away, only with more time to clear it.
+                StandLoad load = getStandLoad(standId);
+                if (load != null && !load.canAcceptAt(qty, getPickupSlotLeadMs(pickupSlot))) {
+                    throw new IllegalStateException("Stand " + standId + " busy: " + load.getOpenItems() + " open items");
                 }
 
                 // Create order
@@ -1026,35 +1953,55 @@ public class DBHelper extends SQLiteOpenHelper {
                 orderValues.put(ORDER_PAYMENT_STATUS, "unpaid");
                 orderValues.put(ORDER_CREATED_AT, getCurrentTimestamp());
                 orderValues.put(ORDER_UPDATED_AT, getCurrentTimestamp());
+                if (pickupSlot != null) {
+                    orderValues.put(ORDER_PICKUP_SLOT, pickupSlot);
+                }
 
-                long orderId = db.insert(TABLE_ORDERS, null, orderValues);
+                long orderId = insert(db, "createOrdersFromCart", TABLE_ORDERS, null, orderValues);
 
                 if (orderId > 0) {
                     // Insert order items
+                    Set<Integer> menuIds = new HashSet<>();
                     for (CartItem item : items) {
+                        menuIds.add(item.getMenu().getId());
                         ContentValues itemValues = new ContentValues();
                         itemValues.put(ITEM_ORDER_ID, orderId);
                         itemValues.put(ITEM_MENU_ID, item.getMenu().getId());
                         itemValues.put(ITEM_QTY, item.getQty());
                         itemValues.put(ITEM_PRICE, item.getMenu().getHarga());
                         itemValues.put(ITEM_SUBTOTAL, item.getSubtotal());
-                        db.insert(TABLE_ORDER_ITEMS, null, itemValues);
+                        insert(db, "createOrdersFromCart", TABLE_ORDER_ITEMS, null, itemValues);
+                    }
+                    if (menuIds.size() > 1) {
+                        capMenuPairs(db, menuIds); // trg_menu_pairs just counted these pairs
                     }
 
                     orderIds.add(orderId);
                 }
             }
 
-            // Clear cart
-            clearCart(buyerId);
+            // Clear cart, except the lines that could not be ordered
+            if (current.getUnavailable().isEmpty()) {
+                clearCart(buyerId);
+            } else {
+                StringBuilder keep = new StringBuilder();
+                for (CartRevalidation.Line line : current.getUnavailable()) {
+                    if (keep.length() > 0) keep.append(", ");
+                    keep.append(line.cartId);
+                }
+                delete(db, "createOrdersFromCart", TABLE_CART, CART_BUYER_ID + " = ? AND " + CART_ID + " NOT IN (" + keep + ")",
+                        new String[]{String.valueOf(buyerId)});
+            }
 
             db.setTransactionSuccessful();
             Log.d(TAG, "✅ Created " + orderIds.size() + " orders from cart");
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error creating orders: " + e.getMessage(), e);
+            orderIds.clear(); // rolled back
         } finally {
-            db.endTransaction();
+            endTransaction(db);
+            BadgeCounters.getInstance().invalidate(buyerId);
         }
 
         return orderIds;
@@ -1062,45 +2009,96 @@ public class DBHelper extends SQLiteOpenHelper {
 
     /**
      * Update payment proof (after buyer pays)
+     * Update + seller notification in one transaction, no read-back
      */
     public int updatePaymentProof(int orderId, String proofUrl) {
         SQLiteDatabase db = this.getWritableDatabase();
+        int rows = 0;
 
         try {
+            beginTransaction(db, "updatePaymentProof");
+
             ContentValues values = new ContentValues();
             values.put(ORDER_PAYMENT_PROOF, proofUrl);
             values.put(ORDER_PAYMENT_STATUS, "pending");
             values.put(ORDER_STATUS, "pending_verification");
             values.put(ORDER_UPDATED_AT, getCurrentTimestamp());
 
-            int rows = db.update(TABLE_ORDERS, values, ORDER_ID + " = ?",
+            rows = update(db, "updatePaymentProof", TABLE_ORDERS, values, ORDER_ID + " = ?",
                     new String[]{String.valueOf(orderId)});
 
             if (rows > 0) {
                 // Notify seller
-                Order order = getOrderById(orderId);
-                Stand stand = getStandById(order.getStandId());
-                createNotification(stand.getOwnerId(), "order_placed",
+                insertOrderNotification(db, orderId, true, "order_placed",
                         "🔔 Pesanan Baru Masuk!",
-                        "Ada pesanan baru menunggu verifikasi pembayaran",
-                        orderId);
+                        "Ada pesanan baru menunggu verifikasi pembayaran");
             }
 
-            return rows;
+            db.setTransactionSuccessful();
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error updating payment proof: " + e.getMessage(), e);
-            return 0;
+            rows = 0;
+        } finally {
+            endTransaction(db);
+            BadgeCounters.getInstance().invalidateAll(); // notification recipients
+        }
+
+        return rows;
+    }
+
+    /**
+     * Attach one payment proof to every order of a multi-stand checkout
+     * The proof is a single blob, so each order just references the same hash
+     */
+    public int updatePaymentProof(List<Integer> orderIds, String proofRef) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        int rows = 0;
+
+        try {
+            beginTransaction(db, "updatePaymentProof");
+
+            String now = getCurrentTimestamp();
+            for (int orderId : orderIds) {
+                ContentValues values = new ContentValues();
+                values.put(ORDER_PAYMENT_PROOF, proofRef);
+                values.put(ORDER_PAYMENT_STATUS, "pending");
+                values.put(ORDER_STATUS, "pending_verification");
+                values.put(ORDER_UPDATED_AT, now);
+
+                if (update(db, "updatePaymentProof", TABLE_ORDERS, values, ORDER_ID + " = ?",
+                        new String[]{String.valueOf(orderId)}) > 0) {
+                    insertOrderNotification(db, orderId, true, "order_placed",
+                            "🔔 Pesanan Baru Masuk!",
+                            "Ada pesanan baru menunggu verifikasi pembayaran");
+                    rows++;
+                }
+            }
+
+            db.setTransactionSuccessful();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error updating payment proofs: " + e.getMessage(), e);
+            rows = 0;
+        } finally {
+            endTransaction(db);
+            BadgeCounters.getInstance().invalidateAll(); // notification recipients
         }
+
+        return rows;
     }
 
     /**
      * Verify payment (Seller accepts)
+     * Update + buyer notification in one transaction, no read-back
      */
     public int verifyPayment(int orderId, boolean accepted, String sellerNotes) {
         SQLiteDatabase db = this.getWritableDatabase();
+        int rows = 0;
 
         try {
+            beginTransaction(db, "verifyPayment");
+
             ContentValues values = new ContentValues();
 
             if (accepted) {
@@ -1116,111 +2114,223 @@ public class DBHelper extends SQLiteOpenHelper {
             }
             values.put(ORDER_UPDATED_AT, getCurrentTimestamp());
 
-            int rows = db.update(TABLE_ORDERS, values, ORDER_ID + " = ?",
+            rows = update(db, "verifyPayment", TABLE_ORDERS, values, ORDER_ID + " = ?",
                     new String[]{String.valueOf(orderId)});
 
             if (rows > 0) {
                 // Notify buyer
-                Order order = getOrderById(orderId);
                 String title = accepted ? "✅ Pembayaran Diterima" : "❌ Pembayaran Ditolak";
                 String message = accepted ?
                         "Pesanan Anda sedang diproses" :
                         "Pembayaran tidak valid. " + (sellerNotes != null ? sellerNotes : "");
 
-                createNotification(order.getUserId(),
+                insertOrderNotification(db, orderId, false,
                         accepted ? "payment_verified" : "payment_rejected",
-                        title, message, orderId);
+                        title, message);
             }
 
-            return rows;
+            db.setTransactionSuccessful();
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error verifying payment: " + e.getMessage(), e);
-            return 0;
+            rows = 0;
+        } finally {
+            endTransaction(db);
+            BadgeCounters.getInstance().invalidateAll(); // notification recipients
         }
+
+        return rows;
     }
 
     /**
      * Update order status (by Seller)
+     * Update + buyer notification in one transaction, no read-back
      */
     public int updateOrderStatus(int orderId, String status) {
         SQLiteDatabase db = this.getWritableDatabase();
+        int rows = 0;
 
         try {
+            beginTransaction(db, "updateOrderStatus");
+
             ContentValues values = new ContentValues();
             values.put(ORDER_STATUS, status);
             values.put(ORDER_UPDATED_AT, getCurrentTimestamp());
 
-            int rows = db.update(TABLE_ORDERS, values, ORDER_ID + " = ?",
+            rows = update(db, "updateOrderStatus", TABLE_ORDERS, values, ORDER_ID + " = ?",
                     new String[]{String.valueOf(orderId)});
 
             if (rows > 0) {
                 // Notify buyer based on status
-                Order order = getOrderById(orderId);
-                String title = "";
-                String message = "";
-                String notifType = "";
-
-                switch (status) {
-                    case "cooking":
-                        title = "👨‍🍳 Pesanan Sedang Dimasak";
-                        message = "Pesanan Anda sedang disiapkan";
-                        notifType = "order_cooking";
-                        break;
-                    case "ready":
-                        title = "✅ Pesanan Siap!";
-                        message = "Pesanan Anda sudah siap diambil";
-                        notifType = "order_ready";
-                        break;
-                    case "completed":
-                        title = "🎉 Pesanan Selesai";
-                        message = "Terima kasih telah memesan!";
-                        notifType = "order_completed";
-                        break;
-                }
+                String[] notif = getStatusNotification(status);
 
-                if (!title.isEmpty()) {
-                    createNotification(order.getUserId(), notifType, title, message, orderId);
+                if (notif != null) {
+                    insertOrderNotification(db, orderId, false, notif[0], notif[1], notif[2]);
                 }
             }
 
-            return rows;
+            db.setTransactionSuccessful();
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error updating order status: " + e.getMessage(), e);
-            return 0;
+            rows = 0;
+        } finally {
+            endTransaction(db);
+            BadgeCounters.getInstance().invalidateAll(); // notification recipients
         }
+
+        return rows;
     }
 
     /**
      * Cancel order (by Seller only)
+     * Update + buyer notification in one transaction, no read-back
      */
     public int cancelOrder(int orderId, String reason) {
         SQLiteDatabase db = this.getWritableDatabase();
+        int rows = 0;
 
         try {
+            beginTransaction(db, "cancelOrder");
+
             ContentValues values = new ContentValues();
             values.put(ORDER_STATUS, "cancelled");
             values.put(ORDER_SELLER_NOTES, reason);
             values.put(ORDER_UPDATED_AT, getCurrentTimestamp());
 
-            int rows = db.update(TABLE_ORDERS, values, ORDER_ID + " = ?",
+            rows = update(db, "cancelOrder", TABLE_ORDERS, values, ORDER_ID + " = ?",
                     new String[]{String.valueOf(orderId)});
 
             if (rows > 0) {
                 // Notify buyer
-                Order order = getOrderById(orderId);
-                createNotification(order.getUserId(), "order_cancelled",
+                insertOrderNotification(db, orderId, false, "order_cancelled",
                         "❌ Pesanan Dibatalkan",
-                        "Pesanan dibatalkan oleh penjual. Alasan: " + reason,
-                        orderId);
+                        "Pesanan dibatalkan oleh penjual. Alasan: " + reason);
             }
 
-            return rows;
+            db.setTransactionSuccessful();
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error cancelling order: " + e.getMessage(), e);
-            return 0;
+            rows = 0;
+        } finally {
+            endTransaction(db);
+            BadgeCounters.getInstance().invalidateAll(); // notification recipients
+        }
+
+        return rows;
+    }
+
+    /**
+     * Bulk status transition (by Seller)
+     * Moves every order in orderIds from fromStatus to toStatus and notifies each buyer,
+     * all inside ONE transaction using compiled statements.
+     * Orders that are no longer in fromStatus are skipped.
+     * @return number of orders updated, 0 if error
+     */
+    public int bulkUpdateOrderStatus(List<Integer> orderIds, String fromStatus, String toStatus) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        String[] notif = getStatusNotification(toStatus);
+        int updated = 0;
+
+        // Accepting a payment also marks payment_status as verified
+        String updateSql = "UPDATE " + TABLE_ORDERS + " SET " + ORDER_STATUS + " = ?, " +
+                ("verified".equals(toStatus) ? ORDER_PAYMENT_STATUS + " = 'verified', " : "") +
+                ORDER_UPDATED_AT + " = ? " +
+                "WHERE " + ORDER_ID + " = ? AND " + ORDER_STATUS + " = ?";
+
+        String notifSql = buildOrderNotificationSql(false);
+
+        SQLiteStatement updateStmt = null;
+        SQLiteStatement notifStmt = null;
+
+        try {
+            beginTransaction(db, "bulkUpdateOrderStatus");
+
+            updateStmt = db.compileStatement(updateSql);
+            if (notif != null) {
+                notifStmt = db.compileStatement(notifSql);
+            }
+
+            String timestamp = getCurrentTimestamp();
+
+            for (Integer orderId : orderIds) {
+                if (executeUpdateDelete(updateStmt, "bulkUpdateOrderStatus", updateSql,
+                        toStatus, timestamp, orderId, fromStatus) > 0) {
+                    updated++;
+
+                    if (notifStmt != null) {
+                        executeInsert(notifStmt, "bulkUpdateOrderStatus", notifSql,
+                                notif[0], notif[1], notif[2], timestamp, orderId);
+                    }
+                }
+            }
+
+            db.setTransactionSuccessful();
+            Log.d(TAG, "✅ Bulk updated " + updated + " orders to " + toStatus);
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error bulk updating orders: " + e.getMessage(), e);
+            updated = 0;
+        } finally {
+            if (updateStmt != null) updateStmt.close();
+            if (notifStmt != null) notifStmt.close();
+            endTransaction(db);
+            BadgeCounters.getInstance().invalidateAll(); // notification recipients
+        }
+
+        return updated;
+    }
+
+    /**
+     * Helper: INSERT ... SELECT that resolves the recipient from the order row
+     * Binds: type, title, message, created_at, order id
+     * @param toSeller true = stand owner, false = buyer
+     */
+    private String buildOrderNotificationSql(boolean toSeller) {
+        String recipientSelect = toSeller
+                ? "SELECT s." + STAND_SELLER_ID + ", ?, ?, ?, o." + ORDER_ID + ", 0, ? " +
+                  "FROM " + TABLE_ORDERS + " o " +
+                  "INNER JOIN " + TABLE_STAND + " s ON o." + ORDER_STAND_ID + " = s." + STAND_ID + " "
+                : "SELECT o." + ORDER_BUYER_ID + ", ?, ?, ?, o." + ORDER_ID + ", 0, ? " +
+                  "FROM " + TABLE_ORDERS + " o ";
+
+        return "INSERT INTO " + TABLE_NOTIFICATIONS + " (" +
+                NOTIF_USER_ID + ", " + NOTIF_TYPE + ", " + NOTIF_TITLE + ", " + NOTIF_MESSAGE + ", " +
+                NOTIF_ORDER_ID + ", " + NOTIF_IS_READ + ", " + NOTIF_CREATED_AT + ") " +
+                recipientSelect +
+                "WHERE o." + ORDER_ID + " = ?";
+    }
+
+    /**
+     * Helper: Create order notification inside the caller's transaction
+     */
+    private void insertOrderNotification(SQLiteDatabase db, int orderId, boolean toSeller,
+                                         String type, String title, String message) {
+        execSQL(db, "insertOrderNotification", buildOrderNotificationSql(toSeller),
+                new Object[]{type, title, message, getCurrentTimestamp(), orderId});
+    }
+
+    /**
+     * Helper: Buyer notification for a status change
+     * @return {type, title, message} or null if the status sends no notification
+     */
+    private String[] getStatusNotification(String status) {
+        switch (status) {
+            case "verified":
+                return new String[]{"payment_verified", "✅ Pembayaran Diterima",
+                        "Pesanan Anda sedang diproses"};
+            case "cooking":
+                return new String[]{"order_cooking", "👨‍🍳 Pesanan Sedang Dimasak",
+                        "Pesanan Anda sedang disiapkan"};
+            case "ready":
+                return new String[]{"order_ready", "✅ Pesanan Siap!",
+                        "Pesanan Anda sudah siap diambil"};
+            case "completed":
+                return new String[]{"order_completed", "🎉 Pesanan Selesai",
+                        "Terima kasih telah memesan!"};
+            default:
+                return null;
         }
     }
 
@@ -1239,7 +2349,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "WHERE o." + ORDER_BUYER_ID + " = ? " +
                     "ORDER BY o." + ORDER_CREATED_AT + " DESC";
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(buyerId)});
+            Cursor cursor = rawQuery(db, "getOrdersByBuyer", query, new String[]{String.valueOf(buyerId)});
 
             if (cursor.moveToFirst()) {
                 do {
@@ -1270,7 +2380,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "WHERE s." + STAND_SELLER_ID + " = ? " +
                     "ORDER BY o." + ORDER_CREATED_AT + " DESC";
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(sellerId)});
+            Cursor cursor = rawQuery(db, "getOrdersBySeller", query, new String[]{String.valueOf(sellerId)});
 
             if (cursor.moveToFirst()) {
                 do {
@@ -1301,7 +2411,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "WHERE s." + STAND_SELLER_ID + " = ? AND o." + ORDER_STATUS + " = ? " +
                     "ORDER BY o." + ORDER_CREATED_AT + " DESC";
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(sellerId), status});
+            Cursor cursor = rawQuery(db, "getOrdersBySellerAndStatus", query, new String[]{String.valueOf(sellerId), status});
 
             if (cursor.moveToFirst()) {
                 do {
@@ -1318,25 +2428,95 @@ public class DBHelper extends SQLiteOpenHelper {
     }
 
     /**
-     * Get order by ID
+     * Buyer order history page, newest first (keyset on id)
+     * statuses: null = all; archived: read orders_archive instead of the hot table
+     * beforeId: id of the last loaded order in that tier, 0 = first page
      */
-    public Order getOrderById(int orderId) {
+    public List<Order> getBuyerOrdersPage(int buyerId, String[] statuses, boolean archived,
+                                          int beforeId, int limit) {
+        StringBuilder where = new StringBuilder("o." + ORDER_BUYER_ID + " = ?");
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(buyerId));
+        return getOrdersPage("getBuyerOrdersPage", where, args, statuses, archived, beforeId, limit);
+    }
+
+    /**
+     * Seller order history page, newest first (keyset on id)
+     * Same paging contract as getBuyerOrdersPage
+     */
+    public List<Order> getSellerOrdersPage(int sellerId, String[] statuses, boolean archived,
+                                           int beforeId, int limit) {
+        StringBuilder where = new StringBuilder(STANDS_OF_SELLER);
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(sellerId));
+        return getOrdersPage("getSellerOrdersPage", where, args, statuses, archived, beforeId, limit);
+    }
+
+    /**
+     * Helper: one page of orders from the hot or archive table
+     */
+    private List<Order> getOrdersPage(String method, StringBuilder where, List<String> args,
+                                      String[] statuses, boolean archived, int beforeId, int limit) {
+        List<Order> orders = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
 
         try {
+            if (statuses != null) {
+                where.append(" AND o.").append(ORDER_STATUS).append(" IN (");
+                for (int i = 0; i < statuses.length; i++) {
+                    where.append(i == 0 ? "?" : ", ?");
+                    args.add(statuses[i]);
+                }
+                where.append(")");
+            }
+            if (beforeId > 0) {
+                where.append(" AND o.").append(ORDER_ID).append(" < ?");
+                args.add(String.valueOf(beforeId));
+            }
+            args.add(String.valueOf(limit));
+
             String query = "SELECT o.*, s." + STAND_NAME + ", u." + USER_NAME + " as buyer_name " +
-                    "FROM " + TABLE_ORDERS + " o " +
+                    "FROM " + (archived ? TABLE_ORDERS_ARCHIVE : TABLE_ORDERS) + " o " +
                     "INNER JOIN " + TABLE_STAND + " s ON o." + ORDER_STAND_ID + " = s." + STAND_ID + " " +
                     "INNER JOIN " + TABLE_USERS + " u ON o." + ORDER_BUYER_ID + " = u." + USER_ID + " " +
-                    "WHERE o." + ORDER_ID + " = ?";
+                    "WHERE " + where + " " +
+                    "ORDER BY o." + ORDER_ID + " DESC LIMIT ?";
+
+            Cursor cursor = rawQuery(db, method, query, args.toArray(new String[0]));
+            while (cursor.moveToNext()) {
+                orders.add(mapCursorToOrder(cursor));
+            }
+            cursor.close();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting orders page: " + e.getMessage(), e);
+        }
+
+        return orders;
+    }
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(orderId)});
+    /**
+     * Get order by ID (hot table first, then the archive)
+     */
+    public Order getOrderById(int orderId) {
+        SQLiteDatabase db = this.getReadableDatabase();
 
+        try {
             Order order = null;
-            if (cursor.moveToFirst()) {
-                order = mapCursorToOrder(cursor);
+            for (String table : new String[]{TABLE_ORDERS, TABLE_ORDERS_ARCHIVE}) {
+                String query = "SELECT o.*, s." + STAND_NAME + ", u." + USER_NAME + " as buyer_name " +
+                        "FROM " + table + " o " +
+                        "INNER JOIN " + TABLE_STAND + " s ON o." + ORDER_STAND_ID + " = s." + STAND_ID + " " +
+                        "INNER JOIN " + TABLE_USERS + " u ON o." + ORDER_BUYER_ID + " = u." + USER_ID + " " +
+                        "WHERE o." + ORDER_ID + " = ?";
+
+                Cursor cursor = rawQuery(db, "getOrderById", query, new String[]{String.valueOf(orderId)});
+                if (cursor.moveToFirst()) {
+                    order = mapCursorToOrder(cursor);
+                }
+                cursor.close();
+                if (order != null) break;
             }
-            cursor.close();
             return order;
 
         } catch (Exception e) {
@@ -1346,34 +2526,25 @@ public class DBHelper extends SQLiteOpenHelper {
     }
 
     /**
-     * Get order items
+     * Get order items (hot table first, then the archive)
      */
     public List<OrderItem> getOrderItems(int orderId) {
         List<OrderItem> items = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
 
         try {
-            String query = "SELECT oi.*, m." + MENU_NAME + " " +
-                    "FROM " + TABLE_ORDER_ITEMS + " oi " +
-                    "INNER JOIN " + TABLE_MENU + " m ON oi." + ITEM_MENU_ID + " = m." + MENU_ID + " " +
-                    "WHERE oi." + ITEM_ORDER_ID + " = ?";
+            for (String table : new String[]{TABLE_ORDER_ITEMS, TABLE_ORDER_ITEMS_ARCHIVE}) {
+                if (!items.isEmpty()) break;
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(orderId)});
+                String query = "SELECT oi.*, m." + MENU_NAME + " " +
+                        "FROM " + table + " oi " +
+                        "INNER JOIN " + TABLE_MENU + " m ON oi." + ITEM_MENU_ID + " = m." + MENU_ID + " " +
+                        "WHERE oi." + ITEM_ORDER_ID + " = ?";
 
-            if (cursor.moveToFirst()) {
-                do {
-                    OrderItem item = new OrderItem();
-                    item.setId(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_ID)));
-                    item.setOrderId(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_ORDER_ID)));
-                    item.setMenuId(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_MENU_ID)));
-                    item.setQty(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_QTY)));
-                    item.setPrice(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_PRICE)));
-                    item.setSubtotal(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_SUBTOTAL)));
-                    item.setMenuName(cursor.getString(cursor.getColumnIndexOrThrow(MENU_NAME)));
-                    items.add(item);
-                } while (cursor.moveToNext());
+                Cursor cursor = rawQuery(db, "getOrderItems", query, new String[]{String.valueOf(orderId)});
+                readOrderItems(cursor, items);
+                cursor.close();
             }
-            cursor.close();
 
         } catch (Exception e) {
             Log.e(TAG, "❌ Error getting order items: " + e.getMessage(), e);
@@ -1382,6 +2553,25 @@ public class DBHelper extends SQLiteOpenHelper {
         return items;
     }
 
+    /**
+     * Helper: Map order_items rows (+ menu name) into OrderItem objects
+     */
+    private void readOrderItems(Cursor cursor, List<OrderItem> items) {
+        if (cursor.moveToFirst()) {
+            do {
+                OrderItem item = new OrderItem();
+                item.setId(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_ID)));
+                item.setOrderId(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_ORDER_ID)));
+                item.setMenuId(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_MENU_ID)));
+                item.setQty(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_QTY)));
+                item.setPrice(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_PRICE)));
+                item.setSubtotal(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_SUBTOTAL)));
+                item.setMenuName(cursor.getString(cursor.getColumnIndexOrThrow(MENU_NAME)));
+                items.add(item);
+            } while (cursor.moveToNext());
+        }
+    }
+
     /**
      * Helper: Map cursor to Order object
      */
@@ -1394,225 +2584,1444 @@ public class DBHelper extends SQLiteOpenHelper {
         order.setStatus(cursor.getString(cursor.getColumnIndexOrThrow(ORDER_STATUS)));
         order.setPaymentMethod(cursor.getString(cursor.getColumnIndexOrThrow(ORDER_PAYMENT_METHOD)));
         order.setPaymentStatus(cursor.getString(cursor.getColumnIndexOrThrow(ORDER_PAYMENT_STATUS)));
+        order.setPaymentProof(cursor.getString(cursor.getColumnIndexOrThrow(ORDER_PAYMENT_PROOF)));
         order.setNotes(cursor.getString(cursor.getColumnIndexOrThrow(ORDER_BUYER_NOTES)));
         order.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow(ORDER_CREATED_AT)));
         order.setUpdatedAt(cursor.getString(cursor.getColumnIndexOrThrow(ORDER_UPDATED_AT)));
+        order.setPickupSlot(cursor.getString(cursor.getColumnIndexOrThrow(ORDER_PICKUP_SLOT)));
         order.setStandName(cursor.getString(cursor.getColumnIndexOrThrow(STAND_NAME)));
         order.setUserName(cursor.getString(cursor.getColumnIndexOrThrow("buyer_name")));
         return order;
     }
 
-    // ==================== NOTIFICATION SYSTEM ====================
+    // ==================== ORDER ARCHIVE ====================
 
     /**
-     * Create notification
+     * Move completed/cancelled orders not touched for maxAgeDays (and their items)
+     * into the archive tables, one short transaction per batch.
+     * Orders that have reviews stay hot: reviews.order_id references them.
+     * Their notifications go with them (ON DELETE CASCADE).
+     * @return number of orders archived
      */
-    public long createNotification(int userId, String type, String title,
-                                   String message, int orderId) {
+    public int archiveOldOrders(int maxAgeDays, int batchSize) {
         SQLiteDatabase db = this.getWritableDatabase();
+        int total = 0;
 
-        try {
-            ContentValues values = new ContentValues();
-            values.put(NOTIF_USER_ID, userId);
-            values.put(NOTIF_TYPE, type);
-            values.put(NOTIF_TITLE, title);
-            values.put(NOTIF_MESSAGE, message);
-            values.put(NOTIF_ORDER_ID, orderId);
-            values.put(NOTIF_IS_READ, 0);
-            values.put(NOTIF_CREATED_AT, getCurrentTimestamp());
-
-            return db.insert(TABLE_NOTIFICATIONS, null, values);
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+        String cutoff = sdf.format(new Date(System.currentTimeMillis() - maxAgeDays * 24L * 60 * 60 * 1000));
 
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error creating notification: " + e.getMessage(), e);
-            return -1;
-        }
-    }
+        String batchSql = "INSERT INTO temp.archive_batch SELECT o." + ORDER_ID + " FROM " + TABLE_ORDERS + " o " +
+                "WHERE o." + ORDER_STATUS + " IN ('completed', 'cancelled') AND o." + ORDER_UPDATED_AT + " < ? " +
+                "AND NOT EXISTS (SELECT 1 FROM " + TABLE_REVIEWS + " r WHERE r." + REVIEW_ORDER_ID + " = o." + ORDER_ID + ") " +
+                "LIMIT ?";
+        String inBatch = " IN (SELECT id FROM temp.archive_batch)";
 
-    /**
-     * Get unread notifications
-     */
-    public List<Notification> getUnreadNotifications(int userId) {
-        List<Notification> notifications = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
+        SQLiteStatement fill = null;
+        SQLiteStatement copyItems = null;
+        SQLiteStatement copyOrders = null;
+        SQLiteStatement deleteItems = null;
+        SQLiteStatement deleteOrders = null;
 
         try {
-            String query = "SELECT * FROM " + TABLE_NOTIFICATIONS +
-                    " WHERE " + NOTIF_USER_ID + " = ? AND " + NOTIF_IS_READ + " = 0 " +
-                    "ORDER BY " + NOTIF_CREATED_AT + " DESC";
-
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(userId)});
+            db.execSQL("CREATE TEMP TABLE IF NOT EXISTS archive_batch (id INTEGER PRIMARY KEY)");
+
+            fill = db.compileStatement(batchSql);
+            copyItems = db.compileStatement("INSERT INTO " + TABLE_ORDER_ITEMS_ARCHIVE + " (" + ITEM_COLUMNS + ") " +
+                    "SELECT " + ITEM_COLUMNS + " FROM " + TABLE_ORDER_ITEMS + " WHERE " + ITEM_ORDER_ID + inBatch);
+            copyOrders = db.compileStatement("INSERT INTO " + TABLE_ORDERS_ARCHIVE + " (" + ORDER_COLUMNS + ") " +
+                    "SELECT " + ORDER_COLUMNS + " FROM " + TABLE_ORDERS + " WHERE " + ORDER_ID + inBatch);
+            deleteItems = db.compileStatement("DELETE FROM " + TABLE_ORDER_ITEMS + " WHERE " + ITEM_ORDER_ID + inBatch);
+            deleteOrders = db.compileStatement("DELETE FROM " + TABLE_ORDERS + " WHERE " + ORDER_ID + inBatch);
+
+            int moved;
+            do {
+                long start = System.nanoTime();
+                beginTransaction(db, "archiveOldOrders");
+                try {
+                    db.execSQL("DELETE FROM temp.archive_batch");
+                    fill.bindString(1, cutoff);
+                    fill.bindLong(2, batchSize);
+                    fill.execute();
+
+                    copyItems.execute();
+                    copyOrders.execute();
+                    deleteItems.execute();
+                    moved = deleteOrders.executeUpdateDelete();
+
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+                QueryStats.getInstance().record("archiveOldOrders", batchSql,
+                        new Object[]{cutoff, batchSize}, start, moved);
+                total += moved;
+            } while (moved >= batchSize);
 
-            if (cursor.moveToFirst()) {
-                do {
-                    Notification notif = new Notification();
-                    notif.setId(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_ID)));
-                    notif.setUserId(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_USER_ID)));
-                    notif.setType(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_TYPE)));
-                    notif.setTitle(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_TITLE)));
-                    notif.setMessage(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_MESSAGE)));
-                    notif.setOrderId(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_ORDER_ID)));
-                    notif.setRead(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_IS_READ)) == 1);
-                    notif.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_CREATED_AT)));
-                    notifications.add(notif);
-                } while (cursor.moveToNext());
+            if (total > 0) {
+                Log.d(TAG, "✅ Archived " + total + " old orders");
             }
-            cursor.close();
 
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error getting notifications: " + e.getMessage(), e);
+            Log.e(TAG, "❌ Error archiving orders: " + e.getMessage(), e);
+        } finally {
+            if (fill != null) fill.close();
+            if (copyItems != null) copyItems.close();
+            if (copyOrders != null) copyOrders.close();
+            if (deleteItems != null) deleteItems.close();
+            if (deleteOrders != null) deleteOrders.close();
+            if (total > 0) {
+                BadgeCounters.getInstance().invalidateAll(); // cascaded notifications
+            }
         }
 
-        return notifications;
+        return total;
     }
 
+    // ==================== PICKUP SLOTS ====================
+
     /**
-     * Mark notification as read
+     * Book qty items into a stand's slot inside the caller's transaction
+     * Guarded UPDATE: only succeeds while the slot stays within the stand's capacity
      */
-    public int markNotificationRead(int notificationId) {
-        SQLiteDatabase db = this.getWritableDatabase();
+    private boolean reservePickupSlot(SQLiteDatabase db, int standId, String slot, int qty) {
+        execSQL(db, "reservePickupSlot", "INSERT OR IGNORE INTO " + TABLE_PICKUP_SLOTS +
+                " (" + SLOT_STAND_ID + ", " + SLOT_START + ") VALUES (?, ?)", new Object[]{standId, slot});
 
-        try {
-            ContentValues values = new ContentValues();
-            values.put(NOTIF_IS_READ, 1);
+        String sql = "UPDATE " + TABLE_PICKUP_SLOTS + " SET " + SLOT_ITEMS + " = " + SLOT_ITEMS + " + ? " +
+                "WHERE " + SLOT_STAND_ID + " = ? AND " + SLOT_START + " = ? AND (" +
+                "(SELECT " + STAND_SLOT_CAPACITY + " FROM " + TABLE_STAND + " WHERE " + STAND_ID + " = ?) = 0 OR " +
+                SLOT_ITEMS + " + ? <= (SELECT " + STAND_SLOT_CAPACITY + " FROM " + TABLE_STAND + " WHERE " + STAND_ID + " = ?))";
 
-            return db.update(TABLE_NOTIFICATIONS, values, NOTIF_ID + " = ?",
-                    new String[]{String.valueOf(notificationId)});
+        SQLiteStatement stmt = db.compileStatement(sql);
+        try {
+            long start = System.nanoTime();
+            stmt.bindLong(1, qty);
+            stmt.bindLong(2, standId);
+            stmt.bindString(3, slot);
+            stmt.bindLong(4, standId);
+            stmt.bindLong(5, qty);
+            stmt.bindLong(6, standId);
+            int rows = stmt.executeUpdateDelete();
+            QueryStats.getInstance().record("reservePickupSlot", sql,
+                    new Object[]{qty, standId, slot, standId, qty, standId}, start, rows);
+            return rows > 0;
+        } finally {
+            stmt.close();
+        }
+    }
 
+    /**
+     * Time until a pickup slot starts, 0 for ASAP (null) or a slot already begun
+     */
+    public static long getPickupSlotLeadMs(String slot) {
+        if (slot == null) return 0;
+        try {
+            Date start = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault()).parse(slot);
+            return Math.max(0, start.getTime() - System.currentTimeMillis());
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error marking notification: " + e.getMessage(), e);
             return 0;
         }
     }
 
     /**
-     * Get unread notification count
+     * Next pickup slots in which every stand still has room for its items
+     * and, for busy stands, whose queue should have shrunk enough by then
+     * One read for capacities and one for the booked counters of the whole horizon
+     * @param itemsPerStand stand id -> item qty in the cart
+     * @return slot starts ("yyyy-MM-dd HH:mm"), earliest first
      */
-    public int getUnreadNotificationCount(int userId) {
+    public List<String> getAvailablePickupSlots(Map<Integer, Integer> itemsPerStand, int maxSlots) {
+        List<String> slots = new ArrayList<>();
+        if (itemsPerStand.isEmpty()) return slots;
+
+        // Candidate slots: from the next boundary (at least one slot of prep time) on
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
+        long slotMs = PICKUP_SLOT_MINUTES * 60_000L;
+        long first = (System.currentTimeMillis() / slotMs + 2) * slotMs;
+        String[] candidates = new String[PICKUP_SLOT_HORIZON];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = sdf.format(new Date(first + i * slotMs));
+        }
+
         SQLiteDatabase db = this.getReadableDatabase();
+        StringBuilder standIds = new StringBuilder();
+        for (Integer standId : itemsPerStand.keySet()) {
+            if (standIds.length() > 0) standIds.append(", ");
+            standIds.append(standId.intValue());
+        }
 
         try {
-            Cursor cursor = db.rawQuery(
-                    "SELECT COUNT(*) FROM " + TABLE_NOTIFICATIONS +
-                            " WHERE " + NOTIF_USER_ID + " = ? AND " + NOTIF_IS_READ + " = 0",
-                    new String[]{String.valueOf(userId)});
+            Map<Integer, Integer> capacities = new HashMap<>();
+            Cursor cursor = rawQuery(db, "getAvailablePickupSlots",
+                    "SELECT " + STAND_ID + ", " + STAND_SLOT_CAPACITY + " FROM " + TABLE_STAND +
+                            " WHERE " + STAND_ID + " IN (" + standIds + ")", null);
+            while (cursor.moveToNext()) {
+                capacities.put(cursor.getInt(0), cursor.getInt(1));
+            }
+            cursor.close();
 
-            int count = 0;
-            if (cursor.moveToFirst()) {
-                count = cursor.getInt(0);
+            Map<String, Integer> booked = new HashMap<>(); // "standId|slot" -> items
+            cursor = rawQuery(db, "getAvailablePickupSlots",
+                    "SELECT " + SLOT_STAND_ID + ", " + SLOT_START + ", " + SLOT_ITEMS + " FROM " + TABLE_PICKUP_SLOTS +
+                            " WHERE " + SLOT_STAND_ID + " IN (" + standIds + ") AND " + SLOT_START + " BETWEEN ? AND ?",
+                    new String[]{candidates[0], candidates[candidates.length - 1]});
+            while (cursor.moveToNext()) {
+                booked.put(cursor.getInt(0) + "|" + cursor.getString(1), cursor.getInt(2));
             }
             cursor.close();
-            return count;
 
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error getting notification count: " + e.getMessage(), e);
-            return 0;
-        }
-    }
+            Map<Integer, StandLoad> loads = new HashMap<>();
+            for (Integer standId : itemsPerStand.keySet()) {
+                StandLoad load = getStandLoad(standId);
+                if (load != null) loads.put(standId, load);
+            }
 
-    // ==================== FAVORITES & REVIEWS (SAME AS BEFORE) ====================
+            for (int i = 0; i < candidates.length; i++) {
+                String slot = candidates[i];
+                long leadMs = first + i * slotMs - System.currentTimeMillis();
+                boolean fits = true;
+                for (Map.Entry<Integer, Integer> entry : itemsPerStand.entrySet()) {
+                    StandLoad load = loads.get(entry.getKey());
+                    if (load != null && !load.canAcceptAt(entry.getValue(), leadMs)) {
+                        fits = false;
+                        break;
+                    }
 
-    public long addToFavorites(int buyerId, int menuId) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        try {
-            ContentValues values = new ContentValues();
-            values.put(FAV_BUYER_ID, buyerId);
-            values.put(FAV_MENU_ID, menuId);
-            values.put(FAV_CREATED_AT, getCurrentTimestamp());
-            return db.insert(TABLE_FAVORITES, null, values);
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error adding favorite: " + e.getMessage(), e);
-            return -1;
-        }
-    }
+                    Integer capacity = capacities.get(entry.getKey());
+                    if (capacity == null || capacity == 0) continue;
 
-    public int removeFromFavorites(int buyerId, int menuId) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        try {
-            return db.delete(TABLE_FAVORITES,
-                    FAV_BUYER_ID + " = ? AND " + FAV_MENU_ID + " = ?",
-                    new String[]{String.valueOf(buyerId), String.valueOf(menuId)});
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error removing favorite: " + e.getMessage(), e);
-            return 0;
-        }
-    }
+                    Integer used = booked.get(entry.getKey() + "|" + slot);
+                    if ((used != null ? used : 0) + entry.getValue() > capacity) {
+                        fits = false;
+                        break;
+                    }
+                }
+                if (fits) {
+                    slots.add(slot);
+                    if (slots.size() >= maxSlots) break;
+                }
+            }
 
-    public boolean isFavorite(int buyerId, int menuId) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        try {
-            Cursor cursor = db.rawQuery(
-                    "SELECT * FROM " + TABLE_FAVORITES +
-                            " WHERE " + FAV_BUYER_ID + " = ? AND " + FAV_MENU_ID + " = ?",
-                    new String[]{String.valueOf(buyerId), String.valueOf(menuId)});
-            boolean exists = cursor.getCount() > 0;
-            cursor.close();
-            return exists;
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error checking favorite: " + e.getMessage(), e);
-            return false;
+            Log.e(TAG, "❌ Error getting pickup slots: " + e.getMessage(), e);
         }
+
+        return slots;
     }
 
-    public long addReview(int buyerId, int menuId, int orderId, int rating, String comment) {
+    /**
+     * Drop counters of slots that started before today (OrderArchiveJob)
+     */
+    public int deletePastPickupSlots() {
         SQLiteDatabase db = this.getWritableDatabase();
+
         try {
-            ContentValues values = new ContentValues();
-            values.put(REVIEW_BUYER_ID, buyerId);
-            values.put(REVIEW_MENU_ID, menuId);
-            values.put(REVIEW_ORDER_ID, orderId);
-            values.put(REVIEW_RATING, rating);
-            values.put(REVIEW_COMMENT, comment);
-            values.put(REVIEW_CREATED_AT, getCurrentTimestamp());
-            return db.insert(TABLE_REVIEWS, null, values);
+            String today = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
+            return delete(db, "deletePastPickupSlots", TABLE_PICKUP_SLOTS, SLOT_START + " < ?", new String[]{today});
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error adding review: " + e.getMessage(), e);
-            return -1;
+            Log.e(TAG, "❌ Error deleting past pickup slots: " + e.getMessage(), e);
+            return 0;
         }
     }
 
-    // ==================== HELPER METHODS ====================
+    // ==================== ADMISSION CONTROL ====================
 
-    public Stand getStandById(int standId) {
+    /**
+     * Live queue depth + budget of a stand (one primary-key read)
+     */
+    public StandLoad getStandLoad(int standId) {
         SQLiteDatabase db = this.getReadableDatabase();
+
         try {
-            Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_STAND + " WHERE " + STAND_ID + " = ?",
-                    new String[]{String.valueOf(standId)});
+            String query = "SELECT s." + STAND_NAME + ", s." + STAND_MAX_OPEN_ITEMS + ", " +
+                    "COALESCE(l." + LOAD_OPEN_ORDERS + ", 0), COALESCE(l." + LOAD_OPEN_ITEMS + ", 0), " +
+                    "COALESCE(p." + PREP_ITEM_MS + ", 0), COALESCE(p." + PREP_ORDER_MS + ", 0) " +
+                    "FROM " + TABLE_STAND + " s " +
+                    "LEFT JOIN " + TABLE_STAND_LOAD + " l ON l." + LOAD_STAND_ID + " = s." + STAND_ID + " " +
+                    "LEFT JOIN " + TABLE_PREP_TIME + " p ON p." + PREP_STAND_ID + " = s." + STAND_ID +
+                    " AND p." + PREP_MENU_ID + " = 0 " +
+                    "WHERE s." + STAND_ID + " = ?";
 
-            Stand stand = null;
+            Cursor cursor = rawQuery(db, "getStandLoad", query, new String[]{String.valueOf(standId)});
+
+            StandLoad load = null;
             if (cursor.moveToFirst()) {
-                stand = new Stand();
-                stand.setId(cursor.getInt(cursor.getColumnIndexOrThrow(STAND_ID)));
-                stand.setOwnerId(cursor.getInt(cursor.getColumnIndexOrThrow(STAND_SELLER_ID)));
-                stand.setNama(cursor.getString(cursor.getColumnIndexOrThrow(STAND_NAME)));
-                stand.setDeskripsi(cursor.getString(cursor.getColumnIndexOrThrow(STAND_DESCRIPTION)));
-                stand.setImage(cursor.getString(cursor.getColumnIndexOrThrow(STAND_IMAGE)));
+                load = new StandLoad(standId, cursor.getString(0), cursor.getInt(1), cursor.getInt(2), cursor.getInt(3));
+                load.setPrepTimes(cursor.getLong(4), cursor.getLong(5));
             }
             cursor.close();
-            return stand;
+            return load;
+
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error getting stand by ID: " + e.getMessage(), e);
+            Log.e(TAG, "❌ Error getting stand load: " + e.getMessage(), e);
             return null;
         }
     }
 
-    // ==================== STATISTICS (FOR DASHBOARD) ====================
-
-    public int getTotalOrdersByStatus(int sellerId, String status) {
+    /**
+     * Expected cook time of an order with these menus: the slowest menu's EWMA
+     * @return millis, or 0 if none of the menus has been cooked yet
+     */
+    public long getMenuCookMs(int standId, Collection<Integer> menuIds) {
+        if (menuIds.isEmpty()) return 0;
         SQLiteDatabase db = this.getReadableDatabase();
+
+        StringBuilder ids = new StringBuilder();
+        for (Integer menuId : menuIds) {
+            if (ids.length() > 0) ids.append(", ");
+            ids.append(menuId.intValue());
+        }
+
         try {
-            String query = "SELECT COUNT(*) FROM " + TABLE_ORDERS + " o " +
-                    "INNER JOIN " + TABLE_STAND + " s ON o." + ORDER_STAND_ID + " = s." + STAND_ID + " " +
-                    "WHERE s." + STAND_SELLER_ID + " = ? AND o." + ORDER_STATUS + " = ?";
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(sellerId), status});
-            int count = 0;
-            if (cursor.moveToFirst()) {
-                count = cursor.getInt(0);
+            Cursor cursor = rawQuery(db, "getMenuCookMs",
+                    "SELECT MAX(" + PREP_ORDER_MS + ") FROM " + TABLE_PREP_TIME +
+                            " WHERE " + PREP_STAND_ID + " = ? AND " + PREP_MENU_ID + " IN (" + ids + ")" +
+                            " AND " + PREP_SAMPLES + " > 0",
+                    new String[]{String.valueOf(standId)});
+            long ms = 0;
+            if (cursor.moveToFirst() && !cursor.isNull(0)) {
+                ms = cursor.getLong(0);
             }
             cursor.close();
-            return count;
+            return ms;
+
         } catch (Exception e) {
-            Log.e(TAG, "❌ Error getting order count: " + e.getMessage(), e);
+            Log.e(TAG, "❌ Error getting menu cook time: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Cook-time inputs of one order for its ETA: {slowest menu EWMA in millis
+     * (0 if none of its menus has been cooked yet), item qty}
+     */
+    public long[] getOrderPrepEstimate(int orderId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try {
+            Cursor cursor = rawQuery(db, "getOrderPrepEstimate",
+                    "SELECT MAX(p." + PREP_ORDER_MS + "), SUM(i." + ITEM_QTY + ") " +
+                            "FROM " + TABLE_ORDER_ITEMS + " i " +
+                            "INNER JOIN " + TABLE_ORDERS + " o ON o." + ORDER_ID + " = i." + ITEM_ORDER_ID + " " +
+                            "LEFT JOIN " + TABLE_PREP_TIME + " p ON p." + PREP_STAND_ID + " = o." + ORDER_STAND_ID +
+                            " AND p." + PREP_MENU_ID + " = i." + ITEM_MENU_ID + " AND p." + PREP_SAMPLES + " > 0 " +
+                            "WHERE i." + ITEM_ORDER_ID + " = ?",
+                    new String[]{String.valueOf(orderId)});
+            long[] estimate = {0, 0};
+            if (cursor.moveToFirst()) {
+                estimate[0] = cursor.isNull(0) ? 0 : cursor.getLong(0);
+                estimate[1] = cursor.getLong(1);
+            }
+            cursor.close();
+            return estimate;
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting order prep estimate: " + e.getMessage(), e);
+            return new long[]{0, 0};
+        }
+    }
+
+    // ==================== FREQUENTLY BOUGHT TOGETHER ====================
+
+    /**
+     * Available menus most often ordered together with menuId
+     * One index range read of menu_pairs (top counts first) joined by primary key
+     */
+    public List<Menu> getOftenOrderedWith(int menuId, int limit) {
+        return getOftenOrderedWith(Collections.singletonList(menuId), limit);
+    }
+
+    /**
+     * Same, for a whole cart: scores add up over its menus, its own menus left out
+     */
+    public List<Menu> getOftenOrderedWith(Collection<Integer> menuIds, int limit) {
+        List<Menu> menus = new ArrayList<>();
+        if (menuIds.isEmpty()) return menus;
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        StringBuilder ids = new StringBuilder();
+        for (Integer id : menuIds) {
+            if (ids.length() > 0) ids.append(", ");
+            ids.append(id.intValue());
+        }
+
+        try {
+            String query = "SELECT m.*, SUM(p." + PAIR_ORDERS + ") AS score " +
+                    "FROM " + TABLE_MENU_PAIRS + " p " +
+                    "INNER JOIN " + TABLE_MENU + " m ON m." + MENU_ID + " = p." + PAIR_OTHER_ID + " " +
+                    "WHERE p." + PAIR_MENU_ID + " IN (" + ids + ") AND p." + PAIR_OTHER_ID + " NOT IN (" + ids + ") " +
+                    "AND m." + MENU_STATUS + " = 'available' " +
+                    "GROUP BY p." + PAIR_OTHER_ID + " " +
+                    "ORDER BY score DESC, m." + MENU_NAME + " LIMIT " + limit;
+
+            Cursor cursor = rawQuery(db, "getOftenOrderedWith", query, null);
+
+            while (cursor.moveToNext()) {
+                Menu menu = new Menu();
+                menu.setId(cursor.getInt(cursor.getColumnIndexOrThrow(MENU_ID)));
+                menu.setStandId(cursor.getInt(cursor.getColumnIndexOrThrow(MENU_STAND_ID)));
+                menu.setNama(cursor.getString(cursor.getColumnIndexOrThrow(MENU_NAME)));
+                menu.setHarga(cursor.getInt(cursor.getColumnIndexOrThrow(MENU_PRICE)));
+                menu.setImage(cursor.getString(cursor.getColumnIndexOrThrow(MENU_IMAGE)));
+                menu.setKategori(cursor.getString(cursor.getColumnIndexOrThrow(MENU_CATEGORY)));
+                menu.setStatus(cursor.getString(cursor.getColumnIndexOrThrow(MENU_STATUS)));
+                readMenuStock(cursor, menu);
+                menus.add(menu);
+            }
+            cursor.close();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting often ordered with: " + e.getMessage(), e);
+        }
+
+        return menus;
+    }
+
+    /**
+     * Cap the partner lists of the menus one order just paired, inside its transaction
+     * New pairs only form between menus of the same order, so these are the only
+     * lists that grew. Each keeps MENU_PAIRS_CAP partners, one index range read per menu;
+     * pruneMenuPairs() trims them to MENU_PAIRS_KEEP once a day.
+     */
+    private void capMenuPairs(SQLiteDatabase db, Collection<Integer> menuIds) {
+        String sql = "DELETE FROM " + TABLE_MENU_PAIRS + " WHERE " + PAIR_MENU_ID + " = ?1 AND " + PAIR_OTHER_ID +
+                " NOT IN (SELECT " + PAIR_OTHER_ID + " FROM " + TABLE_MENU_PAIRS + " WHERE " + PAIR_MENU_ID + " = ?1" +
+                " ORDER BY " + PAIR_ORDERS + " DESC, " + PAIR_OTHER_ID + " LIMIT " + MENU_PAIRS_CAP + ")";
+
+        SQLiteStatement stmt = db.compileStatement(sql);
+        try {
+            for (Integer menuId : menuIds) {
+                executeUpdateDelete(stmt, "createOrdersFromCart", sql, menuId);
+            }
+        } finally {
+            stmt.close();
+        }
+    }
+
+    /**
+     * Trim menu_pairs to the top partners per menu (OrderArchiveJob)
+     */
+    public void pruneMenuPairs() {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        try {
+            execSQL(db, "pruneMenuPairs", buildMenuPairsPruneSql(), new Object[0]);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error pruning menu pairs: " + e.getMessage(), e);
+        }
+    }
+
+    // ==================== PERSONALIZED RANKING ====================
+
+    /**
+     * Affinity vector of a buyer, one range read of the user_affinity primary key
+     */
+    public UserAffinity getUserAffinity(int buyerId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        StringBuilder columns = new StringBuilder(AFF_MENU_ID + ", " + AFF_ORDERS);
+        for (String column : AFF_DAYPART_ORDERS) {
+            columns.append(", ").append(column);
+        }
+
+        try {
+            Cursor cursor = rawQuery(db, "getUserAffinity",
+                    "SELECT " + columns + " FROM " + TABLE_USER_AFFINITY +
+                            " WHERE " + AFF_USER_ID + " = ? ORDER BY " + AFF_MENU_ID,
+                    new String[]{String.valueOf(buyerId)});
+
+            UserAffinity affinity = new UserAffinity(cursor.getCount());
+            int[] perDaypart = new int[MenuRanker.DAYPARTS];
+            while (cursor.moveToNext()) {
+                for (int i = 0; i < perDaypart.length; i++) {
+                    perDaypart[i] = cursor.getInt(2 + i);
+                }
+                affinity.add(cursor.getInt(0), cursor.getInt(1), perDaypart);
+            }
+            cursor.close();
+            return affinity;
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting user affinity: " + e.getMessage(), e);
+            return new UserAffinity(0);
+        }
+    }
+
+    /**
+     * Menus of a stand ranked for this buyer (MenuRanker)
+     */
+    public List<Menu> getMenusByStand(int standId, int buyerId) {
+        return rankForBuyer(getMenusByStand(standId), buyerId);
+    }
+
+    /**
+     * All available menus ranked for this buyer (MenuRanker)
+     */
+    public List<Menu> getAllAvailableMenus(int buyerId) {
+        return rankForBuyer(getAllAvailableMenus(), buyerId);
+    }
+
+    /**
+     * Two reads whatever the list size: the affinity vector and the (cached) favorites
+     */
+    private List<Menu> rankForBuyer(List<Menu> menus, int buyerId) {
+        if (menus.size() < 2) return menus;
+
+        int daypart = MenuRanker.daypartOf(Calendar.getInstance().get(Calendar.HOUR_OF_DAY));
+        return MenuRanker.rank(menus, getUserAffinity(buyerId), getFavoriteMenuIds(buyerId), daypart);
+    }
+
+    // ==================== KITCHEN QUEUE ====================
+
+    /**
+     * Items to cook across all open orders of a stand, one row per menu and status
+     * Reads the trigger-maintained kitchen_queue, cooking first, biggest batch first
+     */
+    public List<KitchenBatch> getKitchenBatches(int standId) {
+        List<KitchenBatch> batches = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try {
+            String query = "SELECT k." + KQ_MENU_ID + ", m." + MENU_NAME + ", k." + KQ_STATUS + ", " +
+                    "k." + KQ_QTY + ", k." + KQ_ORDER_COUNT + " " +
+                    "FROM " + TABLE_KITCHEN_QUEUE + " k " +
+                    "LEFT JOIN " + TABLE_MENU + " m ON m." + MENU_ID + " = k." + KQ_MENU_ID + " " +
+                    "WHERE k." + KQ_STAND_ID + " = ? " +
+                    "ORDER BY k." + KQ_STATUS + " = 'cooking' DESC, k." + KQ_QTY + " DESC";
+
+            Cursor cursor = rawQuery(db, "getKitchenBatches", query, new String[]{String.valueOf(standId)});
+
+            while (cursor.moveToNext()) {
+                KitchenBatch batch = new KitchenBatch();
+                batch.setMenuId(cursor.getInt(0));
+                batch.setMenuName(cursor.isNull(1) ? "Menu #" + cursor.getInt(0) : cursor.getString(1));
+                batch.setStatus(cursor.getString(2));
+                batch.setQty(cursor.getInt(3));
+                batch.setOrderCount(cursor.getInt(4));
+                batches.add(batch);
+            }
+            cursor.close();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting kitchen batches: " + e.getMessage(), e);
+        }
+
+        return batches;
+    }
+
+    /**
+     * Advance every order of the stand in fromStatus that contains menuId
+     * (the whole order moves, including its other items)
+     * @return number of orders updated
+     */
+    public int advanceKitchenBatch(int standId, int menuId, String fromStatus, String toStatus) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        List<Integer> orderIds = new ArrayList<>();
+
+        try {
+            String query = "SELECT DISTINCT o." + ORDER_ID + " FROM " + TABLE_ORDERS + " o " +
+                    "INNER JOIN " + TABLE_ORDER_ITEMS + " i ON i." + ITEM_ORDER_ID + " = o." + ORDER_ID + " " +
+                    "WHERE o." + ORDER_STAND_ID + " = ? AND o." + ORDER_STATUS + " = ? AND i." + ITEM_MENU_ID + " = ?";
+
+            Cursor cursor = rawQuery(db, "advanceKitchenBatch", query,
+                    new String[]{String.valueOf(standId), fromStatus, String.valueOf(menuId)});
+            while (cursor.moveToNext()) {
+                orderIds.add(cursor.getInt(0));
+            }
+            cursor.close();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error finding batch orders: " + e.getMessage(), e);
+            return 0;
+        }
+
+        return orderIds.isEmpty() ? 0 : bulkUpdateOrderStatus(orderIds, fromStatus, toStatus);
+    }
+
+    // ==================== NOTIFICATION SYSTEM ====================
+
+    /**
+     * Create notification
+     */
+    public long createNotification(int userId, String type, String title,
+                                   String message, int orderId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        try {
+            ContentValues values = new ContentValues();
+            values.put(NOTIF_USER_ID, userId);
+            values.put(NOTIF_TYPE, type);
+            values.put(NOTIF_TITLE, title);
+            values.put(NOTIF_MESSAGE, message);
+            values.put(NOTIF_ORDER_ID, orderId);
+            values.put(NOTIF_IS_READ, 0);
+            values.put(NOTIF_CREATED_AT, getCurrentTimestamp());
+
+            return insert(db, "createNotification", TABLE_NOTIFICATIONS, null, values);
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error creating notification: " + e.getMessage(), e);
+            return -1;
+        } finally {
+            BadgeCounters.getInstance().invalidate(userId);
+        }
+    }
+
+    /**
+     * Get unread notifications
+     */
+    public List<Notification> getUnreadNotifications(int userId) {
+        List<Notification> notifications = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try {
+            String query = "SELECT * FROM " + TABLE_NOTIFICATIONS +
+                    " WHERE " + NOTIF_USER_ID + " = ? AND " + NOTIF_IS_READ + " = 0 " +
+                    "ORDER BY " + NOTIF_CREATED_AT + " DESC";
+
+            Cursor cursor = rawQuery(db, "getUnreadNotifications", query, new String[]{String.valueOf(userId)});
+
+            if (cursor.moveToFirst()) {
+                do {
+                    Notification notif = new Notification();
+                    notif.setId(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_ID)));
+                    notif.setUserId(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_USER_ID)));
+                    notif.setType(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_TYPE)));
+                    notif.setTitle(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_TITLE)));
+                    notif.setMessage(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_MESSAGE)));
+                    notif.setOrderId(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_ORDER_ID)));
+                    notif.setRead(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_IS_READ)) == 1);
+                    notif.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_CREATED_AT)));
+                    notifications.add(notif);
+                } while (cursor.moveToNext());
+            }
+            cursor.close();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting notifications: " + e.getMessage(), e);
+        }
+
+        return notifications;
+    }
+
+    /**
+     * Mark notification as read
+     */
+    public int markNotificationRead(int notificationId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        try {
+            ContentValues values = new ContentValues();
+            values.put(NOTIF_IS_READ, 1);
+
+            return update(db, "markNotificationRead", TABLE_NOTIFICATIONS, values, NOTIF_ID + " = ?",
+                    new String[]{String.valueOf(notificationId)});
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error marking notification: " + e.getMessage(), e);
+            return 0;
+        } finally {
+            BadgeCounters.getInstance().invalidateAll();
+        }
+    }
+
+    /**
+     * Get one page of notifications (newest first, keyset pagination)
+     * @param beforeId id of the last notification already shown, or 0 for the first page
+     */
+    public List<Notification> getNotificationsPage(int userId, int beforeId, int limit) {
+        List<Notification> notifications = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try {
+            String query = "SELECT * FROM " + TABLE_NOTIFICATIONS +
+                    " WHERE " + NOTIF_USER_ID + " = ? AND " + NOTIF_ID + " < ? " +
+                    "ORDER BY " + NOTIF_ID + " DESC LIMIT ?";
+
+            int cursorId = beforeId > 0 ? beforeId : Integer.MAX_VALUE;
+            Cursor cursor = rawQuery(db, "getNotificationsPage", query, new String[]{
+                    String.valueOf(userId), String.valueOf(cursorId), String.valueOf(limit)});
+
+            if (cursor.moveToFirst()) {
+                do {
+                    Notification notif = new Notification();
+                    notif.setId(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_ID)));
+                    notif.setUserId(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_USER_ID)));
+                    notif.setType(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_TYPE)));
+                    notif.setTitle(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_TITLE)));
+                    notif.setMessage(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_MESSAGE)));
+                    notif.setOrderId(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_ORDER_ID)));
+                    notif.setRead(cursor.getInt(cursor.getColumnIndexOrThrow(NOTIF_IS_READ)) == 1);
+                    notif.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow(NOTIF_CREATED_AT)));
+                    notifications.add(notif);
+                } while (cursor.moveToNext());
+            }
+            cursor.close();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting notifications page: " + e.getMessage(), e);
+        }
+
+        return notifications;
+    }
+
+    /**
+     * Mark all notifications of a user as read (single UPDATE)
+     */
+    public int markAllNotificationsRead(int userId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        try {
+            ContentValues values = new ContentValues();
+            values.put(NOTIF_IS_READ, 1);
+
+            int rows = update(db, "markAllNotificationsRead", TABLE_NOTIFICATIONS, values,
+                    NOTIF_USER_ID + " = ? AND " + NOTIF_IS_READ + " = 0",
+                    new String[]{String.valueOf(userId)});
+
+            BadgeCounters.getInstance().setUnread(userId, 0);
+            return rows;
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error marking all notifications: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Delete read notifications older than maxAgeDays, batchSize rows per transaction
+     * Small batches keep the write lock short so foreground screens are not blocked
+     * @return total rows deleted
+     */
+    public int deleteOldReadNotifications(int maxAgeDays, int batchSize) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        int total = 0;
+
+        try {
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+            String cutoff = sdf.format(new Date(System.currentTimeMillis() - maxAgeDays * 24L * 60 * 60 * 1000));
+
+            String sql = "DELETE FROM " + TABLE_NOTIFICATIONS + " WHERE " + NOTIF_ID + " IN (" +
+                    "SELECT " + NOTIF_ID + " FROM " + TABLE_NOTIFICATIONS +
+                    " WHERE " + NOTIF_IS_READ + " = 1 AND " + NOTIF_CREATED_AT + " < ? LIMIT ?)";
+
+            SQLiteStatement stmt = db.compileStatement(sql);
+            try {
+                int deleted;
+                do {
+                    stmt.bindString(1, cutoff);
+                    stmt.bindLong(2, batchSize);
+                    long start = System.nanoTime();
+                    deleted = stmt.executeUpdateDelete(); // auto-commit = one batch per transaction
+                    QueryStats.getInstance().record("deleteOldReadNotifications", sql,
+                            new Object[]{cutoff, batchSize}, start, deleted);
+                    total += deleted;
+                } while (deleted >= batchSize);
+            } finally {
+                stmt.close();
+            }
+
+            if (total > 0) {
+                Log.d(TAG, "✅ Retention: deleted " + total + " old notifications");
+            }
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error deleting old notifications: " + e.getMessage(), e);
+        }
+
+        return total;
+    }
+
+    /**
+     * Get unread notification count (badge)
+     * Served from BadgeCounters, falls back to one primary-key read of user_counters
+     */
+    public int getUnreadNotificationCount(int userId) {
+        return getBadgeCounts(userId)[1];
+    }
+
+    // ==================== FAVORITES & REVIEWS (SAME AS BEFORE) ====================
+
+    public long addToFavorites(int buyerId, int menuId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        try {
+            ContentValues values = new ContentValues();
+            values.put(FAV_BUYER_ID, buyerId);
+            values.put(FAV_MENU_ID, menuId);
+            values.put(FAV_CREATED_AT, getCurrentTimestamp());
+            long id = insert(db, "addToFavorites", TABLE_FAVORITES, null, values);
+            if (id > 0) {
+                FavoriteCache.getInstance().add(buyerId, menuId);
+            }
+            return id;
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error adding favorite: " + e.getMessage(), e);
+            return -1;
+        }
+    }
+
+    public int removeFromFavorites(int buyerId, int menuId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        try {
+            int rows = delete(db, "removeFromFavorites", TABLE_FAVORITES,
+                    FAV_BUYER_ID + " = ? AND " + FAV_MENU_ID + " = ?",
+                    new String[]{String.valueOf(buyerId), String.valueOf(menuId)});
+            if (rows > 0) {
+                FavoriteCache.getInstance().remove(buyerId, menuId);
+            }
+            return rows;
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error removing favorite: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    public boolean isFavorite(int buyerId, int menuId) {
+        return getFavoriteMenuIds(buyerId).get(menuId);
+    }
+
+    /**
+     * Get favorite menu ids of a buyer as a primitive int set
+     * One query per session, then served from FavoriteCache
+     */
+    public SparseBooleanArray getFavoriteMenuIds(int buyerId) {
+        SparseBooleanArray cached = FavoriteCache.getInstance().get(buyerId);
+        if (cached != null) {
+            return cached;
+        }
+
+        SparseBooleanArray menuIds = new SparseBooleanArray();
+        SQLiteDatabase db = this.getReadableDatabase();
+        try {
+            Cursor cursor = rawQuery(db, "getFavoriteMenuIds",
+                    "SELECT " + FAV_MENU_ID + " FROM " + TABLE_FAVORITES +
+                            " WHERE " + FAV_BUYER_ID + " = ?",
+                    new String[]{String.valueOf(buyerId)});
+            while (cursor.moveToNext()) {
+                menuIds.put(cursor.getInt(0), true);
+            }
+            cursor.close();
+            FavoriteCache.getInstance().put(buyerId, menuIds);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting favorite ids: " + e.getMessage(), e);
+        }
+        return menuIds;
+    }
+
+    /**
+     * Insert a review and bump the menu's star histogram in the same transaction
+     * Only for a menu of the buyer's own completed order, once (see canReview).
+     */
+    public long addReview(int buyerId, int menuId, int orderId, int rating, String comment) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        long id = -1;
+
+        try {
+            beginTransaction(db, "addReview");
+
+            if (!canReview(db, "addReview", buyerId, menuId, orderId)) {
+                Log.w(TAG, "⚠️ Review refused: menu " + menuId + " of order " + orderId + " not reviewable by " + buyerId);
+                return -1;
+            }
+
+            ContentValues values = new ContentValues();
+            values.put(REVIEW_BUYER_ID, buyerId);
+            values.put(REVIEW_MENU_ID, menuId);
+            values.put(REVIEW_ORDER_ID, orderId);
+            values.put(REVIEW_RATING, rating);
+            values.put(REVIEW_COMMENT, comment);
+            values.put(REVIEW_CREATED_AT, getCurrentTimestamp());
+            id = insert(db, "addReview", TABLE_REVIEWS, null, values);
+
+            if (id > 0) {
+                // rating is 1-5 here, the reviews CHECK constraint rejected anything else
+                String column = RATING_STARS_PREFIX + rating;
+                execSQL(db, "addReview", "INSERT OR IGNORE INTO " + TABLE_MENU_RATINGS
+                        + "(" + RATING_MENU_ID + ") VALUES (?)", new Object[]{menuId});
+                execSQL(db, "addReview", "UPDATE " + TABLE_MENU_RATINGS + " SET " + column + " = " + column
+                        + " + 1 WHERE " + RATING_MENU_ID + " = ?", new Object[]{menuId});
+            }
+
+            db.setTransactionSuccessful();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error adding review: " + e.getMessage(), e);
+            id = -1;
+        } finally {
+            endTransaction(db);
+        }
+
+        return id;
+    }
+
+    /**
+     * Whether the buyer may review this menu of this order: the order is theirs,
+     * completed, contains the menu, and has no review for it yet
+     */
+    public boolean canReview(int buyerId, int menuId, int orderId) {
+        try {
+            return canReview(this.getReadableDatabase(), "canReview", buyerId, menuId, orderId);
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error checking review eligibility: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * orders by primary key, order_items through idx_order_items_order_menu,
+     * reviews through idx_reviews_unique
+     */
+    private boolean canReview(SQLiteDatabase db, String method, int buyerId, int menuId, int orderId) {
+        Cursor cursor = rawQuery(db, method,
+                "SELECT 1 FROM " + TABLE_ORDERS + " o " +
+                        "WHERE o." + ORDER_ID + " = ? AND o." + ORDER_BUYER_ID + " = ? AND o." + ORDER_STATUS + " = 'completed' " +
+                        "AND EXISTS (SELECT 1 FROM " + TABLE_ORDER_ITEMS + " i WHERE i." + ITEM_ORDER_ID + " = o." + ORDER_ID +
+                        " AND i." + ITEM_MENU_ID + " = ?) " +
+                        "AND NOT EXISTS (" + reviewOf("o." + ORDER_BUYER_ID, "?", "o." + ORDER_ID) + ")",
+                new String[]{String.valueOf(orderId), String.valueOf(buyerId), String.valueOf(menuId), String.valueOf(menuId)});
+        boolean eligible = cursor.moveToFirst();
+        cursor.close();
+        return eligible;
+    }
+
+    private String reviewOf(String buyerId, String menuId, String orderId) {
+        return "SELECT 1 FROM " + TABLE_REVIEWS + " r WHERE r." + REVIEW_BUYER_ID + " = " + buyerId +
+                " AND r." + REVIEW_MENU_ID + " = " + menuId + " AND r." + REVIEW_ORDER_ID + " = " + orderId;
+    }
+
+    /**
+     * Menus the buyer received but has not reviewed yet, latest completed order first
+     * One query: completed orders (idx_orders_buyer_status) x their lines, minus reviewed ones.
+     * Only hot orders count; reviewed orders are never archived, unreviewed old ones age out.
+     */
+    public List<OrderItem> getPendingReviews(int buyerId, int limit) {
+        List<OrderItem> items = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try {
+            String query = "SELECT i." + ITEM_ORDER_ID + ", i." + ITEM_MENU_ID + ", SUM(i." + ITEM_QTY + ") AS qty, " +
+                    "m." + MENU_NAME + " AS menu_name " +
+                    "FROM " + TABLE_ORDERS + " o " +
+                    "INNER JOIN " + TABLE_ORDER_ITEMS + " i ON i." + ITEM_ORDER_ID + " = o." + ORDER_ID + " " +
+                    "INNER JOIN " + TABLE_MENU + " m ON m." + MENU_ID + " = i." + ITEM_MENU_ID + " " +
+                    "WHERE o." + ORDER_BUYER_ID + " = ? AND o." + ORDER_STATUS + " = 'completed' " +
+                    "AND NOT EXISTS (" + reviewOf("o." + ORDER_BUYER_ID, "i." + ITEM_MENU_ID, "o." + ORDER_ID) + ") " +
+                    "GROUP BY i." + ITEM_ORDER_ID + ", i." + ITEM_MENU_ID + " " +
+                    "ORDER BY MAX(o." + ORDER_UPDATED_AT + ") DESC, i." + ITEM_ORDER_ID + " DESC LIMIT ?";
+
+            Cursor cursor = rawQuery(db, "getPendingReviews", query,
+                    new String[]{String.valueOf(buyerId), String.valueOf(limit)});
+
+            while (cursor.moveToNext()) {
+                OrderItem item = new OrderItem();
+                item.setOrderId(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_ORDER_ID)));
+                item.setMenuId(cursor.getInt(cursor.getColumnIndexOrThrow(ITEM_MENU_ID)));
+                item.setQty(cursor.getInt(cursor.getColumnIndexOrThrow("qty")));
+                item.setMenuName(cursor.getString(cursor.getColumnIndexOrThrow("menu_name")));
+                items.add(item);
+            }
+            cursor.close();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting pending reviews: " + e.getMessage(), e);
+        }
+
+        return items;
+    }
+
+    /**
+     * Star histogram of a menu, one primary key read of menu_ratings
+     */
+    public RatingHistogram getRatingHistogram(int menuId) {
+        RatingHistogram histogram = new RatingHistogram();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try {
+            Cursor cursor = rawQuery(db, "getRatingHistogram",
+                    "SELECT * FROM " + TABLE_MENU_RATINGS + " WHERE " + RATING_MENU_ID + " = ?",
+                    new String[]{String.valueOf(menuId)});
+
+            if (cursor.moveToFirst()) {
+                for (int star = 1; star <= RatingHistogram.STARS; star++) {
+                    histogram.setCount(star, cursor.getInt(cursor.getColumnIndexOrThrow(RATING_STARS_PREFIX + star)));
+                }
+            }
+            cursor.close();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting rating histogram: " + e.getMessage(), e);
+        }
+
+        return histogram;
+    }
+
+    // ==================== BLOB REFERENCES ====================
+
+    /**
+     * Record a freshly written (or re-used) blob; restarts its GC grace period
+     */
+    public void registerBlob(String hash, long size) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        try {
+            beginTransaction(db, "registerBlob");
+            execSQL(db, "registerBlob", "INSERT OR IGNORE INTO " + TABLE_BLOBS + "(" + BLOB_HASH + ") VALUES (?)",
+                    new Object[]{hash});
+            execSQL(db, "registerBlob", "UPDATE " + TABLE_BLOBS + " SET " + BLOB_SIZE + " = ?, " + BLOB_CREATED_AT + " = ?"
+                    + " WHERE " + BLOB_HASH + " = ?", new Object[]{size, System.currentTimeMillis(), hash});
+            db.setTransactionSuccessful();
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error registering blob: " + e.getMessage(), e);
+        } finally {
+            endTransaction(db);
+        }
+    }
+
+    /**
+     * Blobs no row references anymore, registered before the cutoff (millis)
+     */
+    public List<String> getOrphanBlobs(long createdBefore) {
+        List<String> hashes = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = null;
+
+        try {
+            cursor = rawQuery(db, "getOrphanBlobs", "SELECT " + BLOB_HASH + " FROM " + TABLE_BLOBS
+                    + " WHERE " + BLOB_REF_COUNT + " <= 0 AND " + BLOB_CREATED_AT + " < ?",
+                    new String[]{String.valueOf(createdBefore)});
+
+            while (cursor.moveToNext()) {
+                hashes.add(cursor.getString(0));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting orphan blobs: " + e.getMessage(), e);
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+
+        return hashes;
+    }
+
+    /**
+     * Forget an orphan blob, only if it is still unreferenced and was not
+     * re-registered since the cutoff
+     * @return true if the row was deleted, i.e. the caller may unlink the file
+     */
+    public boolean deleteBlob(String hash, long createdBefore) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        try {
+            return delete(db, "deleteBlob", TABLE_BLOBS, BLOB_HASH + " = ? AND " + BLOB_REF_COUNT + " <= 0 AND "
+                    + BLOB_CREATED_AT + " < ?", new String[]{hash, String.valueOf(createdBefore)}) > 0;
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error deleting blob: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    // ==================== DATABASE MAINTENANCE ====================
+    // Called by DatabaseMaintenance only, while the app is idle or in the background.
+    // Not routed through QueryStats, so maintenance does not count as app activity.
+
+    /**
+     * {page_count, freelist_count, page_size}
+     */
+    public long[] getPageStats() {
+        SQLiteDatabase db = this.getWritableDatabase();
+        return new long[]{
+                DatabaseUtils.longForQuery(db, "PRAGMA page_count", null),
+                DatabaseUtils.longForQuery(db, "PRAGMA freelist_count", null),
+                DatabaseUtils.longForQuery(db, "PRAGMA page_size", null)
+        };
+    }
+
+    /**
+     * Refresh planner statistics
+     * ANALYZE when sqlite_stat1 does not exist yet (or PRAGMA optimize is
+     * unsupported, SQLite < 3.18 on API 24/25), PRAGMA optimize afterwards
+     * @return true if a full ANALYZE ran
+     */
+    public boolean optimize() {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        long hasStats = DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM sqlite_master WHERE name = 'sqlite_stat1'", null);
+        String version = DatabaseUtils.stringForQuery(db, "SELECT sqlite_version()", null);
+
+        if (hasStats == 0 || compareVersion(version, "3.18.0") < 0) {
+            db.execSQL("ANALYZE");
+            return true;
+        }
+        drainPragma(db, "PRAGMA optimize");
+        return false;
+    }
+
+    /**
+     * Whether the file already uses auto_vacuum = INCREMENTAL
+     */
+    public boolean hasIncrementalVacuum() {
+        return DatabaseUtils.longForQuery(this.getReadableDatabase(), "PRAGMA auto_vacuum", null) == 2;
+    }
+
+    /**
+     * Switch the file to auto_vacuum = INCREMENTAL (one full VACUUM, only needed once)
+     * @return true if the file was rebuilt
+     */
+    public boolean ensureIncrementalVacuum() {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        if (hasIncrementalVacuum()) {
+            return false;
+        }
+        db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+        db.execSQL("VACUUM");
+        return true;
+    }
+
+    /**
+     * Return up to maxPages free pages to the file system
+     */
+    public void incrementalVacuum(int maxPages) {
+        drainPragma(this.getWritableDatabase(), "PRAGMA incremental_vacuum(" + maxPages + ")");
+    }
+
+    /**
+     * WAL checkpoint; PASSIVE never waits for readers or writers
+     * @param mode "PASSIVE" or "TRUNCATE"
+     * @return {busy, wal frames, checkpointed frames}
+     */
+    public long[] checkpointWal(String mode) {
+        Cursor cursor = this.getWritableDatabase().rawQuery("PRAGMA wal_checkpoint(" + mode + ")", null);
+        try {
+            if (cursor.moveToFirst()) {
+                return new long[]{cursor.getLong(0), cursor.getLong(1), cursor.getLong(2)};
+            }
+            return new long[]{0, -1, -1};
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Helper: step a PRAGMA to completion (execSQL rejects statements that return rows)
+     */
+    private void drainPragma(SQLiteDatabase db, String sql) {
+        Cursor cursor = db.rawQuery(sql, null);
+        try {
+            cursor.getCount();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static int compareVersion(String a, String b) {
+        String[] pa = a.split("\\.");
+        String[] pb = b.split("\\.");
+        for (int i = 0; i < Math.max(pa.length, pb.length); i++) {
+            int va = i < pa.length ? Integer.parseInt(pa[i]) : 0;
+            int vb = i < pb.length ? Integer.parseInt(pb[i]) : 0;
+            if (va != vb) return va < vb ? -1 : 1;
+        }
+        return 0;
+    }
+
+    // ==================== QUERY INSTRUMENTATION ====================
+    // Every statement in the public API goes through these, see QueryStats
+
+    private Cursor rawQuery(SQLiteDatabase db, String method, String sql, String[] args) {
+        long start = System.nanoTime();
+        try {
+            Cursor cursor = db.rawQuery(sql, args);
+            int rows = cursor.getCount(); // runs the query now, inside the timing
+            QueryStats.getInstance().record(method, sql, args, start, rows);
+            return cursor;
+        } catch (SQLiteException e) {
+            QueryStats.getInstance().recordError(method, e);
+            throw e;
+        }
+    }
+
+    /**
+     * BEGIN is where WAL writers collide (SQLITE_BUSY), count it like a failed statement
+     */
+    private void beginTransaction(SQLiteDatabase db, String method) {
+        try {
+            db.beginTransaction();
+        } catch (SQLiteException e) {
+            QueryStats.getInstance().recordError(method, e);
+            throw e;
+        }
+    }
+
+    /**
+     * For finally blocks: a BEGIN that failed left no transaction to end
+     */
+    private static void endTransaction(SQLiteDatabase db) {
+        if (db.inTransaction()) {
+            db.endTransaction();
+        }
+    }
+
+    private long insert(SQLiteDatabase db, String method, String table, String nullColumnHack, ContentValues values) {
+        long start = System.nanoTime();
+        try {
+            long id = db.insertOrThrow(table, nullColumnHack, values);
+            QueryStats.getInstance().record(method, "INSERT INTO " + table + " " + values.keySet(),
+                    valueArgs(values), start, 1);
+            return id;
+        } catch (SQLiteException e) {
+            // insert() semantics: log and return -1
+            QueryStats.getInstance().recordError(method, e);
+            Log.e(TAG, "❌ Error inserting into " + table + ": " + e.getMessage(), e);
+            return -1;
+        }
+    }
+
+    private int update(SQLiteDatabase db, String method, String table, ContentValues values,
+                       String whereClause, String[] whereArgs) {
+        long start = System.nanoTime();
+        try {
+            int rows = db.update(table, values, whereClause, whereArgs);
+            QueryStats.getInstance().record(method, "UPDATE " + table + " SET " + values.keySet() + " WHERE " + whereClause,
+                    whereArgs, start, rows);
+            return rows;
+        } catch (SQLiteException e) {
+            QueryStats.getInstance().recordError(method, e);
+            throw e;
+        }
+    }
+
+    private int delete(SQLiteDatabase db, String method, String table, String whereClause, String[] whereArgs) {
+        long start = System.nanoTime();
+        try {
+            int rows = db.delete(table, whereClause, whereArgs);
+            QueryStats.getInstance().record(method, "DELETE FROM " + table + " WHERE " + whereClause,
+                    whereArgs, start, rows);
+            return rows;
+        } catch (SQLiteException e) {
+            QueryStats.getInstance().recordError(method, e);
+            throw e;
+        }
+    }
+
+    private void execSQL(SQLiteDatabase db, String method, String sql, Object[] args) {
+        long start = System.nanoTime();
+        try {
+            db.execSQL(sql, args);
+            QueryStats.getInstance().record(method, sql, args, start, 0);
+        } catch (SQLiteException e) {
+            QueryStats.getInstance().recordError(method, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Compiled statements: bind, run, record one call per execution with its real binds
+     */
+    private long executeInsert(SQLiteStatement stmt, String method, String sql, Object... args) {
+        long start = System.nanoTime();
+        try {
+            bindArgs(stmt, args);
+            long id = stmt.executeInsert();
+            QueryStats.getInstance().record(method, sql, args, start, id != -1 ? 1 : 0);
+            return id;
+        } catch (SQLiteException e) {
+            QueryStats.getInstance().recordError(method, e);
+            throw e;
+        }
+    }
+
+    private int executeUpdateDelete(SQLiteStatement stmt, String method, String sql, Object... args) {
+        long start = System.nanoTime();
+        try {
+            bindArgs(stmt, args);
+            int rows = stmt.executeUpdateDelete();
+            QueryStats.getInstance().record(method, sql, args, start, rows);
+            return rows;
+        } catch (SQLiteException e) {
+            QueryStats.getInstance().recordError(method, e);
+            throw e;
+        }
+    }
+
+    private static void bindArgs(SQLiteStatement stmt, Object[] args) {
+        stmt.clearBindings();
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg == null) {
+                stmt.bindNull(i + 1);
+            } else if (arg instanceof Integer || arg instanceof Long) {
+                stmt.bindLong(i + 1, ((Number) arg).longValue());
+            } else if (arg instanceof Float || arg instanceof Double) {
+                stmt.bindDouble(i + 1, ((Number) arg).doubleValue());
+            } else if (arg instanceof byte[]) {
+                stmt.bindBlob(i + 1, (byte[]) arg);
+            } else {
+                stmt.bindString(i + 1, arg.toString());
+            }
+        }
+    }
+
+    private static Object[] valueArgs(ContentValues values) {
+        Object[] args = new Object[values.size()];
+        int i = 0;
+        for (String key : values.keySet()) {
+            args[i++] = values.get(key);
+        }
+        return args;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    public Stand getStandById(int standId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try {
+            Cursor cursor = rawQuery(db, "getStandById", "SELECT * FROM " + TABLE_STAND + " WHERE " + STAND_ID + " = ?",
+                    new String[]{String.valueOf(standId)});
+
+            Stand stand = null;
+            if (cursor.moveToFirst()) {
+                stand = new Stand();
+                stand.setId(cursor.getInt(cursor.getColumnIndexOrThrow(STAND_ID)));
+                stand.setOwnerId(cursor.getInt(cursor.getColumnIndexOrThrow(STAND_SELLER_ID)));
+                stand.setNama(cursor.getString(cursor.getColumnIndexOrThrow(STAND_NAME)));
+                stand.setDeskripsi(cursor.getString(cursor.getColumnIndexOrThrow(STAND_DESCRIPTION)));
+                stand.setImage(cursor.getString(cursor.getColumnIndexOrThrow(STAND_IMAGE)));
+                stand.setSlotCapacity(cursor.getInt(cursor.getColumnIndexOrThrow(STAND_SLOT_CAPACITY)));
+                stand.setMaxOpenItems(cursor.getInt(cursor.getColumnIndexOrThrow(STAND_MAX_OPEN_ITEMS)));
+            }
+            cursor.close();
+            return stand;
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting stand by ID: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    // ==================== SALES EXPORT ====================
+
+    /**
+     * Seller sales history, one chunk of at most `limit` order items, oldest first
+     * Dates are "yyyy-MM-dd" (inclusive), null = open range
+     * Keyset paging: pass the created_at, order_id and item_id of the last row
+     * written (null, 0, 0 for the first chunk), so every chunk is an index seek
+     * plus `limit` rows instead of a sort of the whole history
+     */
+    public Cursor getSalesExportChunk(int sellerId, String fromDate, String toDate,
+                                      String afterCreatedAt, int afterOrderId, int afterItemId, int limit) {
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        // Each tier takes its own first `limit` rows past the key, then the two are merged
+        String order = " ORDER BY created_at, order_id, item_id LIMIT " + limit;
+        String query = "SELECT * FROM (" + buildSalesExportSelect(TABLE_ORDERS, TABLE_ORDER_ITEMS) +
+                SALES_EXPORT_AFTER + order + ") UNION ALL SELECT * FROM (" +
+                buildSalesExportSelect(TABLE_ORDERS_ARCHIVE, TABLE_ORDER_ITEMS_ARCHIVE) +
+                SALES_EXPORT_AFTER + order + ")" + order;
+
+        String[] tier = salesExportArgs(sellerId, fromDate, toDate);
+        String created = afterCreatedAt != null ? afterCreatedAt : "";
+        String orderId = String.valueOf(afterOrderId);
+        String itemId = String.valueOf(afterItemId);
+        String[] args = new String[16];
+        for (int t = 0; t < 2; t++) {
+            int i = t * 8;
+            args[i] = tier[0];
+            args[i + 1] = tier[1];
+            args[i + 2] = tier[2];
+            args[i + 3] = created;
+            args[i + 4] = created;
+            args[i + 5] = orderId;
+            args[i + 6] = orderId;
+            args[i + 7] = itemId;
+        }
+        return rawQuery(db, "getSalesExportChunk", query, args);
+    }
+
+    /**
+     * Number of rows the export will write, for progress
+     */
+    public int getSalesExportCount(int sellerId, String fromDate, String toDate) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try {
+            String query = "SELECT (SELECT COUNT(*) FROM (" +
+                    buildSalesExportSelect(TABLE_ORDERS, TABLE_ORDER_ITEMS) + ")) + (SELECT COUNT(*) FROM (" +
+                    buildSalesExportSelect(TABLE_ORDERS_ARCHIVE, TABLE_ORDER_ITEMS_ARCHIVE) + "))";
+            String[] tier = salesExportArgs(sellerId, fromDate, toDate);
+            Cursor cursor = rawQuery(db, "getSalesExportCount", query,
+                    new String[]{tier[0], tier[1], tier[2], tier[0], tier[1], tier[2]});
+            int count = 0;
+            if (cursor.moveToFirst()) {
+                count = cursor.getInt(0);
+            }
+            cursor.close();
+            return count;
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error counting sales export: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    // Keyset condition, row values spelled out (SQLite on API 24 has no (a, b) > (x, y))
+    // Binds: created_at, created_at, order id, order id, item id
+    private static final String SALES_EXPORT_AFTER = " AND (o." + ORDER_CREATED_AT + " > ? OR (o." +
+            ORDER_CREATED_AT + " = ? AND (o." + ORDER_ID + " > ? OR (o." + ORDER_ID + " = ? AND i." +
+            ITEM_ID + " > ?))))";
+
+    /**
+     * Helper: seller id, from, to binds of one tier
+     */
+    private static String[] salesExportArgs(int sellerId, String fromDate, String toDate) {
+        String from = fromDate != null ? fromDate + " 00:00:00" : "0000-00-00 00:00:00";
+        String to = toDate != null ? toDate + " 23:59:59" : "9999-12-31 23:59:59";
+        return new String[]{String.valueOf(sellerId), from, to};
+    }
+
+    /**
+     * Helper: export rows of one storage tier
+     * Binds: seller id, from, to
+     */
+    private String buildSalesExportSelect(String ordersTable, String itemsTable) {
+        return "SELECT o." + ORDER_ID + " AS order_id, o." + ORDER_CREATED_AT + " AS created_at, " +
+                "o." + ORDER_STATUS + " AS status, o." + ORDER_PAYMENT_METHOD + " AS payment_method, " +
+                "o." + ORDER_PAYMENT_STATUS + " AS payment_status, u." + USER_NAME + " AS buyer_name, " +
+                "i." + ITEM_MENU_ID + " AS menu_id, m." + MENU_NAME + " AS menu_name, " +
+                "i." + ITEM_QTY + " AS qty, i." + ITEM_PRICE + " AS price, i." + ITEM_SUBTOTAL + " AS subtotal, " +
+                "o." + ORDER_TOTAL + " AS order_total, i." + ITEM_ID + " AS item_id " +
+                "FROM " + TABLE_STAND + " s " +
+                "INNER JOIN " + ordersTable + " o ON o." + ORDER_STAND_ID + " = s." + STAND_ID + " " +
+                "INNER JOIN " + itemsTable + " i ON i." + ITEM_ORDER_ID + " = o." + ORDER_ID + " " +
+                "LEFT JOIN " + TABLE_MENU + " m ON m." + MENU_ID + " = i." + ITEM_MENU_ID + " " +
+                "LEFT JOIN " + TABLE_USERS + " u ON u." + USER_ID + " = o." + ORDER_BUYER_ID + " " +
+                "WHERE s." + STAND_SELLER_ID + " = ? " +
+                "AND o." + ORDER_CREATED_AT + " >= ? AND o." + ORDER_CREATED_AT + " <= ?";
+    }
+
+    // ==================== STATISTICS (FOR DASHBOARD) ====================
+
+    /**
+     * Helper: aggregate over a seller's hot + archived orders, one indexed lookup per tier
+     * Binds: seller id + condition args, twice (hot, archive)
+     */
+    private String buildSellerAggregate(String aggregate, String condition) {
+        String where = STANDS_OF_SELLER + condition;
+        return "SELECT (SELECT " + aggregate + " FROM " + TABLE_ORDERS + " o WHERE " + where + ") + " +
+                "(SELECT " + aggregate + " FROM " + TABLE_ORDERS_ARCHIVE + " o WHERE " + where + ")";
+    }
+
+    public int getTotalOrdersByStatus(int sellerId, String status) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        try {
+            String query = buildSellerAggregate("COUNT(*)", " AND o." + ORDER_STATUS + " = ?");
+            Cursor cursor = rawQuery(db, "getTotalOrdersByStatus", query,
+                    new String[]{String.valueOf(sellerId), status, String.valueOf(sellerId), status});
+            int count = 0;
+            if (cursor.moveToFirst()) {
+                count = cursor.getInt(0);
+            }
+            cursor.close();
+            return count;
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting order count: " + e.getMessage(), e);
             return 0;
         }
     }
@@ -1620,10 +4029,10 @@ public class DBHelper extends SQLiteOpenHelper {
     public int getTotalRevenue(int sellerId) {
         SQLiteDatabase db = this.getReadableDatabase();
         try {
-            String query = "SELECT SUM(o." + ORDER_TOTAL + ") FROM " + TABLE_ORDERS + " o " +
-                    "INNER JOIN " + TABLE_STAND + " s ON o." + ORDER_STAND_ID + " = s." + STAND_ID + " " +
-                    "WHERE s." + STAND_SELLER_ID + " = ? AND o." + ORDER_STATUS + " = 'completed'";
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(sellerId)});
+            String query = buildSellerAggregate("COALESCE(SUM(o." + ORDER_TOTAL + "), 0)",
+                    " AND o." + ORDER_STATUS + " = 'completed'");
+            Cursor cursor = rawQuery(db, "getTotalRevenue", query,
+                    new String[]{String.valueOf(sellerId), String.valueOf(sellerId)});
             int total = 0;
             if (cursor.moveToFirst()) {
                 total = cursor.getInt(0);
@@ -1651,7 +4060,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "AND o." + ORDER_STATUS + " = 'completed' " +
                     "AND DATE(o." + ORDER_CREATED_AT + ") = ?";
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(sellerId), today});
+            Cursor cursor = rawQuery(db, "getTodayRevenue", query, new String[]{String.valueOf(sellerId), today});
 
             if (cursor.moveToFirst()) {
                 revenue = cursor.getInt(0);
@@ -1675,18 +4084,14 @@ public class DBHelper extends SQLiteOpenHelper {
             String[] args;
 
             if (status.equals("all")) {
-                query = "SELECT COUNT(*) FROM " + TABLE_ORDERS + " o " +
-                        "INNER JOIN " + TABLE_STAND + " s ON o." + ORDER_STAND_ID + " = s." + STAND_ID + " " +
-                        "WHERE s." + STAND_SELLER_ID + " = ?";
-                args = new String[]{String.valueOf(sellerId)};
+                query = buildSellerAggregate("COUNT(*)", "");
+                args = new String[]{String.valueOf(sellerId), String.valueOf(sellerId)};
             } else {
-                query = "SELECT COUNT(*) FROM " + TABLE_ORDERS + " o " +
-                        "INNER JOIN " + TABLE_STAND + " s ON o." + ORDER_STAND_ID + " = s." + STAND_ID + " " +
-                        "WHERE s." + STAND_SELLER_ID + " = ? AND o." + ORDER_STATUS + " = ?";
-                args = new String[]{String.valueOf(sellerId), status};
+                query = buildSellerAggregate("COUNT(*)", " AND o." + ORDER_STATUS + " = ?");
+                args = new String[]{String.valueOf(sellerId), status, String.valueOf(sellerId), status};
             }
 
-            Cursor cursor = db.rawQuery(query, args);
+            Cursor cursor = rawQuery(db, "getTotalOrdersBySeller", query, args);
 
             if (cursor.moveToFirst()) {
                 count = cursor.getInt(0);
@@ -1700,6 +4105,63 @@ public class DBHelper extends SQLiteOpenHelper {
         return count;
     }
 
+    /**
+     * Stage latency from order_events, p50/p95 per stand
+     * Each "to" event since sinceMs is paired with the latest "from" event of the same order
+     * (a rejected payment that is re-uploaded counts from the last upload).
+     * @param stage OrderStageStats.STAGE_*
+     * @param standId 0 = all stands, slowest p95 first
+     */
+    public List<OrderStageStats> getStageDelays(int stage, long sinceMs, int standId) {
+        List<OrderStageStats> result = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try {
+            String[] stageStatuses = OrderStageStats.STAGES[stage];
+            String from = String.valueOf(Arrays.asList(ORDER_EVENT_STATUSES).indexOf(stageStatuses[0]));
+            String to = String.valueOf(Arrays.asList(ORDER_EVENT_STATUSES).indexOf(stageStatuses[1]));
+
+            String query = "SELECT e2." + EVENT_STAND_ID + ", e2." + EVENT_AT + " - MAX(e1." + EVENT_AT + ") AS delay " +
+                    "FROM " + TABLE_ORDER_EVENTS + " e2 " +
+                    "INNER JOIN " + TABLE_ORDER_EVENTS + " e1 ON e1." + EVENT_ORDER_ID + " = e2." + EVENT_ORDER_ID +
+                    " AND e1." + EVENT_STATUS + " = ? AND e1." + EVENT_AT + " <= e2." + EVENT_AT + " " +
+                    "WHERE e2." + EVENT_STATUS + " = ? AND e2." + EVENT_AT + " >= ? " +
+                    (standId > 0 ? "AND e2." + EVENT_STAND_ID + " = ? " : "") +
+                    "GROUP BY e2.rowid " +
+                    "ORDER BY e2." + EVENT_STAND_ID + ", delay";
+            String[] args = standId > 0
+                    ? new String[]{from, to, String.valueOf(sinceMs), String.valueOf(standId)}
+                    : new String[]{from, to, String.valueOf(sinceMs)};
+
+            Cursor cursor = rawQuery(db, "getStageDelays", query, args);
+
+            // Rows arrive sorted by stand, then delay: cut one run per stand
+            long[] delays = new long[Math.max(16, cursor.getCount())];
+            int currentStand = -1;
+            int n = 0;
+            while (cursor.moveToNext()) {
+                int rowStand = cursor.getInt(0);
+                if (rowStand != currentStand && n > 0) {
+                    result.add(new OrderStageStats(currentStand, stage, delays, n));
+                    n = 0;
+                }
+                currentStand = rowStand;
+                delays[n++] = cursor.getLong(1);
+            }
+            if (n > 0) {
+                result.add(new OrderStageStats(currentStand, stage, delays, n));
+            }
+            cursor.close();
+
+            Collections.sort(result, (a, b) -> Long.compare(b.getP95Ms(), a.getP95Ms()));
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting stage delays: " + e.getMessage(), e);
+        }
+
+        return result;
+    }
+
 
     public List<Menu> getFavoriteMenus(int buyerId) {
         List<Menu> menus = new ArrayList<>();
@@ -1716,7 +4178,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "GROUP BY m." + MENU_ID + " " +
                     "ORDER BY f." + FAV_CREATED_AT + " DESC";
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(buyerId)});
+            Cursor cursor = rawQuery(db, "getFavoriteMenus", query, new String[]{String.valueOf(buyerId)});
 
             if (cursor.moveToFirst()) {
                 do {
@@ -1729,6 +4191,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     menu.setDeskripsi(cursor.getString(cursor.getColumnIndexOrThrow(MENU_DESCRIPTION)));
                     menu.setKategori(cursor.getString(cursor.getColumnIndexOrThrow(MENU_CATEGORY)));
                     menu.setStatus(cursor.getString(cursor.getColumnIndexOrThrow(MENU_STATUS)));
+                    readMenuStock(cursor, menu);
                     menu.setAverageRating(cursor.getFloat(cursor.getColumnIndexOrThrow("avg_rating")));
                     menu.setTotalReviews(cursor.getInt(cursor.getColumnIndexOrThrow("total_reviews")));
                     menus.add(menu);
@@ -1744,6 +4207,51 @@ public class DBHelper extends SQLiteOpenHelper {
     }
 
 
+    /**
+     * One page of a menu's reviews, newest first
+     * Keyset on (created_at, id) through idx_reviews_menu_page: pass the last
+     * review of the previous page, or null for the first page.
+     */
+    public List<Review> getMenuReviewsPage(int menuId, Review after, int limit) {
+        List<Review> reviews = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        try {
+            String query = "SELECT r.*, u." + USER_NAME + " " +
+                    "FROM " + TABLE_REVIEWS + " r " +
+                    "INNER JOIN " + TABLE_USERS + " u ON r." + REVIEW_BUYER_ID + " = u." + USER_ID + " " +
+                    "WHERE r." + REVIEW_MENU_ID + " = ? " +
+                    (after != null ? "AND (r." + REVIEW_CREATED_AT + " < ? OR (r." + REVIEW_CREATED_AT + " = ? " +
+                            "AND r." + REVIEW_ID + " < ?)) " : "") +
+                    "ORDER BY r." + REVIEW_CREATED_AT + " DESC, r." + REVIEW_ID + " DESC LIMIT ?";
+
+            String[] args = after != null
+                    ? new String[]{String.valueOf(menuId), after.getCreatedAt(), after.getCreatedAt(),
+                            String.valueOf(after.getId()), String.valueOf(limit)}
+                    : new String[]{String.valueOf(menuId), String.valueOf(limit)};
+            Cursor cursor = rawQuery(db, "getMenuReviewsPage", query, args);
+
+            while (cursor.moveToNext()) {
+                Review review = new Review();
+                review.setId(cursor.getInt(cursor.getColumnIndexOrThrow(REVIEW_ID)));
+                review.setBuyerId(cursor.getInt(cursor.getColumnIndexOrThrow(REVIEW_BUYER_ID)));
+                review.setMenuId(cursor.getInt(cursor.getColumnIndexOrThrow(REVIEW_MENU_ID)));
+                review.setOrderId(cursor.getInt(cursor.getColumnIndexOrThrow(REVIEW_ORDER_ID)));
+                review.setRating(cursor.getInt(cursor.getColumnIndexOrThrow(REVIEW_RATING)));
+                review.setComment(cursor.getString(cursor.getColumnIndexOrThrow(REVIEW_COMMENT)));
+                review.setCreatedAt(cursor.getString(cursor.getColumnIndexOrThrow(REVIEW_CREATED_AT)));
+                review.setBuyerName(cursor.getString(cursor.getColumnIndexOrThrow(USER_NAME)));
+                reviews.add(review);
+            }
+            cursor.close();
+
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error getting reviews page: " + e.getMessage(), e);
+        }
+
+        return reviews;
+    }
+
     public List<Review> getMenuReviews(int menuId) {
         List<Review> reviews = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
@@ -1755,7 +4263,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "WHERE r." + REVIEW_MENU_ID + " = ? " +
                     "ORDER BY r." + REVIEW_CREATED_AT + " DESC";
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(menuId)});
+            Cursor cursor = rawQuery(db, "getMenuReviews", query, new String[]{String.valueOf(menuId)});
 
             if (cursor.moveToFirst()) {
                 do {
@@ -1797,7 +4305,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "ORDER BY m." + MENU_NAME;
 
             String searchPattern = "%" + query + "%";
-            Cursor cursor = db.rawQuery(sql, new String[]{searchPattern, searchPattern, searchPattern});
+            Cursor cursor = rawQuery(db, "searchMenus", sql, new String[]{searchPattern, searchPattern, searchPattern});
 
             if (cursor.moveToFirst()) {
                 do {
@@ -1810,6 +4318,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     menu.setDeskripsi(cursor.getString(cursor.getColumnIndexOrThrow(MENU_DESCRIPTION)));
                     menu.setKategori(cursor.getString(cursor.getColumnIndexOrThrow(MENU_CATEGORY)));
                     menu.setStatus(cursor.getString(cursor.getColumnIndexOrThrow(MENU_STATUS)));
+                    readMenuStock(cursor, menu);
                     menu.setAverageRating(cursor.getFloat(cursor.getColumnIndexOrThrow("avg_rating")));
                     menu.setTotalReviews(cursor.getInt(cursor.getColumnIndexOrThrow("total_reviews")));
                     menus.add(menu);
@@ -1838,7 +4347,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "WHERE c." + CART_BUYER_ID + " = ? " +
                     "ORDER BY s." + STAND_NAME + ", m." + MENU_NAME;
 
-            Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(buyerId)});
+            Cursor cursor = rawQuery(db, "getCartItemsGroupedByStand", query, new String[]{String.valueOf(buyerId)});
 
             if (cursor.moveToFirst()) {
                 do {
@@ -1856,6 +4365,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     menu.setNama(cursor.getString(cursor.getColumnIndexOrThrow(MENU_NAME)));
                     menu.setHarga(cursor.getInt(cursor.getColumnIndexOrThrow(MENU_PRICE)));
                     menu.setStatus(cursor.getString(cursor.getColumnIndexOrThrow(MENU_STATUS)));
+                    readMenuStock(cursor, menu);
 
                     item.setMenu(menu);
 
@@ -1891,7 +4401,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     "GROUP BY m." + MENU_ID + " " +
                     "ORDER BY m." + MENU_CREATED_AT + " DESC";
 
-            Cursor cursor = db.rawQuery(query, null);
+            Cursor cursor = rawQuery(db, "getAllAvailableMenus", query, null);
 
             if (cursor.moveToFirst()) {
                 do {
@@ -1904,6 +4414,7 @@ public class DBHelper extends SQLiteOpenHelper {
                     menu.setDeskripsi(cursor.getString(cursor.getColumnIndexOrThrow(MENU_DESCRIPTION)));
                     menu.setKategori(cursor.getString(cursor.getColumnIndexOrThrow(MENU_CATEGORY)));
                     menu.setStatus(cursor.getString(cursor.getColumnIndexOrThrow(MENU_STATUS)));
+                    readMenuStock(cursor, menu);
                     menu.setAverageRating(cursor.getFloat(cursor.getColumnIndexOrThrow("avg_rating")));
                     menu.setTotalReviews(cursor.getInt(cursor.getColumnIndexOrThrow("total_reviews")));
                     menus.add(menu);
@@ -0,0 +1,237 @@
+package com.example.kantinkampus;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * DATABASE MAINTENANCE
+ * Keeps the SQLite file healthy without competing with the UI:
+ * - PRAGMA optimize (ANALYZE on first run) so the planner has statistics
+ * - incremental vacuum, in small chunks, to give freed pages back
+ * - WAL checkpoint so the -wal file does not keep growing
+ * Runs on its own thread when the app goes to the background, or after the
+ * app has issued no query for IDLE_MS. Every step re-checks that the app is
+ * still idle and stops otherwise. Timings and page counts go to logcat and
+ * to the query stats screen.
+ */
+public class DatabaseMaintenance {
+    private static final String TAG = "DbMaintenance";
+    private static final String PREF_NAME = "KantinKampusMaintenance";
+    private static final String KEY_LAST_RUN = "dbMaintenanceLastRun";
+    private static final String KEY_LAST_REPORT = "dbMaintenanceLastReport";
+
+    private static final long RUN_INTERVAL_MS = 6L * 60 * 60 * 1000; // every 6 hours at most
+    private static final long IDLE_MS = 10_000; // no app query for this long = idle
+    private static final long BACKGROUND_DELAY_MS = 5_000; // let onStop() writes finish first
+    private static final int VACUUM_CHUNK_PAGES = 128;
+
+    private static DatabaseMaintenance instance;
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private volatile int startedActivities = 0; // written on the main thread only
+    private volatile boolean running = false;
+
+    public static synchronized DatabaseMaintenance getInstance(Context context) {
+        if (instance == null) {
+            instance = new DatabaseMaintenance(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private DatabaseMaintenance(Context context) {
+        this.context = context;
+
+        // Track foreground/background through activity start/stop
+        // Created from KantinKampusApp.onCreate, before any activity starts, so the count is exact
+        ((Application) context).registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityStarted(Activity activity) {
+                startedActivities++;
+            }
+
+            @Override
+            public void onActivityStopped(Activity activity) {
+                startedActivities = Math.max(0, startedActivities - 1);
+                if (startedActivities == 0) {
+                    mainHandler.postDelayed(() -> runIfDue(), BACKGROUND_DELAY_MS);
+                }
+            }
+
+            @Override
+            public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
+
+            @Override
+            public void onActivityResumed(Activity activity) {}
+
+            @Override
+            public void onActivityPaused(Activity activity) {}
+
+            @Override
+            public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
+
+            @Override
+            public void onActivityDestroyed(Activity activity) {}
+        });
+    }
+
+    /**
+     * Also try once the foreground app has been quiet for IDLE_MS
+     */
+    public void scheduleIdleRun() {
+        mainHandler.postDelayed(() -> runIfDue(), IDLE_MS + 1000);
+    }
+
+    /**
+     * Start a maintenance pass if it is due and nothing else is using the database
+     */
+    public void runIfDue() {
+        if (running || !isIdle()) {
+            return;
+        }
+
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        if (System.currentTimeMillis() - prefs.getLong(KEY_LAST_RUN, 0) < RUN_INTERVAL_MS) {
+            return;
+        }
+
+        running = true;
+        executor.execute(() -> {
+            try {
+                Report report = run();
+                if (report.completed) {
+                    prefs.edit().putLong(KEY_LAST_RUN, System.currentTimeMillis()).apply();
+                }
+                prefs.edit().putString(KEY_LAST_REPORT, report.toString()).apply();
+                Log.d(TAG, report.toString());
+            } catch (Exception e) {
+                Log.e(TAG, "Maintenance failed: " + e.getMessage(), e);
+            } finally {
+                running = false;
+            }
+        });
+    }
+
+    /**
+     * Last report as plain text, or null if maintenance never ran
+     */
+    public String getLastReport() {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE).getString(KEY_LAST_REPORT, null);
+    }
+
+    /**
+     * Idle = in the background, or no DBHelper statement for IDLE_MS
+     * Background jobs (archive, retention, blob GC) also count as activity.
+     */
+    private boolean isIdle() {
+        long sinceLastQuery = System.currentTimeMillis() - QueryStats.getInstance().getLastActivityMs();
+        return sinceLastQuery >= (isInBackground() ? BACKGROUND_DELAY_MS : IDLE_MS);
+    }
+
+    private boolean isInBackground() {
+        return startedActivities == 0;
+    }
+
+    // ==================== STEPS ====================
+
+    private Report run() {
+        DBHelper dbHelper = new DBHelper(context);
+        Report report = new Report();
+        report.before = dbHelper.getPageStats();
+
+        // 1. Checkpoint first: the following steps write through the WAL
+        long start = System.nanoTime();
+        long[] checkpoint = dbHelper.checkpointWal("PASSIVE");
+        report.checkpointMs = elapsedMs(start);
+        report.walFrames = checkpoint[1];
+        if (!isIdle()) return report;
+
+        // 2. Planner statistics
+        start = System.nanoTime();
+        report.fullAnalyze = dbHelper.optimize();
+        report.optimizeMs = elapsedMs(start);
+        if (!isIdle()) return report;
+
+        // 3. One-time switch to incremental auto-vacuum: a full VACUUM under an
+        // exclusive lock, so only while no activity is started (never just "quiet").
+        // In the foreground the pass stays incomplete and the next background one does it.
+        if (!dbHelper.hasIncrementalVacuum()) {
+            if (!isInBackground()) return report;
+            start = System.nanoTime();
+            report.rebuilt = dbHelper.ensureIncrementalVacuum();
+            report.vacuumMs = elapsedMs(start);
+        }
+
+        // 4. Free pages, a small chunk at a time
+        long freePages = dbHelper.getPageStats()[1];
+        while (freePages > 0) {
+            if (!isIdle()) return report;
+            start = System.nanoTime();
+            dbHelper.incrementalVacuum(VACUUM_CHUNK_PAGES);
+            report.vacuumMs += elapsedMs(start);
+
+            long remaining = dbHelper.getPageStats()[1];
+            if (remaining >= freePages) break; // nothing more to reclaim
+            freePages = remaining;
+        }
+
+        // 5. Fold the vacuum writes back into the main file; truncate the WAL when nobody is looking
+        start = System.nanoTime();
+        dbHelper.checkpointWal(isInBackground() ? "TRUNCATE" : "PASSIVE");
+        report.checkpointMs += elapsedMs(start);
+
+        report.after = dbHelper.getPageStats();
+        report.completed = true;
+        return report;
+    }
+
+    private static long elapsedMs(long startNs) {
+        return (System.nanoTime() - startNs) / 1_000_000;
+    }
+
+    /**
+     * One maintenance pass: page counts before/after and per-step timings
+     */
+    public static class Report {
+        public final long timestamp = System.currentTimeMillis();
+        public long[] before; // page_count, freelist_count, page_size
+        public long[] after;
+        public long walFrames;
+        public boolean fullAnalyze;
+        public boolean rebuilt;
+        public long checkpointMs, optimizeMs, vacuumMs;
+        public boolean completed;
+
+        @Override
+        public String toString() {
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+            StringBuilder sb = new StringBuilder();
+            sb.append("DB maintenance ").append(sdf.format(new Date(timestamp)))
+                    .append(completed ? "" : " (stopped: app busy)").append('\n');
+            sb.append(String.format(Locale.US, "  before: %d pages, %d free (%d KB)%n",
+                    before[0], before[1], before[0] * before[2] / 1024));
+            if (after != null) {
+                sb.append(String.format(Locale.US, "  after:  %d pages, %d free (%d KB)%n",
+                        after[0], after[1], after[0] * after[2] / 1024));
+            }
+            sb.append(String.format(Locale.US, "  checkpoint %d ms (%d WAL frames), %s %d ms, vacuum %d ms%s",
+                    checkpointMs, walFrames, fullAnalyze ? "ANALYZE" : "optimize", optimizeMs,
+                    vacuumMs, rebuilt ? " (full rebuild)" : ""));
+            return sb.toString();
+        }
+    }
+}
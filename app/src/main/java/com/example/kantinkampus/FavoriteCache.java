@@ -0,0 +1,58 @@
+package com.example.kantinkampus;
+
+import android.util.SparseBooleanArray;
+
+/**
+ * FAVORITE CACHE
+ * Favorite menu ids of the logged-in buyer, kept in memory for the session.
+ * Loaded once by DBHelper.getFavoriteMenuIds and updated on add/remove,
+ * so menu grids render heart state without a query per card.
+ */
+public class FavoriteCache {
+
+    private static FavoriteCache instance;
+
+    private int buyerId = -1;
+    private SparseBooleanArray menuIds; // primitive int set (menuId -> true)
+
+    private FavoriteCache() {}
+
+    public static synchronized FavoriteCache getInstance() {
+        if (instance == null) {
+            instance = new FavoriteCache();
+        }
+        return instance;
+    }
+
+    /**
+     * @return cached ids for this buyer, or null if not loaded
+     */
+    synchronized SparseBooleanArray get(int buyerId) {
+        return this.buyerId == buyerId ? menuIds : null;
+    }
+
+    synchronized void put(int buyerId, SparseBooleanArray menuIds) {
+        this.buyerId = buyerId;
+        this.menuIds = menuIds;
+    }
+
+    synchronized void add(int buyerId, int menuId) {
+        if (this.buyerId == buyerId && menuIds != null) {
+            menuIds.put(menuId, true);
+        }
+    }
+
+    synchronized void remove(int buyerId, int menuId) {
+        if (this.buyerId == buyerId && menuIds != null) {
+            menuIds.delete(menuId);
+        }
+    }
+
+    /**
+     * Clear on logout
+     */
+    public synchronized void clear() {
+        buyerId = -1;
+        menuIds = null;
+    }
+}
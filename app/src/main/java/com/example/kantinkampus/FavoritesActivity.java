@@ -89,6 +89,7 @@ public class FavoritesActivity extends AppCompatActivity {
                     toggleFavorite(menu);
                 }
             });
+            adapter.setFavoriteIds(dbHelper.getFavoriteMenuIds(userId));
             rvFavorites.setAdapter(adapter);
         }
     }
@@ -0,0 +1,424 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * IMAGE LOADER
+ * Loads Menu.image / Stand.image into ImageViews for the grids:
+ * 1. Memory LruCache of bitmaps, budgeted in bytes (1/8 of the app heap)
+ * 2. Disk cache of downsampled thumbnails keyed by source path + target size
+ * 3. Decoding on a background pool with inSampleSize
+ * 4. Request cancellation when a ViewHolder is recycled
+ * 5. Bitmap reuse (inBitmap), reference counted: the memory cache, every view
+ *    showing a bitmap and every pending delivery hold one reference each.
+ *    Only a bitmap whose count drops to 0 (evicted AND released by cancel())
+ *    enters the reuse pool, so nothing on screen is ever decoded into.
+ *    Views never passed to cancel() keep their reference, their bitmaps are
+ *    simply not reused.
+ */
+public class ImageLoader {
+    private static final String TAG = "ImageLoader";
+    private static final String DISK_CACHE_DIR = "thumbs";
+    private static final long DISK_CACHE_MAX_BYTES = 20L * 1024 * 1024; // 20 MB
+    private static final int THREAD_COUNT = 3;
+
+    private static ImageLoader instance;
+
+    private final Context context;
+    private final LruCache<String, Bitmap> memoryCache;
+    private final Map<Bitmap, Integer> refCounts = new IdentityHashMap<>(); // guarded by refCounts
+    private final List<Bitmap> reusePool = new ArrayList<>(); // guarded by refCounts
+    private final long reusePoolMaxBytes;
+    private long reusePoolBytes;
+    private final File diskCacheDir;
+    private long diskCacheBytes = -1; // guarded by this, -1 = not measured yet
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private ImageLoader(Context context) {
+        this.context = context.getApplicationContext();
+
+        int maxKb = (int) (Runtime.getRuntime().maxMemory() / 1024);
+        memoryCache = new LruCache<String, Bitmap>(maxKb / 8) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount() / 1024;
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+                if (oldValue != newValue) {
+                    release(oldValue); // the cache's reference
+                }
+            }
+        };
+        reusePoolMaxBytes = Runtime.getRuntime().maxMemory() / 32;
+
+        diskCacheDir = new File(this.context.getCacheDir(), DISK_CACHE_DIR);
+        if (!diskCacheDir.exists()) {
+            diskCacheDir.mkdirs();
+        }
+    }
+
+    public static synchronized ImageLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new ImageLoader(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Load an image path/URI into the view, downsampled to about sizePx
+     * Shows placeholderRes while loading or when path is empty/invalid
+     */
+    public void load(String path, ImageView imageView, int sizePx, int placeholderRes) {
+        cancel(imageView);
+
+        if (path == null || path.isEmpty()) {
+            imageView.setImageResource(placeholderRes);
+            return;
+        }
+
+        String key = cacheKey(path, sizePx);
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null && acquire(cached)) {
+            show(imageView, cached);
+            return;
+        }
+
+        imageView.setImageResource(placeholderRes);
+        imageView.setTag(R.id.image_loader_key, key);
+
+        Future<?> task = executor.submit(() -> {
+            Bitmap bitmap = loadBitmap(path, key, sizePx);
+            if (bitmap == null || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            synchronized (refCounts) {
+                refCounts.put(bitmap, 2); // memory cache + this delivery
+            }
+            memoryCache.put(key, bitmap);
+
+            mainHandler.post(() -> {
+                // View may have been rebound to another item meanwhile
+                if (key.equals(imageView.getTag(R.id.image_loader_key))) {
+                    show(imageView, bitmap);
+                    imageView.setTag(R.id.image_loader_task, null);
+                } else {
+                    release(bitmap);
+                }
+            });
+        });
+        imageView.setTag(R.id.image_loader_task, task);
+    }
+
+    /**
+     * Cancel a pending request and give back the bitmap shown (call from onViewRecycled)
+     */
+    public void cancel(ImageView imageView) {
+        Object task = imageView.getTag(R.id.image_loader_task);
+        if (task instanceof Future) {
+            ((Future<?>) task).cancel(true);
+        }
+        imageView.setTag(R.id.image_loader_task, null);
+        imageView.setTag(R.id.image_loader_key, null);
+
+        Object shown = imageView.getTag(R.id.image_loader_bitmap);
+        if (shown instanceof Bitmap) {
+            // Off the view before the bitmap can be reused
+            imageView.setImageDrawable(null);
+            imageView.setTag(R.id.image_loader_bitmap, null);
+            release((Bitmap) shown);
+        }
+    }
+
+    /**
+     * Helper: dp to px for target sizes
+     */
+    public int dpToPx(int dp) {
+        return Math.round(dp * context.getResources().getDisplayMetrics().density);
+    }
+
+    // ==================== BACKGROUND WORK ====================
+
+    private Bitmap loadBitmap(String path, String key, int sizePx) {
+        File diskFile = new File(diskCacheDir, key);
+
+        // 1. Disk cache (already downsampled)
+        if (diskFile.exists()) {
+            try {
+                Bitmap bitmap = decode(() -> new FileInputStream(diskFile), sizePx);
+                if (bitmap != null) {
+                    diskFile.setLastModified(System.currentTimeMillis());
+                    return bitmap;
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error decoding thumbnail: " + e.getMessage());
+            }
+        }
+
+        // 2. Source image, downsampled
+        try {
+            Bitmap bitmap = decode(() -> openSource(path), sizePx);
+            if (bitmap != null) {
+                writeToDisk(diskFile, bitmap);
+            }
+            return bitmap;
+
+        } catch (Exception e) {
+            Log.e(TAG, "Error decoding " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private interface StreamSource {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * Two-pass decode: bounds, then inSampleSize into a pooled bitmap when one fits
+     */
+    private Bitmap decode(StreamSource source, int sizePx) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        InputStream in = source.open();
+        if (in == null) return null;
+        try {
+            BitmapFactory.decodeStream(in, null, options);
+        } finally {
+            in.close();
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) return null;
+
+        options.inSampleSize = calculateInSampleSize(options, sizePx, sizePx);
+        options.inJustDecodeBounds = false;
+        options.inMutable = true;
+        options.inBitmap = takeReusable(options);
+
+        if (options.inBitmap != null) {
+            in = source.open();
+            if (in == null) return null;
+            try {
+                Bitmap bitmap = BitmapFactory.decodeStream(in, null, options);
+                if (bitmap != null) return bitmap;
+            } catch (IllegalArgumentException e) {
+                // Candidate did not fit after all, decode without reuse
+            } finally {
+                in.close();
+            }
+            options.inBitmap = null;
+        }
+
+        in = source.open();
+        if (in == null) return null;
+        try {
+            return BitmapFactory.decodeStream(in, null, options);
+        } finally {
+            in.close();
+        }
+    }
+
+    private InputStream openSource(String path) throws IOException {
+        if (path.startsWith("content://") || path.startsWith("file://")
+                || path.startsWith("android.resource://")) {
+            return context.getContentResolver().openInputStream(Uri.parse(path));
+        }
+        File file = BlobStore.isBlobRef(path)
+                ? BlobStore.getInstance(context).getFile(path)
+                : new File(path);
+        return file.exists() ? new FileInputStream(file) : null;
+    }
+
+    /**
+     * Largest power of 2 that keeps both sides >= the requested size
+     */
+    private static int calculateInSampleSize(BitmapFactory.Options options, int reqWidth, int reqHeight) {
+        int height = options.outHeight;
+        int width = options.outWidth;
+        int inSampleSize = 1;
+
+        if (height > reqHeight || width > reqWidth) {
+            int halfHeight = height / 2;
+            int halfWidth = width / 2;
+            while ((halfHeight / inSampleSize) >= reqHeight && (halfWidth / inSampleSize) >= reqWidth) {
+                inSampleSize *= 2;
+            }
+        }
+        return inSampleSize;
+    }
+
+    // ==================== REUSE POOL ====================
+
+    private void show(ImageView imageView, Bitmap bitmap) {
+        imageView.setImageBitmap(bitmap);
+        imageView.setTag(R.id.image_loader_bitmap, bitmap); // the reference taken for it
+    }
+
+    /**
+     * Take one more reference; false if the bitmap already went to the pool
+     */
+    private boolean acquire(Bitmap bitmap) {
+        synchronized (refCounts) {
+            Integer count = refCounts.get(bitmap);
+            if (count == null) return false;
+            refCounts.put(bitmap, count + 1);
+            return true;
+        }
+    }
+
+    private void release(Bitmap bitmap) {
+        synchronized (refCounts) {
+            Integer count = refCounts.get(bitmap);
+            if (count == null) return;
+            if (count > 1) {
+                refCounts.put(bitmap, count - 1);
+                return;
+            }
+            refCounts.remove(bitmap);
+
+            long size = bitmap.getAllocationByteCount();
+            if (bitmap.isMutable() && !bitmap.isRecycled() && reusePoolBytes + size <= reusePoolMaxBytes) {
+                reusePool.add(bitmap);
+                reusePoolBytes += size;
+            }
+        }
+    }
+
+    /**
+     * Smallest pooled bitmap big enough for the sampled decode, removed from the pool
+     */
+    private Bitmap takeReusable(BitmapFactory.Options options) {
+        int sample = options.inSampleSize;
+        long width = (options.outWidth + sample - 1) / sample; // decoders round up
+        long height = (options.outHeight + sample - 1) / sample;
+        long needed = width * height * 4; // ARGB_8888
+
+        synchronized (refCounts) {
+            Bitmap best = null;
+            for (Bitmap candidate : reusePool) {
+                int size = candidate.getAllocationByteCount();
+                if (size >= needed && (best == null || size < best.getAllocationByteCount())) {
+                    best = candidate;
+                }
+            }
+            if (best != null) {
+                reusePool.remove(best);
+                reusePoolBytes -= best.getAllocationByteCount();
+            }
+            return best;
+        }
+    }
+
+    // ==================== DISK CACHE ====================
+
+    /**
+     * Write via a temp file + rename, so a crash never leaves a truncated thumbnail
+     */
+    private void writeToDisk(File file, Bitmap bitmap) {
+        File tmp = null;
+        try {
+            tmp = File.createTempFile(file.getName(), ".tmp", diskCacheDir);
+            FileOutputStream out = new FileOutputStream(tmp);
+            try {
+                bitmap.compress(Bitmap.CompressFormat.JPEG, 85, out);
+            } finally {
+                out.close();
+            }
+            long replaced = file.length(); // 0 if new
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+                return;
+            }
+            addDiskBytes(file.length() - replaced);
+        } catch (IOException e) {
+            if (tmp != null) tmp.delete();
+            Log.e(TAG, "Error writing thumbnail: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Running total of the disk cache; the directory is listed once to measure
+     * it and again only when a trim is due
+     */
+    private synchronized void addDiskBytes(long delta) {
+        if (diskCacheBytes < 0) {
+            diskCacheBytes = measureDiskCache(); // already includes this write
+        } else {
+            diskCacheBytes += delta;
+        }
+        if (diskCacheBytes > DISK_CACHE_MAX_BYTES) {
+            trimDiskCache();
+        }
+    }
+
+    private long measureDiskCache() {
+        File[] files = diskCacheDir.listFiles();
+        long total = 0;
+        if (files != null) {
+            for (File f : files) {
+                total += f.length();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Delete least recently used thumbnails down to 3/4 of the disk budget
+     */
+    private void trimDiskCache() {
+        File[] files = diskCacheDir.listFiles();
+        if (files == null) return;
+
+        long total = 0;
+        for (File f : files) {
+            total += f.length();
+        }
+
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File f : files) {
+            if (total <= DISK_CACHE_MAX_BYTES * 3 / 4) break;
+            long length = f.length();
+            if (f.delete()) {
+                total -= length;
+            }
+        }
+        diskCacheBytes = total;
+    }
+
+    private static String cacheKey(String path, int sizePx) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] hash = digest.digest((path + "@" + sizePx).getBytes("UTF-8"));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : hash) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            return String.valueOf((path + "@" + sizePx).hashCode());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.kantinkampus;
+
+import android.app.Application;
+
+/**
+ * KANTIN KAMPUS APP
+ * Process-wide setup that must happen before the first activity starts.
+ * DatabaseMaintenance counts started activities to tell foreground from
+ * background, so its lifecycle callbacks are registered here: registered
+ * later, the launcher (LoginActivity) would never be counted.
+ */
+public class KantinKampusApp extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        DatabaseMaintenance.getInstance(this);
+    }
+}
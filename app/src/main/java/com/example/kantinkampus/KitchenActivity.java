@@ -0,0 +1,126 @@
+package com.example.kantinkampus;
+
+import android.os.Bundle;
+import android.view.MenuItem;
+import android.view.View;
+import android.widget.TextView;
+import android.widget.Toast;
+import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.List;
+
+/**
+ * KITCHEN ACTIVITY
+ * Production view for rush hour: identical items summed across all
+ * verified/cooking orders of the stand, so "14x Nasi Goreng" is cooked as
+ * one batch. Advancing a batch moves every order containing it.
+ */
+public class KitchenActivity extends AppCompatActivity {
+    private DBHelper dbHelper;
+    private SessionManager sessionManager;
+
+    private RecyclerView rvKitchenBatches;
+    private View layoutEmpty;
+    private TextView tvKitchenSummary;
+    private KitchenBatchAdapter batchAdapter;
+
+    private int standId;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_kitchen);
+
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+            getSupportActionBar().setTitle("Dapur");
+        }
+
+        dbHelper = new DBHelper(this);
+        sessionManager = new SessionManager(this);
+
+        Stand stand = dbHelper.getStandBySeller(sessionManager.getUserId());
+        if (stand == null) {
+            Toast.makeText(this, "⚠️ Anda belum memiliki stand", Toast.LENGTH_SHORT).show();
+            finish();
+            return;
+        }
+        standId = stand.getId();
+
+        rvKitchenBatches = findViewById(R.id.rvKitchenBatches);
+        layoutEmpty = findViewById(R.id.layoutEmpty);
+        tvKitchenSummary = findViewById(R.id.tvKitchenSummary);
+        rvKitchenBatches.setLayoutManager(new LinearLayoutManager(this));
+    }
+
+    private void loadBatches() {
+        List<KitchenBatch> batches = dbHelper.getKitchenBatches(standId);
+
+        int toCook = 0, cooking = 0;
+        for (KitchenBatch batch : batches) {
+            if (batch.isCooking()) {
+                cooking += batch.getQty();
+            } else {
+                toCook += batch.getQty();
+            }
+        }
+        tvKitchenSummary.setText("✅ " + toCook + " item belum dimasak · 👨‍🍳 " + cooking + " item dimasak");
+
+        if (batches.isEmpty()) {
+            rvKitchenBatches.setVisibility(View.GONE);
+            layoutEmpty.setVisibility(View.VISIBLE);
+            return;
+        }
+
+        rvKitchenBatches.setVisibility(View.VISIBLE);
+        layoutEmpty.setVisibility(View.GONE);
+
+        if (batchAdapter == null) {
+            batchAdapter = new KitchenBatchAdapter(this, batches, this::confirmAdvance);
+            rvKitchenBatches.setAdapter(batchAdapter);
+        } else {
+            batchAdapter.setBatches(batches);
+        }
+    }
+
+    private void confirmAdvance(KitchenBatch batch) {
+        String action = batch.isCooking() ? "🎉 Tandai siap diambil" : "👨‍🍳 Mulai masak";
+
+        new AlertDialog.Builder(this)
+                .setTitle(batch.getQty() + "x " + batch.getMenuName())
+                .setMessage(action + " untuk " + batch.getOrderCount() + " pesanan?\n\n" +
+                        "Seluruh isi pesanan tersebut ikut diproses.")
+                .setPositiveButton("Ya", (dialog, which) -> {
+                    int result = dbHelper.advanceKitchenBatch(standId, batch.getMenuId(),
+                            batch.getStatus(), batch.getNextStatus());
+
+                    if (result > 0) {
+                        Toast.makeText(this, "✅ " + result + " pesanan diproses",
+                                Toast.LENGTH_SHORT).show();
+                    } else {
+                        Toast.makeText(this, "❌ Gagal memproses pesanan!",
+                                Toast.LENGTH_SHORT).show();
+                    }
+                    loadBatches(); // Refresh
+                })
+                .setNegativeButton("Batal", null)
+                .show();
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == android.R.id.home) {
+            finish();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        loadBatches(); // Refresh when returning
+    }
+}
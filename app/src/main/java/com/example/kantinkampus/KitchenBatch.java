@@ -0,0 +1,66 @@
+package com.example.kantinkampus;
+
+/**
+ * KITCHEN BATCH MODEL
+ * Total qty of one menu across a stand's open orders in one status
+ */
+public class KitchenBatch {
+    private int menuId;
+    private String menuName;
+    private String status; // 'verified' (to cook) or 'cooking'
+    private int qty;
+    private int orderCount;
+
+    public KitchenBatch() {}
+
+    public int getMenuId() {
+        return menuId;
+    }
+
+    public void setMenuId(int menuId) {
+        this.menuId = menuId;
+    }
+
+    public String getMenuName() {
+        return menuName;
+    }
+
+    public void setMenuName(String menuName) {
+        this.menuName = menuName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getQty() {
+        return qty;
+    }
+
+    public void setQty(int qty) {
+        this.qty = qty;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(int orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public boolean isCooking() {
+        return "cooking".equals(status);
+    }
+
+    /**
+     * Status the batch's orders move to next
+     */
+    public String getNextStatus() {
+        return isCooking() ? "ready" : "cooking";
+    }
+}
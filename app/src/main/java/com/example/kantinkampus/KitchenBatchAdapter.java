@@ -0,0 +1,79 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.List;
+
+/**
+ * KITCHEN BATCH ADAPTER
+ * One card per menu: total qty to cook / in the pan, and a button to advance the batch
+ */
+public class KitchenBatchAdapter extends RecyclerView.Adapter<KitchenBatchAdapter.BatchViewHolder> {
+
+    private Context context;
+    private List<KitchenBatch> batchList;
+    private OnBatchActionListener listener;
+
+    public interface OnBatchActionListener {
+        void onAdvanceBatch(KitchenBatch batch);
+    }
+
+    public KitchenBatchAdapter(Context context, List<KitchenBatch> batchList, OnBatchActionListener listener) {
+        this.context = context;
+        this.batchList = batchList;
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public BatchViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.kitchen_batch_item, parent, false);
+        return new BatchViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull BatchViewHolder holder, int position) {
+        KitchenBatch batch = batchList.get(position);
+
+        holder.tvBatchQty.setText(batch.getQty() + "x");
+        holder.tvBatchMenuName.setText(batch.getMenuName());
+        holder.tvBatchInfo.setText((batch.isCooking() ? "👨‍🍳 Sedang dimasak" : "✅ Belum dimasak")
+                + " · " + batch.getOrderCount() + " pesanan");
+
+        holder.tvAdvanceBatch.setText(batch.isCooking() ? "🎉 Siap" : "👨‍🍳 Masak");
+        holder.btnAdvanceBatch.setCardBackgroundColor(context.getResources().getColor(
+                batch.isCooking() ? R.color.success : R.color.primary));
+        holder.btnAdvanceBatch.setOnClickListener(v -> listener.onAdvanceBatch(batch));
+    }
+
+    @Override
+    public int getItemCount() {
+        return batchList.size();
+    }
+
+    public void setBatches(List<KitchenBatch> batches) {
+        this.batchList = batches;
+        notifyDataSetChanged();
+    }
+
+    public static class BatchViewHolder extends RecyclerView.ViewHolder {
+        TextView tvBatchQty, tvBatchMenuName, tvBatchInfo, tvAdvanceBatch;
+        CardView btnAdvanceBatch;
+
+        public BatchViewHolder(@NonNull View itemView) {
+            super(itemView);
+
+            tvBatchQty = itemView.findViewById(R.id.tvBatchQty);
+            tvBatchMenuName = itemView.findViewById(R.id.tvBatchMenuName);
+            tvBatchInfo = itemView.findViewById(R.id.tvBatchInfo);
+            tvAdvanceBatch = itemView.findViewById(R.id.tvAdvanceBatch);
+            btnAdvanceBatch = itemView.findViewById(R.id.btnAdvanceBatch);
+        }
+    }
+}
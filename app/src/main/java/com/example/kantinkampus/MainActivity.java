@@ -20,6 +20,10 @@ public class MainActivity extends AppCompatActivity {
     private DBHelper dbHelper;
     private SessionManager sessionManager;
 
+    // Badge counts are served from memory, refresh instantly on change
+    private final BadgeCounters.OnBadgeChangeListener badgeListener =
+            () -> runOnUiThread(this::updateCartCount);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -43,6 +47,9 @@ public class MainActivity extends AppCompatActivity {
 
         // Initialize
         dbHelper = new DBHelper(this);
+        BlobStore.getInstance(this).collectGarbageIfDue(); // orphaned photos
+        new OrderArchiveJob(this).runIfDue(); // old completed/cancelled orders
+        DatabaseMaintenance.getInstance(this).scheduleIdleRun(); // ANALYZE, vacuum, checkpoint
 
         // Setup toolbar
         Toolbar toolbar = findViewById(R.id.toolbar);
@@ -106,7 +113,12 @@ public class MainActivity extends AppCompatActivity {
     private void updateCartCount() {
         int userId = sessionManager.getUserId();
         int cartCount = dbHelper.getCartCount(userId);
+        int unreadCount = dbHelper.getUnreadNotificationCount(userId);
         tvCartCount.setText(cartCount + " item");
+
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setSubtitle(unreadCount > 0 ? "🔔 " + unreadCount + " notifikasi baru" : null);
+        }
     }
 
     private void showProfileOptions() {
@@ -148,12 +160,21 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
+        if (dbHelper == null) return; // redirected in onCreate
         updateCartCount(); // Update when returning to activity
+        BadgeCounters.getInstance().addListener(badgeListener);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        BadgeCounters.getInstance().removeListener(badgeListener);
     }
 
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.buyer_menu, menu);
+        menu.findItem(R.id.action_query_stats).setVisible(QueryStatsDialog.isEnabled(this));
         return true;
     }
 
@@ -165,6 +186,13 @@ public class MainActivity extends AppCompatActivity {
             Intent intent = new Intent(this, CartActivity.class);
             startActivity(intent);
             return true;
+        } else if (id == R.id.action_notifications) {
+            Intent intent = new Intent(this, NotificationsActivity.class);
+            startActivity(intent);
+            return true;
+        } else if (id == R.id.action_query_stats) {
+            QueryStatsDialog.show(this);
+            return true;
         } else if (id == R.id.action_logout) {
             logout();
             return true;
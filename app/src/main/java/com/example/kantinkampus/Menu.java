@@ -1,5 +1,9 @@
 package com.example.kantinkampus;
 
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
 public class Menu {
     private int id;
     private int standId;
@@ -10,6 +14,9 @@ public class Menu {
     private String kategori;
     private String status; // 'available' or 'unavailable'
     private String createdAt;
+    private int dailyStock; // portions per day, 0 = unlimited
+    private int stock; // portions left on stockDate
+    private String stockDate;
 
     // For display
     private float averageRating;
@@ -57,6 +64,25 @@ public class Menu {
     public String getCreatedAt() { return createdAt; }
     public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
 
+    public int getDailyStock() { return dailyStock; }
+    public void setDailyStock(int dailyStock) { this.dailyStock = dailyStock; }
+
+    public int getStock() { return stock; }
+    public void setStock(int stock) { this.stock = stock; }
+
+    public String getStockDate() { return stockDate; }
+    public void setStockDate(String stockDate) { this.stockDate = stockDate; }
+
+    /**
+     * Portions left today, -1 if the menu has no daily stock
+     * A count from an earlier day means the menu has not been ordered today yet
+     */
+    public int getStockLeft() {
+        if (dailyStock <= 0) return -1;
+        String today = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
+        return today.equals(stockDate) ? Math.max(0, stock) : dailyStock;
+    }
+
     public float getAverageRating() { return averageRating; }
     public void setAverageRating(float averageRating) { this.averageRating = averageRating; }
 
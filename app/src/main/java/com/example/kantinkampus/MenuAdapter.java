@@ -21,6 +21,7 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
     private Context context;
     private List<Menu> menuList;
     private OnMenuClickListener listener;
+    private int imageSizePx;
 
     public interface OnMenuClickListener {
         void onMenuClick(Menu menu);
@@ -33,6 +34,7 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
         this.context = context;
         this.menuList = menuList;
         this.listener = listener;
+        this.imageSizePx = ImageLoader.getInstance(context).dpToPx(80);
     }
 
     @NonNull
@@ -77,18 +79,20 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
         });
 
         // Set status indicator
+        int stockLeft = menu.getStockLeft();
         if (menu.isAvailable()) {
-            holder.tvStatus.setText("✅ Tersedia");
+            holder.tvStatus.setText(stockLeft >= 0 ? "✅ Tersedia · sisa " + stockLeft : "✅ Tersedia");
             holder.tvStatus.setTextColor(context.getResources().getColor(R.color.success));
             holder.cardMenu.setCardBackgroundColor(context.getResources().getColor(R.color.white));
         } else {
-            holder.tvStatus.setText("⚠️ Tidak Tersedia");
+            holder.tvStatus.setText(stockLeft == 0 ? "⚠️ Stok Habis" : "⚠️ Tidak Tersedia");
             holder.tvStatus.setTextColor(context.getResources().getColor(R.color.text_gray));
             holder.cardMenu.setCardBackgroundColor(context.getResources().getColor(R.color.light_gray));
         }
 
-        // Set image (placeholder for now)
-        holder.ivMenuImage.setImageResource(R.drawable.ic_book_placeholder);
+        // Set image (downsampled + cached)
+        ImageLoader.getInstance(context).load(menu.getImage(), holder.ivMenuImage,
+                imageSizePx, R.drawable.ic_book_placeholder);
 
         // Click listeners
         holder.cardMenu.setOnClickListener(v -> listener.onMenuClick(menu));
@@ -96,6 +100,12 @@ public class MenuAdapter extends RecyclerView.Adapter<MenuAdapter.MenuViewHolder
         holder.btnDelete.setOnClickListener(v -> listener.onDeleteClick(menu));
     }
 
+    @Override
+    public void onViewRecycled(@NonNull MenuViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.getInstance(context).cancel(holder.ivMenuImage);
+    }
+
     @Override
     public int getItemCount() {
         return menuList.size();
@@ -3,8 +3,9 @@ package com.example.kantinkampus;
 import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
+import android.util.SparseBooleanArray;
 import android.view.ViewGroup;
-import android.widget.ImageButton;
+import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
@@ -18,9 +19,13 @@ import java.util.Locale;
  * Displays menus in grid with add to cart and favorite options
  */
 public class MenuAdapterBuyer extends RecyclerView.Adapter<MenuAdapterBuyer.ViewHolder> {
+    private static final int LOW_STOCK = 5;
+
     private Context context;
     private List<Menu> menus;
     private MenuListener listener;
+    private SparseBooleanArray favoriteIds = new SparseBooleanArray();
+    private int imageSizePx;
 
     // ✅ ADD THIS INTERFACE HERE:
     public interface MenuListener {
@@ -33,6 +38,25 @@ public class MenuAdapterBuyer extends RecyclerView.Adapter<MenuAdapterBuyer.View
         this.context = context;
         this.menus = menus;
         this.listener = listener;
+        this.imageSizePx = ImageLoader.getInstance(context).dpToPx(80);
+    }
+
+    /**
+     * Favorite menu ids (from DBHelper.getFavoriteMenuIds) for heart state
+     */
+    public void setFavoriteIds(SparseBooleanArray favoriteIds) {
+        this.favoriteIds = favoriteIds;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Refresh one card after its favorite state changed
+     */
+    public void notifyMenuChanged(Menu menu) {
+        int position = menus.indexOf(menu);
+        if (position >= 0) {
+            notifyItemChanged(position);
+        }
     }
 
     @NonNull
@@ -48,6 +72,12 @@ public class MenuAdapterBuyer extends RecyclerView.Adapter<MenuAdapterBuyer.View
         holder.bind(menu);
     }
 
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.getInstance(context).cancel(holder.ivMenuImage);
+    }
+
     @Override
     public int getItemCount() {
         return menus.size();
@@ -55,15 +85,18 @@ public class MenuAdapterBuyer extends RecyclerView.Adapter<MenuAdapterBuyer.View
 
     class ViewHolder extends RecyclerView.ViewHolder {
         CardView cardMenu;
+        ImageView ivMenuImage;
         TextView tvMenuName, tvPrice, tvCategory, tvRating, tvStatus;
-        ImageButton btnFavorite, btnAddToCart;
+        TextView btnFavorite;
+        View btnAddToCart;
 
         public ViewHolder(@NonNull View itemView) {
             super(itemView);
             cardMenu = itemView.findViewById(R.id.cardMenu);
+            ivMenuImage = itemView.findViewById(R.id.ivMenuImage);
             tvMenuName = itemView.findViewById(R.id.tvMenuName);
-            tvPrice = itemView.findViewById(R.id.tvPrice);
-            tvCategory = itemView.findViewById(R.id.tvCategory);
+            tvPrice = itemView.findViewById(R.id.tvMenuPrice);
+            tvCategory = itemView.findViewById(R.id.tvMenuCategory);
             tvRating = itemView.findViewById(R.id.tvRating);
             tvStatus = itemView.findViewById(R.id.tvStatus);
             btnFavorite = itemView.findViewById(R.id.btnFavorite);
@@ -74,6 +107,8 @@ public class MenuAdapterBuyer extends RecyclerView.Adapter<MenuAdapterBuyer.View
             tvMenuName.setText(menu.getNama());
             tvPrice.setText(formatPrice(menu.getHarga()));
             tvCategory.setText(menu.getKategori());
+            ImageLoader.getInstance(context).load(menu.getImage(), ivMenuImage,
+                    imageSizePx, R.drawable.ic_book_placeholder);
 
             // Rating
             if (menu.getTotalReviews() > 0) {
@@ -84,8 +119,11 @@ public class MenuAdapterBuyer extends RecyclerView.Adapter<MenuAdapterBuyer.View
             }
 
             // Status
+            int stockLeft = menu.getStockLeft();
             if (menu.getStatus().equals("available")) {
-                tvStatus.setVisibility(View.GONE);
+                // Only the last few portions are worth a label
+                tvStatus.setVisibility(stockLeft >= 0 && stockLeft <= LOW_STOCK ? View.VISIBLE : View.GONE);
+                tvStatus.setText("🔥 Sisa " + stockLeft);
                 btnAddToCart.setEnabled(true);
                 btnAddToCart.setAlpha(1.0f);
             } else {
@@ -95,6 +133,9 @@ public class MenuAdapterBuyer extends RecyclerView.Adapter<MenuAdapterBuyer.View
                 btnAddToCart.setAlpha(0.5f);
             }
 
+            // Favorite (heart) state, no query per card
+            btnFavorite.setText(favoriteIds.get(menu.getId()) ? "❤️" : "🤍");
+
             // Click listeners
             cardMenu.setOnClickListener(v -> {
                 if (listener != null) {
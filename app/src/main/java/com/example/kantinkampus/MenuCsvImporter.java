@@ -0,0 +1,254 @@
+package com.example.kantinkampus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * MENU CSV IMPORTER
+ * Streaming parser + validator for bulk menu import.
+ * Columns: name, price, category, description, status (header row optional)
+ * - RFC 4180 quoting (commas, quotes and newlines inside "...")
+ * - One record at a time, nothing buffered beyond the current row
+ * DBHelper.importMenus() pulls rows with next() and inserts the valid ones.
+ */
+public class MenuCsvImporter {
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_DESCRIPTION_LENGTH = 200;
+    private static final int MAX_PRICE = 10_000_000;
+
+    private static final String[] CATEGORIES = {
+            "🍛 Makanan Berat", "🥤 Minuman", "🍪 Snack", "📦 Lainnya"
+    };
+
+    /**
+     * One parsed CSV row; error != null means it must be skipped
+     */
+    public static class Row {
+        public int line;
+        public String name;
+        public int price;
+        public String category;
+        public String description;
+        public String status;
+        public String error;
+    }
+
+    /**
+     * Import outcome
+     */
+    public static class Result {
+        public int imported;
+        public final List<String> errors = new ArrayList<>();
+        public long elapsedMs;
+        public String fatalError; // I/O or database failure, nothing imported
+    }
+
+    private final BufferedReader reader;
+    private int line = 1;
+    private boolean first = true;
+
+    public MenuCsvImporter(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Next non-empty row (validated), or null at end of file
+     */
+    public Row next() throws IOException {
+        while (true) {
+            int startLine = line;
+            List<String> fields = readRecord();
+            if (fields == null) return null;
+
+            boolean isFirst = first;
+            first = false;
+
+            if (isFirst && fields.get(0).startsWith("\uFEFF")) {
+                fields.set(0, fields.get(0).substring(1)); // Excel UTF-8 BOM
+            }
+            if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                continue; // blank line
+            }
+            if (isFirst && isHeader(fields)) {
+                continue;
+            }
+
+            return validate(startLine, fields);
+        }
+    }
+
+    // ==================== VALIDATION ====================
+
+    private Row validate(int lineNumber, List<String> fields) {
+        Row row = new Row();
+        row.line = lineNumber;
+
+        if (fields.size() < 2 || fields.size() > 5) {
+            row.error = "harus 2-5 kolom (nama, harga, kategori, deskripsi, status)";
+            return row;
+        }
+
+        row.name = fields.get(0).trim();
+        if (row.name.isEmpty()) {
+            row.error = "nama kosong";
+            return row;
+        }
+        if (row.name.length() > MAX_NAME_LENGTH) {
+            row.error = "nama lebih dari " + MAX_NAME_LENGTH + " karakter";
+            return row;
+        }
+
+        row.price = parsePrice(fields.get(1));
+        if (row.price < 0) {
+            row.error = "harga tidak valid: \"" + fields.get(1).trim() + "\"";
+            return row;
+        }
+        if (row.price <= 0 || row.price > MAX_PRICE) {
+            row.error = "harga harus antara 1 dan " + MAX_PRICE;
+            return row;
+        }
+
+        row.category = matchCategory(fields.size() > 2 ? fields.get(2) : "");
+        if (row.category == null) {
+            row.error = "kategori tidak dikenal: \"" + fields.get(2).trim() + "\"";
+            return row;
+        }
+
+        row.description = fields.size() > 3 ? fields.get(3).trim() : "";
+        if (row.description.length() > MAX_DESCRIPTION_LENGTH) {
+            row.error = "deskripsi lebih dari " + MAX_DESCRIPTION_LENGTH + " karakter";
+            return row;
+        }
+
+        row.status = matchStatus(fields.size() > 4 ? fields.get(4) : "");
+        if (row.status == null) {
+            row.error = "status harus available/unavailable";
+            return row;
+        }
+
+        return row;
+    }
+
+    /**
+     * Whole rupiah: "12000", "12.000", "Rp 12.000"
+     * Dots only count as thousands separators (groups of three digits),
+     * so "12.5" is rejected instead of becoming 125
+     * @return the price, or -1 if it is not a valid amount
+     */
+    static int parsePrice(String value) {
+        String price = value.trim();
+        if (price.startsWith("Rp")) {
+            price = price.substring(2).trim();
+        }
+        if (!price.matches("\\d{1,3}(\\.\\d{3})+|\\d+")) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(price.replace(".", ""));
+        } catch (NumberFormatException e) {
+            return -1; // overflow
+        }
+    }
+
+    /**
+     * Accepts the full label ("🍛 Makanan Berat") or just its words ("makanan berat")
+     * Empty = Lainnya
+     */
+    private static String matchCategory(String value) {
+        String key = stripEmoji(value).toLowerCase(Locale.ROOT);
+        if (key.isEmpty()) return CATEGORIES[3];
+
+        for (String category : CATEGORIES) {
+            if (stripEmoji(category).toLowerCase(Locale.ROOT).equals(key)) {
+                return category;
+            }
+        }
+        return null;
+    }
+
+    private static String matchStatus(String value) {
+        String key = value.trim().toLowerCase(Locale.ROOT);
+        switch (key) {
+            case "":
+            case "available":
+            case "tersedia":
+                return "available";
+            case "unavailable":
+            case "habis":
+            case "tidak tersedia":
+                return "unavailable";
+            default:
+                return null;
+        }
+    }
+
+    private static String stripEmoji(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < value.length(); ) {
+            int cp = value.codePointAt(i);
+            if (Character.isLetterOrDigit(cp) || Character.isSpaceChar(cp)) {
+                sb.appendCodePoint(cp);
+            }
+            i += Character.charCount(cp);
+        }
+        return sb.toString().trim().replaceAll("\\s+", " ");
+    }
+
+    private static boolean isHeader(List<String> fields) {
+        String name = fields.get(0).trim().toLowerCase(Locale.ROOT);
+        return name.equals("name") || name.equals("nama");
+    }
+
+    // ==================== CSV ====================
+
+    /**
+     * Read one RFC 4180 record, or null at end of file
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            char ch = (char) c;
+
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int peek = reader.read();
+                    if (peek == '"') {
+                        field.append('"'); // escaped quote
+                    } else {
+                        quoted = false;
+                        if (peek != -1) reader.reset();
+                    }
+                } else {
+                    if (ch == '\n') line++;
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+
+        if (!any) return null;
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -8,14 +8,17 @@ import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.ImageButton;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.core.widget.NestedScrollView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
@@ -24,10 +27,20 @@ import java.util.Locale;
  * Shows full menu details with add to cart and favorites
  */
 public class MenuDetailActivity extends AppCompatActivity {
+    private static final int REVIEW_PAGE_SIZE = 10;
+    private static final int REVIEW_SCROLL_MARGIN_PX = 600;
+
     private TextView tvMenuName, tvPrice, tvCategory, tvDescription, tvRating, tvReviewCount;
     private ImageButton btnFavorite, btnCart;
     private Button btnAddToCart;
-    private RecyclerView rvReviews;
+    private RecyclerView rvReviews, rvOftenOrdered;
+    private View cardOftenOrdered, layoutRatingHistogram, tvNoReviews;
+    private ProgressBar[] pbStars = new ProgressBar[RatingHistogram.STARS + 1];
+    private TextView[] tvStars = new TextView[RatingHistogram.STARS + 1];
+    private NestedScrollView scrollDetail;
+    private ReviewAdapter reviewAdapter;
+    private Review lastReview; // keyset cursor, null = first page
+    private boolean hasMoreReviews = true;
 
     private DBHelper dbHelper;
     private SessionManager sessionManager;
@@ -71,10 +84,32 @@ public class MenuDetailActivity extends AppCompatActivity {
         btnCart = findViewById(R.id.btnCart);
         btnAddToCart = findViewById(R.id.btnAddToCart);
         rvReviews = findViewById(R.id.rvReviews);
+        rvOftenOrdered = findViewById(R.id.rvOftenOrdered);
+        cardOftenOrdered = findViewById(R.id.cardOftenOrdered);
+        layoutRatingHistogram = findViewById(R.id.layoutRatingHistogram);
+        tvNoReviews = findViewById(R.id.tvNoReviews);
+        scrollDetail = findViewById(R.id.scrollDetail);
+        int[] pbIds = {0, R.id.pbStars1, R.id.pbStars2, R.id.pbStars3, R.id.pbStars4, R.id.pbStars5};
+        int[] tvIds = {0, R.id.tvStars1, R.id.tvStars2, R.id.tvStars3, R.id.tvStars4, R.id.tvStars5};
+        for (int star = 1; star <= RatingHistogram.STARS; star++) {
+            pbStars[star] = findViewById(pbIds[star]);
+            tvStars[star] = findViewById(tvIds[star]);
+        }
 
         // Setup RecyclerView for reviews
         rvReviews.setLayoutManager(new LinearLayoutManager(this));
 
+        // Reviews sit inside the NestedScrollView: stream the next page near its bottom
+        scrollDetail.setOnScrollChangeListener((NestedScrollView.OnScrollChangeListener)
+                (v, scrollX, scrollY, oldScrollX, oldScrollY) -> {
+                    View content = v.getChildAt(0);
+                    if (scrollY > oldScrollY && hasMoreReviews
+                            && scrollY + v.getHeight() >= content.getHeight() - REVIEW_SCROLL_MARGIN_PX) {
+                        loadNextReviewPage();
+                    }
+                });
+        rvOftenOrdered.setLayoutManager(new LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false));
+
         // Load menu data
         loadMenuData();
 
@@ -108,35 +143,57 @@ public class MenuDetailActivity extends AppCompatActivity {
         tvCategory.setText(menu.getKategori());
         tvDescription.setText(menu.getDeskripsi());
 
-        // Rating & reviews
-        float rating = menu.getAverageRating();
-        int reviewCount = menu.getTotalReviews();
+        // Rating & reviews: summary from the precomputed histogram, reviews paged
+        showRatingSummary(dbHelper.getRatingHistogram(menuId));
+        loadReviews();
+
+        // Menus other buyers ordered together with this one
+        loadOftenOrdered();
+
+        // Update cart badge
+        updateCartBadge();
+    }
+
+    private void showRatingSummary(RatingHistogram histogram) {
+        int reviewCount = histogram.getTotal();
 
         if (reviewCount > 0) {
-            tvRating.setText(String.format("⭐ %.1f", rating));
+            tvRating.setText(String.format("⭐ %.1f", histogram.getAverage()));
             tvReviewCount.setText("(" + reviewCount + " ulasan)");
+            layoutRatingHistogram.setVisibility(View.VISIBLE);
+            for (int star = 1; star <= RatingHistogram.STARS; star++) {
+                pbStars[star].setProgress(histogram.getPercent(star));
+                tvStars[star].setText(String.valueOf(histogram.getCount(star)));
+            }
         } else {
             tvRating.setText("⭐ Belum ada rating");
             tvReviewCount.setText("");
+            layoutRatingHistogram.setVisibility(View.GONE);
         }
-
-        // Load reviews
-        loadReviews();
-
-        // Update cart badge
-        updateCartBadge();
     }
 
     private void loadReviews() {
-        List<Review> reviews = dbHelper.getMenuReviews(menuId);
+        lastReview = null;
+        hasMoreReviews = true;
+        reviewAdapter = new ReviewAdapter(this, new ArrayList<>());
+        rvReviews.setAdapter(reviewAdapter);
+        loadNextReviewPage();
+    }
 
-        if (!reviews.isEmpty()) {
-            // TODO: Create ReviewAdapter and set it here
-            // For now, just hide if no reviews
-            rvReviews.setVisibility(View.GONE);
-        } else {
-            rvReviews.setVisibility(View.GONE);
+    private void loadNextReviewPage() {
+        List<Review> page = dbHelper.getMenuReviewsPage(menuId, lastReview, REVIEW_PAGE_SIZE);
+
+        if (page.size() < REVIEW_PAGE_SIZE) {
+            hasMoreReviews = false;
+        }
+        if (!page.isEmpty()) {
+            lastReview = page.get(page.size() - 1);
+            reviewAdapter.addPage(page);
         }
+
+        boolean empty = reviewAdapter.getItemCount() == 0;
+        rvReviews.setVisibility(empty ? View.GONE : View.VISIBLE);
+        tvNoReviews.setVisibility(empty ? View.VISIBLE : View.GONE);
     }
 
     private void checkFavoriteStatus() {
@@ -202,9 +259,11 @@ public class MenuDetailActivity extends AppCompatActivity {
             }
         });
 
+        // No more than the portions left today
+        int maxQty = menu.getStockLeft() >= 0 ? Math.min(99, menu.getStockLeft()) : 99;
         btnPlus.setOnClickListener(v -> {
             int qty = Integer.parseInt(etQuantity.getText().toString());
-            if (qty < 99) {
+            if (qty < maxQty) {
                 etQuantity.setText(String.valueOf(qty + 1));
             }
         });
@@ -221,6 +280,38 @@ public class MenuDetailActivity extends AppCompatActivity {
                 .show();
     }
 
+    private void loadOftenOrdered() {
+        List<Menu> suggestions = dbHelper.getOftenOrderedWith(menuId, 6);
+        if (suggestions.isEmpty()) {
+            cardOftenOrdered.setVisibility(View.GONE);
+            return;
+        }
+
+        cardOftenOrdered.setVisibility(View.VISIBLE);
+        rvOftenOrdered.setAdapter(new MenuSuggestionAdapter(this, suggestions,
+                new MenuSuggestionAdapter.OnSuggestionListener() {
+                    @Override
+                    public void onSuggestionClick(Menu suggestion) {
+                        Intent intent = new Intent(MenuDetailActivity.this, MenuDetailActivity.class);
+                        intent.putExtra("menu_id", suggestion.getId());
+                        startActivity(intent);
+                    }
+
+                    @Override
+                    public void onAddToCart(Menu suggestion) {
+                        long result = dbHelper.addToCart(sessionManager.getUserId(), suggestion.getId(), 1, null);
+                        if (result > 0) {
+                            Toast.makeText(MenuDetailActivity.this,
+                                    "✅ " + suggestion.getNama() + " ditambahkan ke keranjang!", Toast.LENGTH_SHORT).show();
+                            updateCartBadge();
+                        } else {
+                            Toast.makeText(MenuDetailActivity.this,
+                                    "Gagal menambahkan ke keranjang", Toast.LENGTH_SHORT).show();
+                        }
+                    }
+                }));
+    }
+
     private void addToCart(int qty, String notes) {
         int userId = sessionManager.getUserId();
 
@@ -21,7 +21,7 @@ import java.util.List;
 public class MenuListActivity extends AppCompatActivity {
     private RecyclerView rvMenus;
     private LinearLayout layoutEmpty;
-    private TextView tvEmptyMessage, tvStandName;
+    private TextView tvEmptyMessage, tvStandName, tvStandLoad;
 
     private DBHelper dbHelper;
     private SessionManager sessionManager;
@@ -59,6 +59,7 @@ public class MenuListActivity extends AppCompatActivity {
 
         // Initialize views
         tvStandName = findViewById(R.id.tvStandName);
+        tvStandLoad = findViewById(R.id.tvStandLoad);
         rvMenus = findViewById(R.id.rvMenus);
         layoutEmpty = findViewById(R.id.layoutEmpty);
         tvEmptyMessage = findViewById(R.id.tvEmptyMessage);
@@ -77,7 +78,9 @@ public class MenuListActivity extends AppCompatActivity {
     }
 
     private void loadMenus() {
-        menus = dbHelper.getMenusByStand(standId);
+        // Ranked for this buyer: favorites, past orders, time of day, rating
+        menus = dbHelper.getMenusByStand(standId, sessionManager.getUserId());
+        showStandLoad();
 
         if (menus.isEmpty()) {
             rvMenus.setVisibility(View.GONE);
@@ -110,10 +113,26 @@ public class MenuListActivity extends AppCompatActivity {
                             toggleFavorite(menu);
                         }
                     });
+            adapter.setFavoriteIds(dbHelper.getFavoriteMenuIds(sessionManager.getUserId()));
             rvMenus.setAdapter(adapter);
         }
     }
 
+    /**
+     * Queue depth banner: "busy, estimated wait X min"
+     */
+    private void showStandLoad() {
+        StandLoad load = dbHelper.getStandLoad(standId);
+        String text = load != null ? load.getStatusText() : null;
+
+        if (text == null) {
+            tvStandLoad.setVisibility(View.GONE);
+        } else {
+            tvStandLoad.setVisibility(View.VISIBLE);
+            tvStandLoad.setText(text);
+        }
+    }
+
     private void addToCartQuick(Menu menu) {
         if (!menu.getStatus().equals("available")) {
             Toast.makeText(this, "Menu tidak tersedia saat ini", Toast.LENGTH_SHORT).show();
@@ -149,8 +168,8 @@ public class MenuListActivity extends AppCompatActivity {
             }
         }
 
-        // Reload to update UI
-        loadMenus();
+        // Update only this card (favorite ids are already in memory)
+        adapter.notifyMenuChanged(menu);
     }
 
     @Override
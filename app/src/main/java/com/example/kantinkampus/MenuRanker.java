@@ -0,0 +1,107 @@
+package com.example.kantinkampus;
+
+import android.util.SparseBooleanArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MENU RANKER
+ * Orders a menu list for one buyer instead of newest first. Score per menu:
+ * - favorite
+ * - how often the buyer ordered it, and how often at this time of day
+ * - rating, pulled towards RATING_PRIOR while it has few reviews
+ * Sold out menus go last. Scores live in a float[] and the sort runs over
+ * packed long keys, so ranking a stand costs no queries and no boxing.
+ */
+public final class MenuRanker {
+
+    public static final int DAYPARTS = 4;
+    private static final int[] DAYPART_END_HOURS = {11, 14, 17, 24}; // pagi, siang, sore, malam
+
+    private static final float W_FAVORITE = 3f;
+    private static final float W_ORDERS = 1.5f;
+    private static final float W_DAYPART = 1f;
+    private static final float W_RATING = 1f;
+    private static final float RATING_PRIOR = 3.5f;
+    private static final int RATING_PRIOR_REVIEWS = 5; // the prior counts as this many reviews
+    private static final float UNAVAILABLE_PENALTY = 100f;
+
+    private MenuRanker() {}
+
+    public static int daypartOf(int hour) {
+        for (int i = 0; i < DAYPARTS - 1; i++) {
+            if (hour < DAYPART_END_HOURS[i]) return i;
+        }
+        return DAYPARTS - 1;
+    }
+
+    /**
+     * Same bucketing in SQL, for the user_affinity trigger and backfill
+     */
+    static String daypartSql(String hourExpr) {
+        StringBuilder sql = new StringBuilder("CASE");
+        for (int i = 0; i < DAYPARTS - 1; i++) {
+            sql.append(" WHEN ").append(hourExpr).append(" < ").append(DAYPART_END_HOURS[i])
+                    .append(" THEN ").append(i);
+        }
+        return sql.append(" ELSE ").append(DAYPARTS - 1).append(" END").toString();
+    }
+
+    /**
+     * @return a new list, best match first; ties keep the input order
+     */
+    public static List<Menu> rank(List<Menu> menus, UserAffinity affinity,
+                                  SparseBooleanArray favoriteIds, int daypart) {
+        int n = menus.size();
+        float[] scores = new float[n];
+        for (int i = 0; i < n; i++) {
+            scores[i] = score(menus.get(i), affinity, favoriteIds, daypart);
+        }
+
+        // High 32 bits: -score as an order-preserving int, low 32 bits: original position
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) sortableBits(-scores[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        List<Menu> ranked = new ArrayList<>(n);
+        for (long key : keys) {
+            ranked.add(menus.get((int) key));
+        }
+        return ranked;
+    }
+
+    private static float score(Menu menu, UserAffinity affinity, SparseBooleanArray favoriteIds, int daypart) {
+        float score = 0f;
+        int menuId = menu.getId();
+
+        if (favoriteIds != null && favoriteIds.get(menuId)) {
+            score += W_FAVORITE;
+        }
+        if (affinity != null) {
+            score += W_ORDERS * (float) Math.log1p(affinity.getOrders(menuId));
+            score += W_DAYPART * (float) Math.log1p(affinity.getOrders(menuId, daypart));
+        }
+
+        int reviews = menu.getTotalReviews();
+        float rating = (menu.getAverageRating() * reviews + RATING_PRIOR * RATING_PRIOR_REVIEWS)
+                / (reviews + RATING_PRIOR_REVIEWS);
+        score += W_RATING * (rating - RATING_PRIOR);
+
+        if (!menu.isAvailable()) {
+            score -= UNAVAILABLE_PENALTY;
+        }
+        return score;
+    }
+
+    /**
+     * Float bits flipped so that signed int order matches float order
+     */
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.List;
+
+/**
+ * MENU SUGGESTION ADAPTER
+ * Small horizontal cards for "often ordered with": tap opens the menu, ➕ adds one to the cart
+ */
+public class MenuSuggestionAdapter extends RecyclerView.Adapter<MenuSuggestionAdapter.SuggestionViewHolder> {
+
+    private Context context;
+    private List<Menu> menuList;
+    private OnSuggestionListener listener;
+    private int imageSizePx;
+
+    public interface OnSuggestionListener {
+        void onSuggestionClick(Menu menu);
+        void onAddToCart(Menu menu);
+    }
+
+    public MenuSuggestionAdapter(Context context, List<Menu> menuList, OnSuggestionListener listener) {
+        this.context = context;
+        this.menuList = menuList;
+        this.listener = listener;
+        this.imageSizePx = ImageLoader.getInstance(context).dpToPx(64);
+    }
+
+    @NonNull
+    @Override
+    public SuggestionViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.menu_suggestion_item, parent, false);
+        return new SuggestionViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull SuggestionViewHolder holder, int position) {
+        Menu menu = menuList.get(position);
+
+        holder.tvSuggestionName.setText(menu.getNama());
+        holder.tvSuggestionPrice.setText(menu.getFormattedPrice());
+        ImageLoader.getInstance(context).load(menu.getImage(), holder.ivSuggestionImage,
+                imageSizePx, R.drawable.ic_book_placeholder);
+
+        holder.cardSuggestion.setOnClickListener(v -> listener.onSuggestionClick(menu));
+        holder.btnSuggestionAdd.setOnClickListener(v -> listener.onAddToCart(menu));
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull SuggestionViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.getInstance(context).cancel(holder.ivSuggestionImage);
+    }
+
+    @Override
+    public int getItemCount() {
+        return menuList.size();
+    }
+
+    public static class SuggestionViewHolder extends RecyclerView.ViewHolder {
+        CardView cardSuggestion;
+        ImageView ivSuggestionImage;
+        TextView tvSuggestionName, tvSuggestionPrice, btnSuggestionAdd;
+
+        public SuggestionViewHolder(@NonNull View itemView) {
+            super(itemView);
+
+            cardSuggestion = itemView.findViewById(R.id.cardSuggestion);
+            ivSuggestionImage = itemView.findViewById(R.id.ivSuggestionImage);
+            tvSuggestionName = itemView.findViewById(R.id.tvSuggestionName);
+            tvSuggestionPrice = itemView.findViewById(R.id.tvSuggestionPrice);
+            btnSuggestionAdd = itemView.findViewById(R.id.btnSuggestionAdd);
+        }
+    }
+}
@@ -86,9 +86,10 @@ public class MyStandActivity extends AppCompatActivity {
             tvStandDescription.setText(myStand.getDeskripsi() != null ?
                     myStand.getDeskripsi() : "Tidak ada deskripsi");
 
-            // Load stand image (placeholder for now)
-            // TODO: Load actual image if available
-            ivStandImage.setImageResource(R.drawable.ic_book_placeholder);
+            // Load stand image (downsampled + cached)
+            ImageLoader imageLoader = ImageLoader.getInstance(this);
+            imageLoader.load(myStand.getImage(), ivStandImage,
+                    imageLoader.dpToPx(200), R.drawable.ic_book_placeholder);
 
             // Load seller info
             User seller = dbHelper.getUserById(sellerId);
@@ -113,8 +114,8 @@ public class MyStandActivity extends AppCompatActivity {
             tvTotalMenus.setText(String.valueOf(menus.size()) + " menu");
 
             // Total orders
-            List<Order> orders = dbHelper.getOrdersBySeller(sellerId);
-            tvTotalOrders.setText(String.valueOf(orders.size()) + " pesanan");
+            int totalOrders = dbHelper.getTotalOrdersBySeller(sellerId, "all");
+            tvTotalOrders.setText(String.valueOf(totalOrders) + " pesanan");
 
             // Total revenue
             int revenue = dbHelper.getTotalRevenue(sellerId);
@@ -143,10 +144,14 @@ public class MyStandActivity extends AppCompatActivity {
         // Get views from dialog
         android.widget.EditText etName = dialogView.findViewById(R.id.etStandName);
         android.widget.EditText etDescription = dialogView.findViewById(R.id.etStandDescription);
+        android.widget.EditText etSlotCapacity = dialogView.findViewById(R.id.etSlotCapacity);
+        android.widget.EditText etMaxOpenItems = dialogView.findViewById(R.id.etMaxOpenItems);
 
         // Set current values
         etName.setText(myStand.getNama());
         etDescription.setText(myStand.getDeskripsi());
+        etSlotCapacity.setText(String.valueOf(myStand.getSlotCapacity()));
+        etMaxOpenItems.setText(String.valueOf(myStand.getMaxOpenItems()));
 
         builder.setPositiveButton("Simpan", (dialog, which) -> {
             String name = etName.getText().toString().trim();
@@ -158,8 +163,14 @@ public class MyStandActivity extends AppCompatActivity {
                 return;
             }
 
+            int slotCapacity = parseLimit(etSlotCapacity);
+            int maxOpenItems = parseLimit(etMaxOpenItems);
+
             // Update stand
             int result = dbHelper.updateStand(myStand.getId(), name, description, null);
+            if (result > 0) {
+                dbHelper.updateStandCapacity(myStand.getId(), slotCapacity, maxOpenItems);
+            }
 
             if (result > 0) {
                 Toast.makeText(this, "✅ Stand berhasil diupdate!",
@@ -176,6 +187,17 @@ public class MyStandActivity extends AppCompatActivity {
         builder.show();
     }
 
+    /**
+     * Empty or invalid = 0 (no limit)
+     */
+    private int parseLimit(android.widget.EditText editText) {
+        try {
+            return Integer.parseInt(editText.getText().toString().trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     private void openManageMenus() {
         Intent intent = new Intent(this, SellerManageMenusActivity.class);
         intent.putExtra("stand_id", myStand.getId());
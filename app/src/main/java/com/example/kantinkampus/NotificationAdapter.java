@@ -0,0 +1,97 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.List;
+
+/**
+ * NOTIFICATION ADAPTER
+ * Inbox list, pages are appended as the user scrolls
+ */
+public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapter.NotificationViewHolder> {
+
+    private Context context;
+    private List<Notification> notificationList;
+    private OnNotificationClickListener listener;
+
+    public interface OnNotificationClickListener {
+        void onNotificationClick(Notification notification, int position);
+    }
+
+    public NotificationAdapter(Context context, List<Notification> notificationList,
+                               OnNotificationClickListener listener) {
+        this.context = context;
+        this.notificationList = notificationList;
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public NotificationViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.notification_item, parent, false);
+        return new NotificationViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull NotificationViewHolder holder, int position) {
+        Notification notif = notificationList.get(position);
+
+        holder.tvNotifTitle.setText(notif.getTitle());
+        holder.tvNotifMessage.setText(notif.getMessage());
+        holder.tvNotifDate.setText(notif.getCreatedAt());
+
+        // Unread = highlighted card + dot
+        holder.viewUnreadDot.setVisibility(notif.isRead() ? View.INVISIBLE : View.VISIBLE);
+        holder.cardNotification.setCardBackgroundColor(context.getResources().getColor(
+                notif.isRead() ? R.color.white : R.color.light_orange));
+
+        holder.cardNotification.setOnClickListener(v ->
+                listener.onNotificationClick(notif, holder.getAdapterPosition()));
+    }
+
+    @Override
+    public int getItemCount() {
+        return notificationList.size();
+    }
+
+    /**
+     * Append the next page
+     */
+    public void addPage(List<Notification> page) {
+        int start = notificationList.size();
+        notificationList.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
+    /**
+     * Mark every loaded item as read (after markAllNotificationsRead)
+     */
+    public void markAllRead() {
+        for (Notification notif : notificationList) {
+            notif.setRead(true);
+        }
+        notifyDataSetChanged();
+    }
+
+    public static class NotificationViewHolder extends RecyclerView.ViewHolder {
+        CardView cardNotification;
+        View viewUnreadDot;
+        TextView tvNotifTitle, tvNotifMessage, tvNotifDate;
+
+        public NotificationViewHolder(@NonNull View itemView) {
+            super(itemView);
+
+            cardNotification = itemView.findViewById(R.id.cardNotification);
+            viewUnreadDot = itemView.findViewById(R.id.viewUnreadDot);
+            tvNotifTitle = itemView.findViewById(R.id.tvNotifTitle);
+            tvNotifMessage = itemView.findViewById(R.id.tvNotifMessage);
+            tvNotifDate = itemView.findViewById(R.id.tvNotifDate);
+        }
+    }
+}
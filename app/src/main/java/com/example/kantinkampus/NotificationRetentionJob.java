@@ -0,0 +1,62 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * NOTIFICATION RETENTION JOB
+ * Deletes read notifications older than a configurable age, in bounded batches,
+ * on a background thread. Runs at most once per interval.
+ */
+public class NotificationRetentionJob {
+    private static final String TAG = "NotifRetention";
+    private static final String PREF_NAME = "KantinKampusMaintenance";
+    private static final String KEY_LAST_RUN = "notifRetentionLastRun";
+
+    public static final int DEFAULT_MAX_AGE_DAYS = 30;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    private static final long RUN_INTERVAL_MS = 24L * 60 * 60 * 1000; // once a day
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final Context context;
+    private final int maxAgeDays;
+    private final int batchSize;
+
+    public NotificationRetentionJob(Context context) {
+        this(context, DEFAULT_MAX_AGE_DAYS, DEFAULT_BATCH_SIZE);
+    }
+
+    public NotificationRetentionJob(Context context, int maxAgeDays, int batchSize) {
+        this.context = context.getApplicationContext();
+        this.maxAgeDays = maxAgeDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Schedule the cleanup if it has not run within the last interval
+     */
+    public void runIfDue() {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        long now = System.currentTimeMillis();
+
+        if (now - prefs.getLong(KEY_LAST_RUN, 0) < RUN_INTERVAL_MS) {
+            return;
+        }
+        prefs.edit().putLong(KEY_LAST_RUN, now).apply();
+
+        executor.execute(() -> {
+            try {
+                DBHelper dbHelper = new DBHelper(context);
+                int deleted = dbHelper.deleteOldReadNotifications(maxAgeDays, batchSize);
+                Log.d(TAG, "Retention finished, " + deleted + " notifications removed");
+            } catch (Exception e) {
+                Log.e(TAG, "Retention failed: " + e.getMessage(), e);
+            }
+        });
+    }
+}
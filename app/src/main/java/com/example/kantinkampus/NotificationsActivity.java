@@ -1,11 +1,13 @@
 package com.example.kantinkampus;
 
-import android.content.Intent;
 import android.os.Bundle;
+import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.LinearLayout;
 import android.widget.TextView;
+import android.widget.Toast;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -16,15 +18,23 @@ import java.util.List;
 /**
  * NOTIFICATIONS ACTIVITY
  * Shows notifications for both seller and buyer
+ * Inbox is loaded page by page (keyset pagination) while scrolling
  */
 public class NotificationsActivity extends AppCompatActivity {
+    private static final int PAGE_SIZE = 20;
+
     private RecyclerView rvNotifications;
     private LinearLayout layoutEmpty;
     private TextView tvEmptyMessage;
 
     private DBHelper dbHelper;
     private SessionManager sessionManager;
-    private List<Notification> notifications;
+    private NotificationAdapter notificationAdapter;
+    private LinearLayoutManager layoutManager;
+
+    private int userId;
+    private int lastLoadedId = 0; // keyset cursor, 0 = first page
+    private boolean hasMore = true;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -34,6 +44,7 @@ public class NotificationsActivity extends AppCompatActivity {
         // Initialize
         dbHelper = new DBHelper(this);
         sessionManager = new SessionManager(this);
+        userId = sessionManager.getUserId();
 
         // Setup toolbar
         Toolbar toolbar = findViewById(R.id.toolbar);
@@ -49,38 +60,79 @@ public class NotificationsActivity extends AppCompatActivity {
         tvEmptyMessage = findViewById(R.id.tvEmptyMessage);
 
         // Setup RecyclerView
-        rvNotifications.setLayoutManager(new LinearLayoutManager(this));
-        notifications = new ArrayList<>();
+        layoutManager = new LinearLayoutManager(this);
+        rvNotifications.setLayoutManager(layoutManager);
+        notificationAdapter = new NotificationAdapter(this, new ArrayList<>(),
+                (notification, position) -> {
+                    if (!notification.isRead()) {
+                        dbHelper.markNotificationRead(notification.getId());
+                        notification.setRead(true);
+                        notificationAdapter.notifyItemChanged(position);
+                    }
+                });
+        rvNotifications.setAdapter(notificationAdapter);
+
+        // Load next page when near the end of the list
+        rvNotifications.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && hasMore
+                        && layoutManager.findLastVisibleItemPosition() >= notificationAdapter.getItemCount() - 5) {
+                    loadNextPage();
+                }
+            }
+        });
+
+        // Load first page
+        loadNextPage();
 
-        // Load notifications
-        loadNotifications();
+        // Clean up old read notifications in the background
+        new NotificationRetentionJob(this).runIfDue();
     }
 
-    private void loadNotifications() {
-        int userId = sessionManager.getUserId();
-        notifications = dbHelper.getUnreadNotifications(userId);
+    private void loadNextPage() {
+        List<Notification> page = dbHelper.getNotificationsPage(userId, lastLoadedId, PAGE_SIZE);
 
-        if (notifications.isEmpty()) {
+        if (page.size() < PAGE_SIZE) {
+            hasMore = false;
+        }
+        if (!page.isEmpty()) {
+            lastLoadedId = page.get(page.size() - 1).getId();
+            notificationAdapter.addPage(page);
+        }
+
+        updateEmptyState();
+    }
+
+    private void updateEmptyState() {
+        if (notificationAdapter.getItemCount() == 0) {
             rvNotifications.setVisibility(View.GONE);
             layoutEmpty.setVisibility(View.VISIBLE);
             tvEmptyMessage.setText("🔔 Tidak ada notifikasi baru\n\nAnda akan menerima notifikasi untuk:\n• Pesanan baru (Penjual)\n• Status pesanan (Pembeli)\n• Verifikasi pembayaran\n• Dan lainnya");
         } else {
             rvNotifications.setVisibility(View.VISIBLE);
             layoutEmpty.setVisibility(View.GONE);
-
-            // TODO: Create NotificationAdapter
-            // For now, show count
-            tvEmptyMessage.setText("Ada " + notifications.size() + " notifikasi");
-            layoutEmpty.setVisibility(View.VISIBLE);
         }
     }
 
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.notifications_menu, menu);
+        return true;
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
             finish();
             return true;
+        } else if (item.getItemId() == R.id.action_mark_all_read) {
+            int rows = dbHelper.markAllNotificationsRead(userId);
+            notificationAdapter.markAllRead();
+            Toast.makeText(this, "✅ " + rows + " notifikasi ditandai dibaca",
+                    Toast.LENGTH_SHORT).show();
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
-}
\ No newline at end of file
+}
@@ -15,6 +15,7 @@ public class Order {
     private String notes; // buyer_notes
     private String createdAt;
     private String updatedAt;
+    private String pickupSlot; // "yyyy-MM-dd HH:mm", null = as soon as possible
 
     // For display
     private String standName;
@@ -60,6 +61,23 @@ public class Order {
     public String getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(String updatedAt) { this.updatedAt = updatedAt; }
 
+    public String getPickupSlot() { return pickupSlot; }
+    public void setPickupSlot(String pickupSlot) { this.pickupSlot = pickupSlot; }
+
+    /**
+     * "12:15 - 12:30", or "Secepatnya" without a slot
+     */
+    public String getPickupDisplay() {
+        return formatPickupSlot(pickupSlot);
+    }
+
+    public static String formatPickupSlot(String slot) {
+        if (slot == null || slot.length() < 16) return "Secepatnya";
+        int hour = Integer.parseInt(slot.substring(11, 13));
+        int minute = Integer.parseInt(slot.substring(14, 16)) + DBHelper.PICKUP_SLOT_MINUTES;
+        return slot.substring(11, 16) + " - " + String.format("%02d:%02d", (hour + minute / 60) % 24, minute % 60);
+    }
+
     public String getStandName() { return standName; }
     public void setStandName(String standName) { this.standName = standName; }
 
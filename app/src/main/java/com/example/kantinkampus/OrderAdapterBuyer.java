@@ -9,22 +9,36 @@ import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * ORDER ADAPTER FOR BUYER
  * Displays order history with status indicators
+ * Open orders show a ready ETA: items queued ahead at the stand + the cook
+ * time of the order's own menus, never before its pickup slot
  */
 public class OrderAdapterBuyer extends RecyclerView.Adapter<OrderAdapterBuyer.ViewHolder> {
     private Context context;
     private List<Order> orders;
     private OnOrderClickListener listener;
+    private EtaSource etaSource;
+    private final Map<Integer, StandLoad> standLoads = new HashMap<>(); // one lookup per stand
+    private final Map<Integer, long[]> prepEstimates = new HashMap<>(); // one lookup per open order
 
     public interface OnOrderClickListener {
         void onOrderClick(Order order);
     }
 
+    public interface EtaSource {
+        StandLoad getStandLoad(int standId);
+        long[] getOrderPrepEstimate(int orderId); // {cook ms, item qty}
+    }
+
     public OrderAdapterBuyer(Context context, List<Order> orders, OnOrderClickListener listener) {
         this.context = context;
         this.orders = orders;
@@ -49,9 +63,55 @@ public class OrderAdapterBuyer extends RecyclerView.Adapter<OrderAdapterBuyer.Vi
         return orders.size();
     }
 
+    public void setEtaSource(EtaSource etaSource) {
+        this.etaSource = etaSource;
+    }
+
+    /**
+     * "⏱️ Siap ± X menit lagi", or null for orders that are not in the queue
+     */
+    private String getEtaText(Order order) {
+        // Completed, cancelled, ready: nothing to look up
+        if (etaSource == null || !StandLoad.isQueued(order.getStatus())) return null;
+
+        StandLoad load = standLoads.get(order.getStandId());
+        if (load == null && !standLoads.containsKey(order.getStandId())) {
+            load = etaSource.getStandLoad(order.getStandId());
+            standLoads.put(order.getStandId(), load);
+        }
+        if (load == null) return null;
+
+        long[] estimate = prepEstimates.get(order.getId());
+        if (estimate == null) {
+            estimate = etaSource.getOrderPrepEstimate(order.getId());
+            prepEstimates.put(order.getId(), estimate);
+        }
+
+        long since = System.currentTimeMillis();
+        try {
+            Date updated = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).parse(order.getUpdatedAt());
+            if (updated != null) since = updated.getTime();
+        } catch (Exception e) {
+            // keep "now"
+        }
+
+        int minutes = load.getEtaMinutes(order.getStatus(), since, System.currentTimeMillis(),
+                estimate[0], (int) estimate[1], DBHelper.getPickupSlotLeadMs(order.getPickupSlot()));
+        return minutes < 0 ? null : "⏱️ Siap ± " + minutes + " menit lagi";
+    }
+
+    /**
+     * Append the next history page
+     */
+    public void addPage(List<Order> page) {
+        int start = orders.size();
+        orders.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
     class ViewHolder extends RecyclerView.ViewHolder {
         CardView cardOrder;
-        TextView tvOrderId, tvStandName, tvTotal, tvStatus, tvDate, tvPaymentMethod;
+        TextView tvOrderId, tvStandName, tvTotal, tvStatus, tvDate, tvPaymentMethod, tvEta;
         View statusIndicator;
 
         public ViewHolder(@NonNull View itemView) {
@@ -63,6 +123,7 @@ public class OrderAdapterBuyer extends RecyclerView.Adapter<OrderAdapterBuyer.Vi
             tvStatus = itemView.findViewById(R.id.tvStatus);
             tvDate = itemView.findViewById(R.id.tvDate);
             tvPaymentMethod = itemView.findViewById(R.id.tvPaymentMethod);
+            tvEta = itemView.findViewById(R.id.tvEta);
             statusIndicator = itemView.findViewById(R.id.statusIndicator);
         }
 
@@ -70,9 +131,16 @@ public class OrderAdapterBuyer extends RecyclerView.Adapter<OrderAdapterBuyer.Vi
             tvOrderId.setText("Pesanan #" + order.getId());
             tvStandName.setText("🏪 " + order.getStandName());
             tvTotal.setText(formatPrice(order.getTotal()));
-            tvDate.setText("📅 " + order.getCreatedAt());
+            tvDate.setText("📅 " + order.getCreatedAt() +
+                    (order.getPickupSlot() != null ? "\n⏰ Ambil " + order.getPickupDisplay() : ""));
             tvPaymentMethod.setText("💳 " + order.getPaymentMethod());
 
+            String eta = getEtaText(order);
+            tvEta.setVisibility(eta != null ? View.VISIBLE : View.GONE);
+            if (eta != null) {
+                tvEta.setText(eta);
+            }
+
             // Set status with color
             String status = order.getStatus();
             String statusText = "";
@@ -4,15 +4,20 @@ import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.CheckBox;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * ORDER ADAPTER FOR SELLER
  * Shows order list with actions based on status
+ * Long-press a card to enter multi-select mode for bulk actions
  */
 public class OrderAdapterSeller extends RecyclerView.Adapter<OrderAdapterSeller.OrderViewHolder> {
 
@@ -20,11 +25,16 @@ public class OrderAdapterSeller extends RecyclerView.Adapter<OrderAdapterSeller.
     private List<Order> orderList;
     private OnOrderClickListener listener;
 
+    // Multi-select (bulk actions)
+    private boolean selectionMode = false;
+    private Set<Integer> selectedIds = new LinkedHashSet<>();
+
     public interface OnOrderClickListener {
         void onOrderClick(Order order);
         void onVerifyPayment(Order order);
         void onUpdateStatus(Order order);
         void onCancelOrder(Order order);
+        void onSelectionChanged(int selectedCount);
     }
 
     public OrderAdapterSeller(Context context, List<Order> orderList, OnOrderClickListener listener) {
@@ -107,8 +117,29 @@ public class OrderAdapterSeller extends RecyclerView.Adapter<OrderAdapterSeller.
             holder.layoutActions.setVisibility(View.GONE);
         }
 
+        // Selection state
+        holder.cbSelect.setVisibility(selectionMode ? View.VISIBLE : View.GONE);
+        holder.cbSelect.setChecked(selectedIds.contains(order.getId()));
+        if (selectionMode) {
+            holder.layoutActions.setVisibility(View.GONE);
+        }
+
         // Set click listeners
-        holder.cardOrder.setOnClickListener(v -> listener.onOrderClick(order));
+        holder.cardOrder.setOnClickListener(v -> {
+            if (selectionMode) {
+                toggleSelection(order.getId());
+            } else {
+                listener.onOrderClick(order);
+            }
+        });
+        holder.cardOrder.setOnLongClickListener(v -> {
+            if (!canBulkProcess(status)) {
+                return false;
+            }
+            selectionMode = true;
+            toggleSelection(order.getId());
+            return true;
+        });
         holder.btnVerify.setOnClickListener(v -> listener.onVerifyPayment(order));
         holder.btnUpdateStatus.setOnClickListener(v -> listener.onUpdateStatus(order));
         holder.btnCancel.setOnClickListener(v -> listener.onCancelOrder(order));
@@ -119,13 +150,57 @@ public class OrderAdapterSeller extends RecyclerView.Adapter<OrderAdapterSeller.
         return orderList.size();
     }
 
+    /**
+     * Append the next history page
+     */
+    public void addPage(List<Order> page) {
+        int start = orderList.size();
+        orderList.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
     public void updateList(List<Order> newList) {
         this.orderList = newList;
         notifyDataSetChanged();
     }
 
+    private void toggleSelection(int orderId) {
+        if (!selectedIds.remove(orderId)) {
+            selectedIds.add(orderId);
+        }
+        if (selectedIds.isEmpty()) {
+            selectionMode = false;
+        }
+        notifyDataSetChanged();
+        listener.onSelectionChanged(selectedIds.size());
+    }
+
+    /**
+     * Only orders with a next step in the kitchen flow can be bulk processed
+     */
+    private boolean canBulkProcess(String status) {
+        return "pending_verification".equals(status) || "verified".equals(status)
+                || "cooking".equals(status) || "ready".equals(status);
+    }
+
+    public boolean isSelectionMode() {
+        return selectionMode;
+    }
+
+    public List<Integer> getSelectedIds() {
+        return new ArrayList<>(selectedIds);
+    }
+
+    public void clearSelection() {
+        selectionMode = false;
+        selectedIds.clear();
+        notifyDataSetChanged();
+        listener.onSelectionChanged(0);
+    }
+
     public static class OrderViewHolder extends RecyclerView.ViewHolder {
         CardView cardOrder;
+        CheckBox cbSelect;
         TextView tvOrderId, tvBuyerName, tvOrderTotal, tvOrderDate;
         TextView tvOrderStatus, tvPaymentMethod;
         View layoutActions;
@@ -135,6 +210,7 @@ public class OrderAdapterSeller extends RecyclerView.Adapter<OrderAdapterSeller.
             super(itemView);
 
             cardOrder = itemView.findViewById(R.id.cardOrder);
+            cbSelect = itemView.findViewById(R.id.cbSelect);
             tvOrderId = itemView.findViewById(R.id.tvOrderId);
             tvBuyerName = itemView.findViewById(R.id.tvBuyerName);
             tvOrderTotal = itemView.findViewById(R.id.tvOrderTotal);
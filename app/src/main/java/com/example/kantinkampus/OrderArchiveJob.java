@@ -0,0 +1,86 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ORDER ARCHIVE JOB
+ * Moves completed/cancelled orders older than a configurable age into
+ * orders_archive / order_items_archive, in bounded batches, on a background
+ * thread. Runs at most once per interval.
+ * Also drops pickup slot counters of past days, trims the "often ordered
+ * with" pairs to the top partners per menu, and restocks daily-stock menus
+ * on the first run of each calendar day.
+ */
+public class OrderArchiveJob {
+    private static final String TAG = "OrderArchive";
+    private static final String PREF_NAME = "KantinKampusMaintenance";
+    private static final String KEY_LAST_RUN = "orderArchiveLastRun";
+    private static final String KEY_RESTOCK_DAY = "menuRestockDay";
+
+    public static final int DEFAULT_MAX_AGE_DAYS = 14;
+    public static final int DEFAULT_BATCH_SIZE = 200;
+    private static final long RUN_INTERVAL_MS = 24L * 60 * 60 * 1000; // once a day
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final Context context;
+    private final int maxAgeDays;
+    private final int batchSize;
+
+    public OrderArchiveJob(Context context) {
+        this(context, DEFAULT_MAX_AGE_DAYS, DEFAULT_BATCH_SIZE);
+    }
+
+    public OrderArchiveJob(Context context, int maxAgeDays, int batchSize) {
+        this.context = context.getApplicationContext();
+        this.maxAgeDays = maxAgeDays;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Restock once per calendar day; schedule the archive run if it has not
+     * run within the last interval
+     */
+    public void runIfDue() {
+        SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        long now = System.currentTimeMillis();
+
+        String today = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date(now));
+        if (!today.equals(prefs.getString(KEY_RESTOCK_DAY, null))) {
+            prefs.edit().putString(KEY_RESTOCK_DAY, today).apply();
+            executor.execute(() -> {
+                try {
+                    int revived = new DBHelper(context).restockDailyMenus();
+                    Log.d(TAG, "Daily restock, " + revived + " sold-out menus available again");
+                } catch (Exception e) {
+                    Log.e(TAG, "Restock failed: " + e.getMessage(), e);
+                }
+            });
+        }
+
+        if (now - prefs.getLong(KEY_LAST_RUN, 0) < RUN_INTERVAL_MS) {
+            return;
+        }
+        prefs.edit().putLong(KEY_LAST_RUN, now).apply();
+
+        executor.execute(() -> {
+            try {
+                DBHelper dbHelper = new DBHelper(context);
+                int archived = dbHelper.archiveOldOrders(maxAgeDays, batchSize);
+                int slots = dbHelper.deletePastPickupSlots();
+                dbHelper.pruneMenuPairs();
+                Log.d(TAG, "Archive finished, " + archived + " orders moved, " + slots + " past slots dropped");
+            } catch (Exception e) {
+                Log.e(TAG, "Archive failed: " + e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.kantinkampus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ORDER HISTORY PAGER
+ * Keyset paging over the hot orders table, then over orders_archive.
+ * The archive is only read once the hot set is exhausted, i.e. when the
+ * user scrolls past the last recent order.
+ */
+public class OrderHistoryPager {
+
+    public interface PageSource {
+        List<Order> load(boolean archived, int beforeId, int limit);
+    }
+
+    private final PageSource source;
+    private final int pageSize;
+    private final boolean includeArchive;
+
+    private boolean archived = false;
+    private int lastId = 0; // keyset cursor within the current tier, 0 = first page
+    private boolean hasMore = true;
+
+    /**
+     * @param includeArchive false for filters that only match open orders
+     *                       (the archive holds completed/cancelled orders only)
+     */
+    public OrderHistoryPager(int pageSize, boolean includeArchive, PageSource source) {
+        this.pageSize = pageSize;
+        this.includeArchive = includeArchive;
+        this.source = source;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Next page; tops up from the archive when the hot tier runs out
+     */
+    public List<Order> nextPage() {
+        List<Order> page = new ArrayList<>();
+
+        while (hasMore && page.size() < pageSize) {
+            int wanted = pageSize - page.size();
+            List<Order> part = source.load(archived, lastId, wanted);
+            page.addAll(part);
+
+            if (!part.isEmpty()) {
+                lastId = part.get(part.size() - 1).getId();
+            }
+            if (part.size() < wanted) {
+                if (archived || !includeArchive) {
+                    hasMore = false;
+                } else {
+                    archived = true;
+                    lastId = 0;
+                }
+            }
+        }
+
+        return page;
+    }
+}
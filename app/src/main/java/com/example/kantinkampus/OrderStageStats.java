@@ -0,0 +1,80 @@
+package com.example.kantinkampus;
+
+import java.util.Locale;
+
+/**
+ * ORDER STAGE STATS
+ * Per-stand latency of one order stage, computed from order_events:
+ * - VERIFICATION: pending_verification -> verified (seller checks the payment)
+ * - COOK: cooking -> ready
+ * - PICKUP: ready -> completed (buyer picks the order up)
+ */
+public class OrderStageStats {
+    public static final String[][] STAGES = {
+            {"pending_verification", "verified"},
+            {"cooking", "ready"},
+            {"ready", "completed"}
+    };
+    public static final int STAGE_VERIFICATION = 0;
+    public static final int STAGE_COOK = 1;
+    public static final int STAGE_PICKUP = 2;
+
+    private final int standId;
+    private final int stage;
+    private final int count;
+    private final long p50Ms;
+    private final long p95Ms;
+
+    public OrderStageStats(int standId, int stage, long[] sortedDurations, int count) {
+        this.standId = standId;
+        this.stage = stage;
+        this.count = count;
+        this.p50Ms = percentile(sortedDurations, count, 50);
+        this.p95Ms = percentile(sortedDurations, count, 95);
+    }
+
+    /**
+     * Nearest-rank percentile over the first n (sorted) values
+     */
+    static long percentile(long[] sorted, int n, int p) {
+        if (n == 0) return 0;
+        int rank = (int) Math.ceil(p / 100.0 * n);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    public int getStandId() {
+        return standId;
+    }
+
+    public int getStage() {
+        return stage;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getP50Ms() {
+        return p50Ms;
+    }
+
+    public long getP95Ms() {
+        return p95Ms;
+    }
+
+    /**
+     * "3 mnt · 9 mnt", or "-" when no order went through this stage
+     */
+    public String format() {
+        if (count == 0) return "-";
+        return formatDuration(p50Ms) + " · " + formatDuration(p95Ms);
+    }
+
+    static String formatDuration(long ms) {
+        long seconds = ms / 1000;
+        if (seconds < 60) return seconds + " dtk";
+        long minutes = seconds / 60;
+        if (minutes < 60) return minutes + " mnt";
+        return String.format(Locale.getDefault(), "%d j %d mnt", minutes / 60, minutes % 60);
+    }
+}
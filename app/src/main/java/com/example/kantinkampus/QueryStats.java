@@ -0,0 +1,313 @@
+package com.example.kantinkampus;
+
+import android.database.sqlite.SQLiteDatabaseLockedException;
+import android.database.sqlite.SQLiteException;
+import android.util.Log;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * QUERY STATS
+ * Per-DBHelper-method instrumentation, fed by DBHelper's rawQuery/insert/update/delete wrappers:
+ * - call count, rows, total time (LongAdder = striped, lock-free)
+ * - latency histogram, 4 log-linear buckets per power of two (~19% resolution) -> p50/p95/p99
+ * - slow-query ring buffer with SQL + bind-argument shape (never the values)
+ * - SQLite errors per method, lock/busy errors counted separately
+ */
+public class QueryStats {
+    private static final String TAG = "QueryStats";
+
+    public static final long DEFAULT_SLOW_THRESHOLD_MS = 50;
+    private static final int SLOW_LOG_SIZE = 50;
+
+    // 4 sub-buckets per power of two, up to 2^26 us (~67 s)
+    private static final int SUB_BUCKETS = 4;
+    private static final int MAX_POWER = 26;
+    private static final int BUCKET_COUNT = (MAX_POWER + 1) * SUB_BUCKETS;
+
+    private static QueryStats instance;
+
+    private final ConcurrentHashMap<String, MethodStats> methods = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<SlowQuery> slowLog = new AtomicReferenceArray<>(SLOW_LOG_SIZE);
+    private final AtomicInteger slowLogNext = new AtomicInteger();
+    private final LongAdder lockErrors = new LongAdder();
+    private volatile long slowThresholdNs = DEFAULT_SLOW_THRESHOLD_MS * 1_000_000L;
+    private volatile long lastActivityMs = 0; // wall clock of the last recorded statement
+
+    public static synchronized QueryStats getInstance() {
+        if (instance == null) {
+            instance = new QueryStats();
+        }
+        return instance;
+    }
+
+    private QueryStats() {
+    }
+
+    public void setSlowThresholdMs(long thresholdMs) {
+        slowThresholdNs = thresholdMs * 1_000_000L;
+    }
+
+    /**
+     * Record one statement
+     * @param method DBHelper public method the statement belongs to
+     * @param startNs System.nanoTime() taken before the statement
+     * @param rows rows returned (queries) or affected (writes)
+     */
+    public void record(String method, String sql, Object[] args, long startNs, long rows) {
+        long elapsedNs = System.nanoTime() - startNs;
+        lastActivityMs = System.currentTimeMillis();
+
+        MethodStats stats = getStats(method);
+        stats.calls.increment();
+        stats.rows.add(rows);
+        stats.totalNs.add(elapsedNs);
+        stats.buckets[bucketFor(elapsedNs / 1000)].increment();
+
+        if (elapsedNs >= slowThresholdNs) {
+            SlowQuery slow = new SlowQuery(method, sql, argShape(args), elapsedNs, rows, System.currentTimeMillis());
+            slowLog.set(Math.floorMod(slowLogNext.getAndIncrement(), SLOW_LOG_SIZE), slow);
+            Log.w(TAG, "🐢 Slow query in " + method + " (" + elapsedNs / 1_000_000 + " ms, "
+                    + rows + " rows): " + sql + " " + slow.argShape);
+        }
+    }
+
+    /**
+     * Record a failed statement (the caller still rethrows)
+     */
+    public void recordError(String method, SQLiteException e) {
+        lastActivityMs = System.currentTimeMillis();
+        getStats(method).errors.increment();
+        if (isLockError(e)) {
+            lockErrors.increment();
+        }
+    }
+
+    public static boolean isLockError(Exception e) {
+        if (e instanceof SQLiteDatabaseLockedException) return true;
+        String message = e.getMessage();
+        return message != null && (message.contains("locked") || message.contains("busy"));
+    }
+
+    /**
+     * When the app last ran a DBHelper statement (DatabaseMaintenance idle check)
+     */
+    public long getLastActivityMs() {
+        return lastActivityMs;
+    }
+
+    /**
+     * SQLITE_BUSY / SQLITE_LOCKED failures since the last reset
+     */
+    public long getLockErrorCount() {
+        return lockErrors.sum();
+    }
+
+    public void reset() {
+        lockErrors.reset();
+        methods.clear();
+        for (int i = 0; i < SLOW_LOG_SIZE; i++) {
+            slowLog.set(i, null);
+        }
+    }
+
+    private MethodStats getStats(String method) {
+        MethodStats stats = methods.get(method);
+        if (stats == null) {
+            stats = new MethodStats();
+            MethodStats existing = methods.putIfAbsent(method, stats);
+            if (existing != null) stats = existing;
+        }
+        return stats;
+    }
+
+    // ==================== EXPORT ====================
+
+    /**
+     * Plain-text report: methods by total time, then the slow-query log
+     */
+    public String dump() {
+        List<Map.Entry<String, MethodStats>> entries = new ArrayList<>(methods.entrySet());
+        Collections.sort(entries, (a, b) -> Long.compare(b.getValue().totalNs.sum(), a.getValue().totalNs.sum()));
+
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss", Locale.ROOT);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-32s %7s %9s %9s %9s %9s %10s %6s%n",
+                "method", "calls", "rows/call", "p50 ms", "p95 ms", "p99 ms", "total ms", "errors"));
+
+        for (Map.Entry<String, MethodStats> entry : entries) {
+            MethodStats s = entry.getValue();
+            long calls = s.calls.sum();
+            long errors = s.errors.sum();
+            if (calls == 0 && errors == 0) continue;
+
+            long[] counts = s.snapshot();
+            sb.append(String.format(Locale.ROOT, "%-32s %7d %9.1f %9.2f %9.2f %9.2f %10.1f %6d%n",
+                    entry.getKey(), calls, calls > 0 ? (double) s.rows.sum() / calls : 0,
+                    percentileUs(counts, 0.50) / 1000.0,
+                    percentileUs(counts, 0.95) / 1000.0,
+                    percentileUs(counts, 0.99) / 1000.0,
+                    s.totalNs.sum() / 1e6, errors));
+        }
+        if (lockErrors.sum() > 0) {
+            sb.append("\nLock/busy errors: ").append(lockErrors.sum()).append("\n");
+        }
+
+        List<SlowQuery> slow = getSlowQueries();
+        if (!slow.isEmpty()) {
+            sb.append("\nSlow queries (>= ").append(slowThresholdNs / 1_000_000).append(" ms):\n");
+            for (SlowQuery q : slow) {
+                sb.append(String.format(Locale.ROOT, "%s %6.1f ms %5d rows  %s%n    %s %s%n",
+                        timeFormat.format(new Date(q.timestamp)),
+                        q.elapsedNs / 1e6, q.rows, q.method, q.sql, q.argShape));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    public void dumpToLog() {
+        for (String line : dump().split("\n")) {
+            Log.i(TAG, line);
+        }
+    }
+
+    /**
+     * Slow queries, newest first
+     */
+    public List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> list = new ArrayList<>();
+        for (int i = 0; i < SLOW_LOG_SIZE; i++) {
+            SlowQuery q = slowLog.get(i);
+            if (q != null) list.add(q);
+        }
+        Collections.sort(list, (a, b) -> Long.compare(b.timestamp, a.timestamp));
+        return list;
+    }
+
+    // ==================== HISTOGRAM ====================
+
+    private static int bucketFor(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(micros, 0);
+        }
+        int power = 63 - Long.numberOfLeadingZeros(micros);
+        if (power > MAX_POWER) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (micros >> (power - 2)) & (SUB_BUCKETS - 1);
+        return power * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Upper bound (us) of the bucket holding the requested percentile
+     */
+    private static long percentileUs(long[] counts, double percentile) {
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+
+        long target = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return bucketUpperUs(i);
+            }
+        }
+        return bucketUpperUs(counts.length - 1);
+    }
+
+    private static long bucketUpperUs(int index) {
+        if (index < SUB_BUCKETS) {
+            return index + 1;
+        }
+        int power = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub + 1) << (power - 2);
+    }
+
+    /**
+     * Bind-argument shape, e.g. [int, text(12), null] - types and lengths only
+     */
+    private static String argShape(Object[] args) {
+        if (args == null || args.length == 0) return "[]";
+
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) sb.append(", ");
+            Object arg = args[i];
+            if (arg == null) {
+                sb.append("null");
+            } else if (arg instanceof Number) {
+                sb.append(arg instanceof Double || arg instanceof Float ? "real" : "int");
+            } else if (arg instanceof String && isInteger((String) arg)) {
+                sb.append("int");
+            } else {
+                sb.append("text(").append(String.valueOf(arg).length()).append(")");
+            }
+        }
+        return sb.append("]").toString();
+    }
+
+    private static boolean isInteger(String value) {
+        if (value.isEmpty() || value.length() > 19) return false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && !(i == 0 && c == '-')) return false;
+        }
+        return true;
+    }
+
+    // ==================== MODELS ====================
+
+    private static class MethodStats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder totalNs = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+        MethodStats() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        long[] snapshot() {
+            long[] counts = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return counts;
+        }
+    }
+
+    public static class SlowQuery {
+        public final String method;
+        public final String sql;
+        public final String argShape;
+        public final long elapsedNs;
+        public final long rows;
+        public final long timestamp;
+
+        SlowQuery(String method, String sql, String argShape, long elapsedNs, long rows, long timestamp) {
+            this.method = method;
+            this.sql = sql;
+            this.argShape = argShape;
+            this.elapsedNs = elapsedNs;
+            this.rows = rows;
+            this.timestamp = timestamp;
+        }
+    }
+}
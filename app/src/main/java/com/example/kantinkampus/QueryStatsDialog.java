@@ -0,0 +1,62 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.graphics.Typeface;
+import android.widget.HorizontalScrollView;
+import android.widget.ScrollView;
+import android.widget.TextView;
+import android.widget.Toast;
+import androidx.appcompat.app.AlertDialog;
+
+/**
+ * QUERY STATS DIALOG
+ * Debug-build screen for QueryStats: per-method latency table + slow-query log
+ * + last DatabaseMaintenance pass, with share (plain text) and reset.
+ */
+public class QueryStatsDialog {
+
+    /**
+     * Only offered in debuggable builds
+     */
+    public static boolean isEnabled(Context context) {
+        return (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    public static void show(Context context) {
+        QueryStats stats = QueryStats.getInstance();
+        String maintenance = DatabaseMaintenance.getInstance(context).getLastReport();
+        String report = stats.dump() + (maintenance != null ? "\n" + maintenance + "\n" : "");
+        stats.dumpToLog();
+
+        TextView tvReport = new TextView(context);
+        tvReport.setText(report);
+        tvReport.setTypeface(Typeface.MONOSPACE);
+        tvReport.setTextSize(10);
+        tvReport.setPadding(40, 20, 40, 20);
+        tvReport.setTextIsSelectable(true);
+
+        HorizontalScrollView horizontal = new HorizontalScrollView(context);
+        horizontal.addView(tvReport);
+        ScrollView vertical = new ScrollView(context);
+        vertical.addView(horizontal);
+
+        new AlertDialog.Builder(context)
+                .setTitle("🐢 Statistik Query")
+                .setView(vertical)
+                .setPositiveButton("Bagikan", (dialog, which) -> {
+                    Intent share = new Intent(Intent.ACTION_SEND);
+                    share.setType("text/plain");
+                    share.putExtra(Intent.EXTRA_SUBJECT, "KantinKampus query stats");
+                    share.putExtra(Intent.EXTRA_TEXT, report);
+                    context.startActivity(Intent.createChooser(share, "Bagikan statistik"));
+                })
+                .setNeutralButton("Reset", (dialog, which) -> {
+                    stats.reset();
+                    Toast.makeText(context, "Statistik direset", Toast.LENGTH_SHORT).show();
+                })
+                .setNegativeButton("Tutup", null)
+                .show();
+    }
+}
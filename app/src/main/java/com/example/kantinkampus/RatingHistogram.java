@@ -0,0 +1,47 @@
+package com.example.kantinkampus;
+
+/**
+ * RATING HISTOGRAM
+ * Review count per star (1-5) of one menu, read from menu_ratings which
+ * addReview keeps up to date. Total and average come from the five counts,
+ * so the detail screen never scans the reviews themselves.
+ */
+public class RatingHistogram {
+    public static final int STARS = 5;
+
+    private final int[] counts = new int[STARS + 1]; // index = star, [0] unused
+
+    public void setCount(int star, int count) {
+        counts[star] = count;
+    }
+
+    public int getCount(int star) {
+        return counts[star];
+    }
+
+    public int getTotal() {
+        int total = 0;
+        for (int star = 1; star <= STARS; star++) {
+            total += counts[star];
+        }
+        return total;
+    }
+
+    public float getAverage() {
+        int total = 0;
+        int sum = 0;
+        for (int star = 1; star <= STARS; star++) {
+            total += counts[star];
+            sum += counts[star] * star;
+        }
+        return total > 0 ? (float) sum / total : 0f;
+    }
+
+    /**
+     * Share of reviews with this many stars, 0-100 (for the bar)
+     */
+    public int getPercent(int star) {
+        int total = getTotal();
+        return total > 0 ? Math.round(counts[star] * 100f / total) : 0;
+    }
+}
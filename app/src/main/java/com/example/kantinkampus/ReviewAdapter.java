@@ -0,0 +1,81 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.List;
+
+/**
+ * REVIEW ADAPTER
+ * Reviews on the menu detail screen, pages are appended as the user scrolls
+ */
+public class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ReviewViewHolder> {
+
+    private Context context;
+    private List<Review> reviewList;
+
+    public ReviewAdapter(Context context, List<Review> reviewList) {
+        this.context = context;
+        this.reviewList = reviewList;
+    }
+
+    @NonNull
+    @Override
+    public ReviewViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.review_item, parent, false);
+        return new ReviewViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ReviewViewHolder holder, int position) {
+        Review review = reviewList.get(position);
+
+        holder.tvReviewerName.setText(review.getBuyerName() != null ? review.getBuyerName() : "Pembeli");
+        holder.tvReviewStars.setText(getStars(review.getRating()));
+        holder.tvReviewDate.setText(review.getCreatedAt());
+
+        if (TextUtils.isEmpty(review.getComment())) {
+            holder.tvReviewComment.setVisibility(View.GONE);
+        } else {
+            holder.tvReviewComment.setVisibility(View.VISIBLE);
+            holder.tvReviewComment.setText(review.getComment());
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return reviewList.size();
+    }
+
+    public void addPage(List<Review> page) {
+        int start = reviewList.size();
+        reviewList.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
+    private String getStars(int rating) {
+        StringBuilder stars = new StringBuilder();
+        for (int i = 1; i <= RatingHistogram.STARS; i++) {
+            stars.append(i <= rating ? "⭐" : "☆");
+        }
+        return stars.toString();
+    }
+
+    public static class ReviewViewHolder extends RecyclerView.ViewHolder {
+        TextView tvReviewerName, tvReviewStars, tvReviewComment, tvReviewDate;
+
+        public ReviewViewHolder(@NonNull View itemView) {
+            super(itemView);
+
+            tvReviewerName = itemView.findViewById(R.id.tvReviewerName);
+            tvReviewStars = itemView.findViewById(R.id.tvReviewStars);
+            tvReviewComment = itemView.findViewById(R.id.tvReviewComment);
+            tvReviewDate = itemView.findViewById(R.id.tvReviewDate);
+        }
+    }
+}
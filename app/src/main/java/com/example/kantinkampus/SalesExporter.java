@@ -0,0 +1,269 @@
+package com.example.kantinkampus;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.DocumentsContract;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * SALES EXPORTER
+ * Streams a seller's sales history (orders x order_items) into CSV or JSON:
+ * keyset chunks of CHUNK_SIZE rows -> buffered writer, on a background thread.
+ * Each chunk cursor is closed before the next query, so exports of any size
+ * use the same memory and every query stays an index seek plus one window.
+ * A cancelled or failed export deletes its partial document, so a truncated
+ * CSV or an unclosed JSON array never passes for a complete export.
+ */
+public class SalesExporter {
+    private static final String TAG = "SalesExporter";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CHUNK_SIZE = 500; // rows per query, progress is posted per chunk
+
+    private static final String[] COLUMNS = {
+            "order_id", "created_at", "status", "payment_method", "payment_status", "buyer_name",
+            "menu_id", "menu_name", "qty", "price", "subtotal", "order_total"
+    };
+    private static final boolean[] NUMERIC = {
+            true, false, false, false, false, false,
+            true, false, true, true, true, true
+    };
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        JSON("application/json", "json");
+
+        public final String mimeType;
+        public final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+    }
+
+    public interface Listener {
+        void onProgress(int rowsWritten, int totalRows);
+        void onComplete(int rowsWritten);
+        void onCancelled(int rowsWritten);
+        void onError(String message);
+    }
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public SalesExporter(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Start an export; cancel via the returned Future
+     * Dates are "yyyy-MM-dd" (inclusive) or null
+     */
+    public Future<?> export(int sellerId, String fromDate, String toDate, Format format,
+                            Uri output, Listener listener) {
+        return executor.submit(() -> {
+            DBHelper dbHelper = new DBHelper(context);
+            Cursor cursor = null;
+            Writer writer = null;
+            int written = 0;
+            boolean finished = false;
+
+            try {
+                OutputStream out = context.getContentResolver().openOutputStream(output);
+                if (out == null) throw new IOException("Cannot open " + output);
+                writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+                int total = dbHelper.getSalesExportCount(sellerId, fromDate, toDate);
+                writeHeader(writer, format);
+
+                String lastCreatedAt = null;
+                int lastOrderId = 0;
+                int lastItemId = 0;
+                int rows;
+                do {
+                    cursor = dbHelper.getSalesExportChunk(sellerId, fromDate, toDate,
+                            lastCreatedAt, lastOrderId, lastItemId, CHUNK_SIZE);
+                    int[] index = new int[COLUMNS.length];
+                    for (int c = 0; c < COLUMNS.length; c++) {
+                        index[c] = cursor.getColumnIndexOrThrow(COLUMNS[c]);
+                    }
+                    int itemIndex = cursor.getColumnIndexOrThrow("item_id");
+
+                    rows = 0;
+                    while (cursor.moveToNext()) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Export cancelled");
+                        }
+                        writeRow(writer, format, cursor, index, written == 0);
+                        written++;
+                        rows++;
+                        lastCreatedAt = cursor.getString(index[1]);
+                        lastOrderId = cursor.getInt(index[0]);
+                        lastItemId = cursor.getInt(itemIndex);
+                    }
+                    cursor.close();
+                    cursor = null;
+
+                    int done = written;
+                    mainHandler.post(() -> listener.onProgress(done, Math.max(done, total)));
+                } while (rows == CHUNK_SIZE);
+
+                writeFooter(writer, format);
+                writer.flush();
+                finished = true;
+
+                int done = written;
+                mainHandler.post(() -> listener.onComplete(done));
+                Log.d(TAG, "✅ Exported " + written + " rows as " + format);
+
+            } catch (InterruptedIOException e) {
+                Log.d(TAG, "Export cancelled after " + written + " rows");
+                int done = written;
+                mainHandler.post(() -> listener.onCancelled(done));
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error exporting sales: " + e.getMessage(), e);
+                String message = e.getMessage();
+                mainHandler.post(() -> listener.onError(message));
+            } finally {
+                if (cursor != null) cursor.close();
+                if (writer != null) {
+                    try {
+                        writer.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+                if (!finished) {
+                    discard(output);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove a partial export; if the provider will not delete it, leave it empty
+     */
+    private void discard(Uri output) {
+        try {
+            if (DocumentsContract.deleteDocument(context.getContentResolver(), output)) return;
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error deleting partial export: " + e.getMessage(), e);
+        }
+        try (OutputStream out = context.getContentResolver().openOutputStream(output, "wt")) {
+            // truncated to zero bytes
+        } catch (Exception e) {
+            Log.e(TAG, "❌ Error truncating partial export: " + e.getMessage(), e);
+        }
+    }
+
+    // ==================== FORMATS ====================
+
+    private static void writeHeader(Writer writer, Format format) throws IOException {
+        if (format == Format.CSV) {
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (c > 0) writer.write(',');
+                writer.write(COLUMNS[c]);
+            }
+            writer.write("\r\n");
+        } else {
+            writer.write("[\n");
+        }
+    }
+
+    private static void writeRow(Writer writer, Format format, Cursor cursor, int[] index, boolean first)
+            throws IOException {
+        if (format == Format.CSV) {
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (c > 0) writer.write(',');
+                String value = cursor.getString(index[c]);
+                if (value != null) writeCsvField(writer, value);
+            }
+            writer.write("\r\n");
+        } else {
+            if (!first) writer.write(",\n");
+            writer.write('{');
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (c > 0) writer.write(',');
+                writer.write('"');
+                writer.write(COLUMNS[c]);
+                writer.write("\":");
+                if (cursor.isNull(index[c])) {
+                    writer.write("null");
+                } else if (NUMERIC[c]) {
+                    writer.write(String.valueOf(cursor.getLong(index[c])));
+                } else {
+                    writeJsonString(writer, cursor.getString(index[c]));
+                }
+            }
+            writer.write('}');
+        }
+    }
+
+    private static void writeFooter(Writer writer, Format format) throws IOException {
+        if (format == Format.JSON) {
+            writer.write("\n]\n");
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') writer.write('"');
+            writer.write(ch);
+        }
+        writer.write('"');
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) ch));
+                    } else {
+                        writer.write(ch);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+}
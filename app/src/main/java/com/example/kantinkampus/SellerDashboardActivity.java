@@ -1,15 +1,26 @@
 package com.example.kantinkampus;
 
+import android.app.DatePickerDialog;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.MenuItem;
+import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.ProgressBar;
+import android.widget.RadioGroup;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.cardview.widget.CardView;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.concurrent.Future;
 
 /**
  * SELLER DASHBOARD ACTIVITY - SAFE VERSION
@@ -20,10 +31,21 @@ public class SellerDashboardActivity extends AppCompatActivity {
 
     private TextView tvWelcome, tvTotalOrders, tvTotalRevenue, tvTotalMenus;
     private CardView cardMyStand, cardManageMenus, cardManageOrders, cardStatistics, cardNotifications;
+    private CardView cardExportSales;
 
     private DBHelper dbHelper;
     private SessionManager sessionManager;
 
+    // Sales export ("yyyy-MM-dd", null = open range)
+    private String exportFrom, exportTo;
+    private SalesExporter.Format exportFormat = SalesExporter.Format.CSV;
+    private Future<?> exportTask;
+
+    private final ActivityResultLauncher<String> createCsvExport = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(SalesExporter.Format.CSV.mimeType), this::startExport);
+    private final ActivityResultLauncher<String> createJsonExport = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(SalesExporter.Format.JSON.mimeType), this::startExport);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -60,6 +82,9 @@ public class SellerDashboardActivity extends AppCompatActivity {
             // Initialize database
             try {
                 dbHelper = new DBHelper(this);
+                BlobStore.getInstance(this).collectGarbageIfDue(); // orphaned photos
+                new OrderArchiveJob(this).runIfDue(); // old completed/cancelled orders
+                DatabaseMaintenance.getInstance(this).scheduleIdleRun(); // ANALYZE, vacuum, checkpoint
                 dbHelper.getWritableDatabase(); // Test database
                 Log.d(TAG, "Database initialized");
             } catch (Exception e) {
@@ -123,6 +148,7 @@ public class SellerDashboardActivity extends AppCompatActivity {
             cardManageOrders = findViewById(R.id.cardManageOrders);
             cardStatistics = findViewById(R.id.cardStatistics);
             cardNotifications = findViewById(R.id.cardNotifications);
+            cardExportSales = findViewById(R.id.cardExportSales);
 
             Log.d(TAG, "Views initialized");
         } catch (Exception e) {
@@ -181,10 +207,16 @@ public class SellerDashboardActivity extends AppCompatActivity {
             // Notifications
             if (cardNotifications != null) {
                 cardNotifications.setOnClickListener(v -> {
-                    Toast.makeText(this, "🔔 Notifikasi - Coming Soon", Toast.LENGTH_SHORT).show();
+                    Intent intent = new Intent(this, NotificationsActivity.class);
+                    startActivity(intent);
                 });
             }
 
+            // Sales Export
+            if (cardExportSales != null) {
+                cardExportSales.setOnClickListener(v -> showExportDialog());
+            }
+
             Log.d(TAG, "Click listeners set");
         } catch (Exception e) {
             Log.e(TAG, "Error setting click listeners: " + e.getMessage(), e);
@@ -253,6 +285,124 @@ public class SellerDashboardActivity extends AppCompatActivity {
         }
     }
 
+    // ==================== SALES EXPORT ====================
+
+    private void showExportDialog() {
+        View dialogView = getLayoutInflater().inflate(R.layout.dialog_export_sales, null);
+        TextView tvFrom = dialogView.findViewById(R.id.tvExportFrom);
+        TextView tvTo = dialogView.findViewById(R.id.tvExportTo);
+        RadioGroup rgFormat = dialogView.findViewById(R.id.rgExportFormat);
+
+        exportFrom = null;
+        exportTo = null;
+        tvFrom.setOnClickListener(v -> pickDate(date -> {
+            exportFrom = date;
+            tvFrom.setText("📅 Dari: " + date);
+        }));
+        tvTo.setOnClickListener(v -> pickDate(date -> {
+            exportTo = date;
+            tvTo.setText("📅 Sampai: " + date);
+        }));
+
+        new AlertDialog.Builder(this)
+                .setTitle("📤 Ekspor Penjualan")
+                .setView(dialogView)
+                .setPositiveButton("Ekspor", (dialog, which) -> {
+                    if (exportFrom != null && exportTo != null && exportFrom.compareTo(exportTo) > 0) {
+                        Toast.makeText(this, "❌ Tanggal awal setelah tanggal akhir!", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+
+                    exportFormat = rgFormat.getCheckedRadioButtonId() == R.id.rbExportJson
+                            ? SalesExporter.Format.JSON : SalesExporter.Format.CSV;
+                    String fileName = "penjualan_" + (exportFrom != null ? exportFrom : "awal")
+                            + "_" + (exportTo != null ? exportTo : "akhir") + "." + exportFormat.extension;
+
+                    if (exportFormat == SalesExporter.Format.JSON) {
+                        createJsonExport.launch(fileName);
+                    } else {
+                        createCsvExport.launch(fileName);
+                    }
+                })
+                .setNegativeButton("Batal", null)
+                .show();
+    }
+
+    private interface OnDatePicked {
+        void onDatePicked(String date);
+    }
+
+    private void pickDate(OnDatePicked callback) {
+        Calendar now = Calendar.getInstance();
+        new DatePickerDialog(this, (view, year, month, day) ->
+                callback.onDatePicked(String.format(Locale.US, "%04d-%02d-%02d", year, month + 1, day)),
+                now.get(Calendar.YEAR), now.get(Calendar.MONTH), now.get(Calendar.DAY_OF_MONTH)).show();
+    }
+
+    /**
+     * Stream the export into the chosen document, with a cancellable progress dialog
+     */
+    private void startExport(Uri uri) {
+        if (uri == null) return; // picker cancelled
+
+        ProgressBar progressBar = new ProgressBar(this, null, android.R.attr.progressBarStyleHorizontal);
+        progressBar.setIndeterminate(true);
+        TextView tvProgress = new TextView(this);
+        tvProgress.setText("Menyiapkan data...");
+        tvProgress.setPadding(0, 16, 0, 0);
+
+        LinearLayout layout = new LinearLayout(this);
+        layout.setOrientation(LinearLayout.VERTICAL);
+        layout.setPadding(60, 30, 60, 10);
+        layout.addView(progressBar);
+        layout.addView(tvProgress);
+
+        AlertDialog progressDialog = new AlertDialog.Builder(this)
+                .setTitle("📤 Mengekspor...")
+                .setView(layout)
+                .setCancelable(false)
+                .setNegativeButton("Batal", (dialog, which) -> {
+                    if (exportTask != null) exportTask.cancel(true);
+                })
+                .show();
+
+        exportTask = new SalesExporter(this).export(sessionManager.getUserId(), exportFrom, exportTo,
+                exportFormat, uri, new SalesExporter.Listener() {
+                    @Override
+                    public void onProgress(int rowsWritten, int totalRows) {
+                        if (isFinishing() || isDestroyed()) return;
+                        progressBar.setIndeterminate(false);
+                        progressBar.setMax(Math.max(totalRows, 1));
+                        progressBar.setProgress(rowsWritten);
+                        tvProgress.setText(rowsWritten + " / " + totalRows + " baris");
+                    }
+
+                    @Override
+                    public void onComplete(int rowsWritten) {
+                        if (isFinishing() || isDestroyed()) return;
+                        progressDialog.dismiss();
+                        Toast.makeText(SellerDashboardActivity.this,
+                                "✅ " + rowsWritten + " baris berhasil diekspor", Toast.LENGTH_LONG).show();
+                    }
+
+                    @Override
+                    public void onCancelled(int rowsWritten) {
+                        if (isFinishing() || isDestroyed()) return;
+                        progressDialog.dismiss();
+                        Toast.makeText(SellerDashboardActivity.this,
+                                "Ekspor dibatalkan, file tidak disimpan", Toast.LENGTH_SHORT).show();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        if (isFinishing() || isDestroyed()) return;
+                        progressDialog.dismiss();
+                        Toast.makeText(SellerDashboardActivity.this,
+                                "❌ Gagal mengekspor, file tidak disimpan: " + message, Toast.LENGTH_LONG).show();
+                    }
+                });
+    }
+
     private void showErrorAndExit(String message) {
         new AlertDialog.Builder(this)
                 .setTitle("Error")
@@ -288,6 +438,7 @@ public class SellerDashboardActivity extends AppCompatActivity {
     public boolean onCreateOptionsMenu(android.view.Menu menu) {
         try {
             getMenuInflater().inflate(R.menu.seller_menu, menu);
+            menu.findItem(R.id.action_query_stats).setVisible(QueryStatsDialog.isEnabled(this));
             return true;
         } catch (Exception e) {
             Log.e(TAG, "Error creating menu: " + e.getMessage(), e);
@@ -303,6 +454,9 @@ public class SellerDashboardActivity extends AppCompatActivity {
             if (id == R.id.action_profile) {
                 showProfile();
                 return true;
+            } else if (id == R.id.action_query_stats) {
+                QueryStatsDialog.show(this);
+                return true;
             } else if (id == R.id.action_logout) {
                 logout();
                 return true;
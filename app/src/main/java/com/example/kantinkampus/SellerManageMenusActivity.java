@@ -1,21 +1,37 @@
 package com.example.kantinkampus;
 
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.EditText;
+import android.widget.ImageView;
 import android.widget.RadioButton;
 import android.widget.RadioGroup;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * SELLER MANAGE MENUS ACTIVITY
@@ -37,6 +53,25 @@ public class SellerManageMenusActivity extends AppCompatActivity {
     private int sellerId;
     private int standId;
 
+    // Photo picked in the open add/edit dialog ("blob:<sha256>")
+    private String dialogImageRef;
+    private ImageView ivDialogPhoto;
+    private TextView btnDialogPickPhoto;
+
+    private final ActivityResultLauncher<String> pickMenuPhoto =
+            registerForActivityResult(new ActivityResultContracts.GetContent(), uri -> {
+                if (uri != null) storeMenuPhoto(uri);
+            });
+
+    // Bulk import (CSV: name, price, category, description, status)
+    private static final ExecutorService importExecutor = Executors.newSingleThreadExecutor();
+    private static final int MAX_ERRORS_SHOWN = 30;
+
+    private final ActivityResultLauncher<String[]> pickMenuCsv =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) importMenusFromCsv(uri);
+            });
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -146,7 +181,9 @@ public class SellerManageMenusActivity extends AppCompatActivity {
         EditText etName = dialogView.findViewById(R.id.etMenuName);
         EditText etPrice = dialogView.findViewById(R.id.etMenuPrice);
         EditText etDescription = dialogView.findViewById(R.id.etMenuDescription);
+        EditText etDailyStock = dialogView.findViewById(R.id.etMenuDailyStock);
         RadioGroup rgCategory = dialogView.findViewById(R.id.rgCategory);
+        bindPhotoPicker(dialogView, null);
 
         builder.setPositiveButton("Tambah", (dialog, which) -> {
             String name = etName.getText().toString().trim();
@@ -179,7 +216,12 @@ public class SellerManageMenusActivity extends AppCompatActivity {
             String category = rbCategory != null ? rbCategory.getText().toString() : "Lainnya";
 
             // Add menu
-            long result = dbHelper.addMenu(standId, name, price, null, description, category);
+            long result = dbHelper.addMenu(standId, name, price, dialogImageRef, description, category);
+
+            int dailyStock = parseStock(etDailyStock);
+            if (result > 0 && dailyStock > 0) {
+                dbHelper.updateMenuStock((int) result, dailyStock);
+            }
 
             if (result > 0) {
                 Toast.makeText(this, "✅ Menu berhasil ditambahkan!",
@@ -207,12 +249,17 @@ public class SellerManageMenusActivity extends AppCompatActivity {
         EditText etName = dialogView.findViewById(R.id.etMenuName);
         EditText etPrice = dialogView.findViewById(R.id.etMenuPrice);
         EditText etDescription = dialogView.findViewById(R.id.etMenuDescription);
+        EditText etDailyStock = dialogView.findViewById(R.id.etMenuDailyStock);
         RadioGroup rgCategory = dialogView.findViewById(R.id.rgCategory);
+        bindPhotoPicker(dialogView, menu.getImage());
 
         // Set current values
         etName.setText(menu.getNama());
         etPrice.setText(String.valueOf(menu.getHarga()));
         etDescription.setText(menu.getDeskripsi());
+        if (menu.getDailyStock() > 0) {
+            etDailyStock.setText(String.valueOf(menu.getDailyStock()));
+        }
 
         // Set category
         for (int i = 0; i < rgCategory.getChildCount(); i++) {
@@ -254,9 +301,15 @@ public class SellerManageMenusActivity extends AppCompatActivity {
             String category = rbCategory != null ? rbCategory.getText().toString() : menu.getKategori();
 
             // Update menu
-            int result = dbHelper.updateMenu(menu.getId(), name, price, null,
+            int result = dbHelper.updateMenu(menu.getId(), name, price, dialogImageRef,
                     description, category, menu.getStatus());
 
+            // Changing the daily stock moves today's remaining portions by the difference
+            int dailyStock = parseStock(etDailyStock);
+            if (result > 0 && dailyStock != menu.getDailyStock()) {
+                dbHelper.updateMenuStock(menu.getId(), dailyStock);
+            }
+
             if (result > 0) {
                 Toast.makeText(this, "✅ Menu berhasil diupdate!",
                         Toast.LENGTH_SHORT).show();
@@ -272,6 +325,52 @@ public class SellerManageMenusActivity extends AppCompatActivity {
         builder.show();
     }
 
+    /**
+     * Wire the photo section of dialog_add_menu, starting from the current image
+     */
+    private void bindPhotoPicker(View dialogView, String currentImage) {
+        dialogImageRef = currentImage;
+        ivDialogPhoto = dialogView.findViewById(R.id.ivMenuPhoto);
+        btnDialogPickPhoto = dialogView.findViewById(R.id.btnPickMenuPhoto);
+
+        if (currentImage != null && !currentImage.isEmpty()) {
+            showDialogPhoto(currentImage);
+        }
+        btnDialogPickPhoto.setOnClickListener(v -> pickMenuPhoto.launch("image/*"));
+    }
+
+    /**
+     * Re-encode + store the picked photo in the background
+     */
+    private void storeMenuPhoto(Uri uri) {
+        TextView button = btnDialogPickPhoto;
+        if (button == null) return;
+
+        button.setEnabled(false);
+        button.setText("⏳ Memproses foto...");
+
+        BlobStore.getInstance(this).putAsync(uri, ref -> {
+            if (isFinishing() || isDestroyed() || button != btnDialogPickPhoto) return;
+
+            button.setEnabled(true);
+            if (ref == null) {
+                button.setText("📷 Pilih Foto");
+                Toast.makeText(this, "❌ Gagal memproses foto!", Toast.LENGTH_SHORT).show();
+                return;
+            }
+
+            dialogImageRef = ref;
+            showDialogPhoto(ref);
+        });
+    }
+
+    private void showDialogPhoto(String image) {
+        btnDialogPickPhoto.setText("🔄 Ganti Foto");
+        ivDialogPhoto.setVisibility(View.VISIBLE);
+        ImageLoader loader = ImageLoader.getInstance(this);
+        loader.load(image, ivDialogPhoto, loader.dpToPx(140), R.drawable.ic_book_placeholder);
+    }
+
     private void showDeleteConfirmation(Menu menu) {
         new AlertDialog.Builder(this)
                 .setTitle("🗑️ Hapus Menu")
@@ -293,7 +392,25 @@ public class SellerManageMenusActivity extends AppCompatActivity {
                 .show();
     }
 
+    /**
+     * Daily stock from the dialog; empty or invalid = unlimited
+     */
+    private int parseStock(EditText editText) {
+        try {
+            return Math.max(0, Integer.parseInt(editText.getText().toString().trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     private void toggleMenuStatus(Menu menu) {
+        if (!menu.isAvailable() && menu.getStockLeft() == 0) {
+            Toast.makeText(this, "⚠️ Stok hari ini habis. Ubah stok harian di Edit Menu.",
+                    Toast.LENGTH_LONG).show();
+            loadMenus(); // reset the switch
+            return;
+        }
+
         String newStatus = menu.isAvailable() ? "unavailable" : "available";
 
         int result = dbHelper.updateMenu(menu.getId(), menu.getNama(),
@@ -321,6 +438,8 @@ public class SellerManageMenusActivity extends AppCompatActivity {
                 "📝 Deskripsi: " + (menu.getDeskripsi() != null ? menu.getDeskripsi() : "-") + "\n\n" +
                 "🏷️ Kategori: " + menu.getKategori() + "\n\n" +
                 "📊 Status: " + (menu.isAvailable() ? "✅ Tersedia" : "⚠️ Tidak Tersedia") + "\n\n" +
+                (menu.getDailyStock() > 0 ? "📦 Stok: " + menu.getStockLeft() + " / " +
+                        menu.getDailyStock() + " porsi hari ini\n\n" : "") +
                 "⭐ Rating: " + String.format("%.1f", menu.getAverageRating()) +
                 " (" + menu.getTotalReviews() + " review)";
 
@@ -329,11 +448,102 @@ public class SellerManageMenusActivity extends AppCompatActivity {
         builder.show();
     }
 
+    // ==================== CSV IMPORT ====================
+
+    private void importMenusFromCsv(Uri uri) {
+        AlertDialog progress = new AlertDialog.Builder(this)
+                .setTitle("📥 Impor Menu")
+                .setMessage("⏳ Mengimpor menu dari CSV...")
+                .setCancelable(false)
+                .show();
+
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        importExecutor.execute(() -> {
+            MenuCsvImporter.Result result;
+            File local = new File(getCacheDir(), "menu_import.csv");
+            try {
+                // importMenus parses inside its write transaction, so it must read a
+                // local file, never a provider stream that may block on disk or network
+                copyToFile(uri, local);
+                try (InputStream in = new FileInputStream(local)) {
+                    MenuCsvImporter parser = new MenuCsvImporter(
+                            new InputStreamReader(in, StandardCharsets.UTF_8));
+                    result = dbHelper.importMenus(standId, parser);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error reading CSV: " + e.getMessage(), e);
+                result = new MenuCsvImporter.Result();
+                result.fatalError = e.getMessage();
+            } finally {
+                local.delete();
+            }
+
+            MenuCsvImporter.Result done = result;
+            mainHandler.post(() -> {
+                if (isFinishing() || isDestroyed()) return;
+                progress.dismiss();
+                showImportResult(done);
+                loadMenus();
+            });
+        });
+    }
+
+    private void copyToFile(Uri uri, File file) throws IOException {
+        try (InputStream in = getContentResolver().openInputStream(uri);
+             OutputStream out = new FileOutputStream(file)) {
+            if (in == null) throw new IOException("Cannot open " + uri);
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+
+    private void showImportResult(MenuCsvImporter.Result result) {
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+
+        if (result.fatalError != null) {
+            builder.setTitle("❌ Impor Gagal");
+            builder.setMessage("Tidak ada menu yang diimpor.\n\n" + result.fatalError);
+        } else {
+            builder.setTitle(result.errors.isEmpty() ? "✅ Impor Selesai" : "⚠️ Impor Selesai");
+
+            StringBuilder message = new StringBuilder();
+            message.append("📋 ").append(result.imported).append(" menu ditambahkan")
+                    .append(" (").append(result.elapsedMs).append(" ms)");
+
+            if (!result.errors.isEmpty()) {
+                message.append("\n⚠️ ").append(result.errors.size()).append(" baris dilewati:\n");
+                int shown = Math.min(result.errors.size(), MAX_ERRORS_SHOWN);
+                for (int i = 0; i < shown; i++) {
+                    message.append("\n• ").append(result.errors.get(i));
+                }
+                if (result.errors.size() > shown) {
+                    message.append("\n… dan ").append(result.errors.size() - shown).append(" lainnya");
+                }
+            }
+            builder.setMessage(message.toString());
+        }
+
+        builder.setPositiveButton("OK", (dialog, which) -> dialog.dismiss());
+        builder.show();
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(android.view.Menu menu) {
+        getMenuInflater().inflate(R.menu.manage_menus_menu, menu);
+        return true;
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
             finish();
             return true;
+        } else if (item.getItemId() == R.id.action_import_csv) {
+            pickMenuCsv.launch(new String[]{"text/*", "application/csv", "application/vnd.ms-excel"});
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
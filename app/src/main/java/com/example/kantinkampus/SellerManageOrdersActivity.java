@@ -1,15 +1,18 @@
 package com.example.kantinkampus;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.EditText;
+import android.widget.ImageView;
 import android.widget.RadioButton;
 import android.widget.RadioGroup;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -20,9 +23,13 @@ import java.util.List;
 /**
  * SELLER MANAGE ORDERS ACTIVITY
  * Verify payments, update order status, process orders
+ * Supports multi-select bulk transitions (long-press an order card)
+ * Lists are paged while scrolling; archived orders load after the recent ones
+ * Kitchen view (KitchenActivity) batches identical items across open orders
  */
 public class SellerManageOrdersActivity extends AppCompatActivity {
     private static final String TAG = "ManageOrders";
+    private static final int PAGE_SIZE = 30;
 
     private SessionManager sessionManager;
     private DBHelper dbHelper;
@@ -30,9 +37,13 @@ public class SellerManageOrdersActivity extends AppCompatActivity {
     private TabLayout tabLayout;
     private RecyclerView rvOrders;
     private TextView tvEmptyState;
+    private View layoutBulkActions;
+    private TextView tvSelectedCount, tvBulkAction;
 
     private OrderAdapterSeller orderAdapter;
     private List<Order> orderList;
+    private OrderHistoryPager pager;
+    private LinearLayoutManager layoutManager;
 
     private int sellerId;
     private String currentFilter = "pending_verification"; // Default to pending
@@ -67,10 +78,32 @@ public class SellerManageOrdersActivity extends AppCompatActivity {
         tabLayout = findViewById(R.id.tabLayout);
         rvOrders = findViewById(R.id.rvOrders);
         tvEmptyState = findViewById(R.id.tvEmptyState);
+        layoutBulkActions = findViewById(R.id.layoutBulkActions);
+        tvSelectedCount = findViewById(R.id.tvSelectedCount);
+        tvBulkAction = findViewById(R.id.tvBulkAction);
+
+        findViewById(R.id.btnBulkAction).setOnClickListener(v -> confirmBulkAction());
+        findViewById(R.id.btnBulkClear).setOnClickListener(v -> {
+            if (orderAdapter != null) {
+                orderAdapter.clearSelection();
+            }
+        });
 
         // Setup RecyclerView
-        rvOrders.setLayoutManager(new LinearLayoutManager(this));
+        layoutManager = new LinearLayoutManager(this);
+        rvOrders.setLayoutManager(layoutManager);
         rvOrders.setHasFixedSize(true);
+
+        // Load next page when near the end of the list
+        rvOrders.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && pager != null && pager.hasMore() && orderAdapter != null
+                        && layoutManager.findLastVisibleItemPosition() >= orderAdapter.getItemCount() - 5) {
+                    orderAdapter.addPage(pager.nextPage());
+                }
+            }
+        });
     }
 
     private void setupTabs() {
@@ -97,8 +130,16 @@ public class SellerManageOrdersActivity extends AppCompatActivity {
     }
 
     private void loadOrders(String status) {
+        layoutBulkActions.setVisibility(View.GONE);
+
         try {
-            orderList = dbHelper.getOrdersBySellerAndStatus(sellerId, status);
+            // Only completed/cancelled orders are ever archived
+            boolean includeArchive = "completed".equals(status) || "cancelled".equals(status);
+            String[] statuses = {status};
+            pager = new OrderHistoryPager(PAGE_SIZE, includeArchive, (archived, beforeId, limit) ->
+                    dbHelper.getSellerOrdersPage(sellerId, statuses, archived, beforeId, limit));
+
+            orderList = pager.nextPage();
 
             if (orderList.isEmpty()) {
                 rvOrders.setVisibility(View.GONE);
@@ -130,6 +171,11 @@ public class SellerManageOrdersActivity extends AppCompatActivity {
                             public void onCancelOrder(Order order) {
                                 showCancelOrderDialog(order);
                             }
+
+                            @Override
+                            public void onSelectionChanged(int selectedCount) {
+                                updateBulkActionBar(selectedCount);
+                            }
                         });
 
                 rvOrders.setAdapter(orderAdapter);
@@ -151,6 +197,7 @@ public class SellerManageOrdersActivity extends AppCompatActivity {
         details.append("📦 Order #").append(order.getId()).append("\n\n");
         details.append("👤 Pembeli: ").append(order.getUserName()).append("\n");
         details.append("📅 Tanggal: ").append(order.getCreatedAt()).append("\n");
+        details.append("⏰ Ambil: ").append(order.getPickupDisplay()).append("\n");
         details.append("💰 Total: ").append(order.getFormattedTotal()).append("\n\n");
 
         details.append("🛒 Item Pesanan:\n");
@@ -197,6 +244,16 @@ public class SellerManageOrdersActivity extends AppCompatActivity {
 
         builder.setMessage(message);
 
+        // Show the stored proof photo
+        if (BlobStore.isBlobRef(order.getPaymentProof())) {
+            ImageView ivProof = new ImageView(this);
+            ivProof.setAdjustViewBounds(true);
+            ivProof.setPadding(50, 0, 50, 0);
+            ImageLoader loader = ImageLoader.getInstance(this);
+            loader.load(order.getPaymentProof(), ivProof, loader.dpToPx(280), R.drawable.ic_book_placeholder);
+            builder.setView(ivProof);
+        }
+
         builder.setPositiveButton("✅ Terima", (dialog, which) -> {
             verifyPayment(order, true, null);
         });
@@ -356,6 +413,84 @@ public class SellerManageOrdersActivity extends AppCompatActivity {
         builder.show();
     }
 
+    // ==================== BULK ACTIONS ====================
+
+    private void updateBulkActionBar(int selectedCount) {
+        String nextStatus = getNextStatus(currentFilter);
+
+        if (selectedCount == 0 || nextStatus == null) {
+            layoutBulkActions.setVisibility(View.GONE);
+            return;
+        }
+
+        layoutBulkActions.setVisibility(View.VISIBLE);
+        tvSelectedCount.setText(selectedCount + " pesanan dipilih");
+        tvBulkAction.setText(getBulkActionLabel(nextStatus));
+    }
+
+    private void confirmBulkAction() {
+        String nextStatus = getNextStatus(currentFilter);
+        if (orderAdapter == null || nextStatus == null) {
+            return;
+        }
+
+        List<Integer> selectedIds = orderAdapter.getSelectedIds();
+        if (selectedIds.isEmpty()) {
+            return;
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle("📊 Proses Sekaligus")
+                .setMessage(getBulkActionLabel(nextStatus) + " untuk " + selectedIds.size() + " pesanan?")
+                .setPositiveButton("Ya", (dialog, which) -> {
+                    int result = dbHelper.bulkUpdateOrderStatus(selectedIds, currentFilter, nextStatus);
+
+                    if (result > 0) {
+                        Toast.makeText(this, "✅ " + result + " pesanan diproses",
+                                Toast.LENGTH_SHORT).show();
+                    } else {
+                        Toast.makeText(this, "❌ Gagal memproses pesanan!",
+                                Toast.LENGTH_SHORT).show();
+                    }
+                    loadOrders(currentFilter); // Refresh
+                })
+                .setNegativeButton("Batal", null)
+                .show();
+    }
+
+    /**
+     * Next step in the kitchen flow, or null if the tab has no bulk action
+     */
+    private String getNextStatus(String status) {
+        switch (status) {
+            case "pending_verification":
+                return "verified";
+            case "verified":
+                return "cooking";
+            case "cooking":
+                return "ready";
+            case "ready":
+                return "completed";
+            default:
+                return null;
+        }
+    }
+
+    private String getBulkActionLabel(String nextStatus) {
+        switch (nextStatus) {
+            case "verified":
+                return "✅ Terima Pembayaran";
+            case "cooking":
+                return "👨‍🍳 Mulai Masak";
+            case "ready":
+                return "🎉 Siap Diambil";
+            case "completed":
+                return "✅ Selesai";
+            default:
+                return "📊 Proses";
+        }
+    }
+
     private String getEmptyMessage(String status) {
         switch (status) {
             case "pending_verification":
@@ -375,9 +510,23 @@ public class SellerManageOrdersActivity extends AppCompatActivity {
         }
     }
 
+    @Override
+    public boolean onCreateOptionsMenu(android.view.Menu menu) {
+        getMenuInflater().inflate(R.menu.manage_orders_menu, menu);
+        return true;
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == R.id.action_kitchen) {
+            startActivity(new Intent(this, KitchenActivity.class));
+            return true;
+        }
         if (item.getItemId() == android.R.id.home) {
+            if (orderAdapter != null && orderAdapter.isSelectionMode()) {
+                orderAdapter.clearSelection();
+                return true;
+            }
             finish();
             return true;
         }
@@ -16,6 +16,9 @@ public class SellerStatisticsActivity extends AppCompatActivity {
     private TextView tvPendingOrders, tvCompletedOrders, tvCancelledOrders;
     private TextView tvTotalMenus, tvAvailableMenus, tvUnavailableMenus;
     private TextView tvAverageOrderValue, tvTopSellingMenu;
+    private TextView tvVerifyDelay, tvCookTime, tvPickupTime;
+
+    private static final long SERVICE_SPEED_WINDOW_MS = 7L * 24 * 60 * 60 * 1000;
 
     private DBHelper dbHelper;
     private SessionManager sessionManager;
@@ -64,6 +67,11 @@ public class SellerStatisticsActivity extends AppCompatActivity {
 
         // Other
         tvTopSellingMenu = findViewById(R.id.tvTopSellingMenu);
+
+        // Service speed
+        tvVerifyDelay = findViewById(R.id.tvVerifyDelay);
+        tvCookTime = findViewById(R.id.tvCookTime);
+        tvPickupTime = findViewById(R.id.tvPickupTime);
     }
 
     private void loadStatistics() {
@@ -119,6 +127,12 @@ public class SellerStatisticsActivity extends AppCompatActivity {
             } else {
                 tvTopSellingMenu.setText("Belum ada menu");
             }
+
+            // Service speed (median · p95, last 7 days)
+            long since = System.currentTimeMillis() - SERVICE_SPEED_WINDOW_MS;
+            tvVerifyDelay.setText(formatStage(stand.getId(), OrderStageStats.STAGE_VERIFICATION, since));
+            tvCookTime.setText(formatStage(stand.getId(), OrderStageStats.STAGE_COOK, since));
+            tvPickupTime.setText(formatStage(stand.getId(), OrderStageStats.STAGE_PICKUP, since));
         } else {
             // No stand yet
             setAllStatsToZero();
@@ -138,6 +152,14 @@ public class SellerStatisticsActivity extends AppCompatActivity {
         tvAvailableMenus.setText("0");
         tvUnavailableMenus.setText("0");
         tvTopSellingMenu.setText("Belum ada data");
+        tvVerifyDelay.setText("-");
+        tvCookTime.setText("-");
+        tvPickupTime.setText("-");
+    }
+
+    private String formatStage(int standId, int stage, long since) {
+        java.util.List<OrderStageStats> stats = dbHelper.getStageDelays(stage, since, standId);
+        return stats.isEmpty() ? "-" : stats.get(0).format();
     }
 
     private String formatPrice(int price) {
@@ -138,6 +138,7 @@ public class SessionManager {
     public void logoutUser() {
         editor.clear();
         editor.apply();
+        FavoriteCache.getInstance().clear();
     }
 
     /**
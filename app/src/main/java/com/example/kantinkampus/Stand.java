@@ -7,6 +7,8 @@ public class Stand {
     private String deskripsi;
     private String image;
     private String createdAt;
+    private int slotCapacity; // items per pickup slot, 0 = unlimited
+    private int maxOpenItems; // queue budget before ASAP orders are refused, 0 = unlimited
 
     public Stand() {}
 
@@ -36,6 +38,12 @@ public class Stand {
     public String getCreatedAt() { return createdAt; }
     public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
 
+    public int getSlotCapacity() { return slotCapacity; }
+    public void setSlotCapacity(int slotCapacity) { this.slotCapacity = slotCapacity; }
+
+    public int getMaxOpenItems() { return maxOpenItems; }
+    public void setMaxOpenItems(int maxOpenItems) { this.maxOpenItems = maxOpenItems; }
+
     @Override
     public String toString() {
         return "Stand{id=" + id + ", nama='" + nama + "'}";
@@ -20,6 +20,7 @@ public class StandAdapter extends RecyclerView.Adapter<StandAdapter.StandViewHol
     private Context context;
     private List<Stand> standList;
     private OnStandClickListener listener;
+    private int imageSizePx;
 
     public interface OnStandClickListener {
         void onStandClick(Stand stand);
@@ -29,6 +30,7 @@ public class StandAdapter extends RecyclerView.Adapter<StandAdapter.StandViewHol
         this.context = context;
         this.standList = standList;
         this.listener = listener;
+        this.imageSizePx = ImageLoader.getInstance(context).dpToPx(160);
     }
 
     @NonNull
@@ -53,13 +55,20 @@ public class StandAdapter extends RecyclerView.Adapter<StandAdapter.StandViewHol
             holder.tvStandDescription.setVisibility(View.GONE);
         }
 
-        // Set image (placeholder for now)
-        holder.ivStandImage.setImageResource(R.drawable.ic_book_placeholder);
+        // Set image (downsampled + cached)
+        ImageLoader.getInstance(context).load(stand.getImage(), holder.ivStandImage,
+                imageSizePx, R.drawable.ic_book_placeholder);
 
         // Click listener
         holder.cardStand.setOnClickListener(v -> listener.onStandClick(stand));
     }
 
+    @Override
+    public void onViewRecycled(@NonNull StandViewHolder holder) {
+        super.onViewRecycled(holder);
+        ImageLoader.getInstance(context).cancel(holder.ivStandImage);
+    }
+
     @Override
     public int getItemCount() {
         return standList.size();
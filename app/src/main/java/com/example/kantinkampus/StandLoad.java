@@ -0,0 +1,149 @@
+package com.example.kantinkampus;
+
+/**
+ * STAND LOAD
+ * Live queue depth of a stand (orders placed but not ready yet) and its
+ * admission budget. Above the budget the stand is "busy": ASAP orders are
+ * refused and the buyer is asked to pick a later pickup slot.
+ * Waits use the stand's EWMA cook times (prep_time_stats) once it has any.
+ */
+public class StandLoad {
+    public static final double DEFAULT_MINUTES_PER_ITEM = 2.0;
+    public static final int DEFAULT_ORDER_MINUTES = 10;
+
+    private final int standId;
+    private final String standName;
+    private final int maxOpenItems; // 0 = unlimited
+    private final int openOrders;
+    private final int openItems;
+    private long itemMs; // EWMA cook time per item, 0 = no history yet
+    private long orderMs; // EWMA cook time per order
+
+    public StandLoad(int standId, String standName, int maxOpenItems, int openOrders, int openItems) {
+        this.standId = standId;
+        this.standName = standName;
+        this.maxOpenItems = maxOpenItems;
+        this.openOrders = openOrders;
+        this.openItems = openItems;
+    }
+
+    public int getStandId() {
+        return standId;
+    }
+
+    public String getStandName() {
+        return standName;
+    }
+
+    public int getMaxOpenItems() {
+        return maxOpenItems;
+    }
+
+    public int getOpenOrders() {
+        return openOrders;
+    }
+
+    public int getOpenItems() {
+        return openItems;
+    }
+
+    public void setPrepTimes(long itemMs, long orderMs) {
+        this.itemMs = itemMs;
+        this.orderMs = orderMs;
+    }
+
+    /**
+     * Time to work through the current queue
+     */
+    public long getQueueMs() {
+        return (long) (openItems * getItemMs());
+    }
+
+    private double getItemMs() {
+        return itemMs > 0 ? itemMs : DEFAULT_MINUTES_PER_ITEM * 60_000;
+    }
+
+    /**
+     * Typical cook time of one order
+     */
+    public long getOrderMs() {
+        return orderMs > 0 ? orderMs : DEFAULT_ORDER_MINUTES * 60_000L;
+    }
+
+    /**
+     * Whether an order in this status is still waiting for the kitchen (has an ETA)
+     */
+    public static boolean isQueued(String status) {
+        switch (status) {
+            case "pending_payment":
+            case "pending_verification":
+            case "verified":
+            case "cooking":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * ETA of an order already in the queue, in minutes; -1 when not applicable
+     * - waiting: the items queued ahead of it + its own cook time
+     * - cooking: its own cook time minus the time spent cooking so far
+     * A pickup slot order is not ready before its slot starts.
+     * @param sinceStatusMs time the order entered its current status (updated_at)
+     * @param cookMs the order's cook time (slowest of its menus' EWMA), 0 = the stand's
+     * @param ownItems item qty of the order, part of openItems while it waits
+     * @param slotLeadMs time until its pickup slot starts, 0 = as soon as possible
+     */
+    public int getEtaMinutes(String status, long sinceStatusMs, long nowMs,
+                             long cookMs, int ownItems, long slotLeadMs) {
+        if (!isQueued(status)) return -1;
+
+        long cook = cookMs > 0 ? cookMs : getOrderMs();
+        long eta;
+        if ("cooking".equals(status)) {
+            eta = cook - Math.max(0, nowMs - sinceStatusMs);
+        } else {
+            long ahead = (long) (Math.max(0, openItems - ownItems) * getItemMs());
+            eta = ahead + cook;
+        }
+        eta = Math.max(eta, slotLeadMs);
+        return (int) Math.max(1, Math.ceil(eta / 60_000.0));
+    }
+
+    /**
+     * Whether qty more items fit in the budget
+     */
+    public boolean canAccept(int qty) {
+        return canAcceptAt(qty, 0);
+    }
+
+    /**
+     * Same for an order due leadMs from now (pickup slot): the budget applies to
+     * the queue expected by then, i.e. minus the items the kitchen clears meanwhile
+     */
+    public boolean canAcceptAt(int qty, long leadMs) {
+        if (maxOpenItems <= 0) return true;
+        long expected = Math.max(0, openItems - (long) (leadMs / getItemMs()));
+        return expected + qty <= maxOpenItems;
+    }
+
+    public boolean isBusy() {
+        return maxOpenItems > 0 && openItems >= maxOpenItems;
+    }
+
+    /**
+     * Wait until a new order would be cooked
+     */
+    public int getEstimatedWaitMinutes() {
+        return (int) Math.ceil(getQueueMs() / 60_000.0);
+    }
+
+    /**
+     * "🔥 Sedang ramai · estimasi tunggu ~12 menit", or null when the queue is empty
+     */
+    public String getStatusText() {
+        if (openItems == 0) return null;
+        return (isBusy() ? "🔥 Sedang ramai · " : "⏱️ ") + "estimasi tunggu ~" + getEstimatedWaitMinutes() + " menit";
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.kantinkampus;
+
+import java.util.Arrays;
+
+/**
+ * USER AFFINITY
+ * What one buyer tends to order: past orders per menu, split by time of day.
+ * Kept as parallel primitive arrays sorted by menu id (rows come in primary key
+ * order from user_affinity), looked up by binary search while ranking.
+ */
+public class UserAffinity {
+
+    private int[] menuIds;
+    private int[] orders;
+    private int[] daypartOrders; // MenuRanker.DAYPARTS entries per menu
+    private int size;
+
+    public UserAffinity(int capacity) {
+        capacity = Math.max(capacity, 1);
+        menuIds = new int[capacity];
+        orders = new int[capacity];
+        daypartOrders = new int[capacity * MenuRanker.DAYPARTS];
+    }
+
+    /**
+     * Append one menu; menu ids must come in ascending order
+     */
+    void add(int menuId, int menuOrders, int[] perDaypart) {
+        if (size == menuIds.length) {
+            int capacity = size * 2;
+            menuIds = Arrays.copyOf(menuIds, capacity);
+            orders = Arrays.copyOf(orders, capacity);
+            daypartOrders = Arrays.copyOf(daypartOrders, capacity * MenuRanker.DAYPARTS);
+        }
+        menuIds[size] = menuId;
+        orders[size] = menuOrders;
+        System.arraycopy(perDaypart, 0, daypartOrders, size * MenuRanker.DAYPARTS, MenuRanker.DAYPARTS);
+        size++;
+    }
+
+    public int getOrders(int menuId) {
+        int i = Arrays.binarySearch(menuIds, 0, size, menuId);
+        return i >= 0 ? orders[i] : 0;
+    }
+
+    public int getOrders(int menuId, int daypart) {
+        int i = Arrays.binarySearch(menuIds, 0, size, menuId);
+        return i >= 0 ? daypartOrders[i * MenuRanker.DAYPARTS + daypart] : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
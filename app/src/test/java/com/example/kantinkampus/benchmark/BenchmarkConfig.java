@@ -0,0 +1,63 @@
+package com.example.kantinkampus.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BENCHMARK CONFIG
+ * Dataset sizes + iteration counts, overridable with -Pbenchmark.<key>=<value>
+ */
+public class BenchmarkConfig {
+    public final long seed;
+    public final int stands;
+    public final int menusPerStand;
+    public final int buyers;
+    public final int reviewsPerMenu;
+    public final int ordersPerBuyer;
+    public final int itemsPerOrder;
+    public final int cartItems;
+    public final int warmupIterations;
+    public final int iterations;
+    public final String outputDir;
+
+    public BenchmarkConfig() {
+        seed = getLong("seed", 42);
+        stands = getInt("stands", 50);
+        menusPerStand = getInt("menusPerStand", 20);
+        buyers = getInt("buyers", 200);
+        reviewsPerMenu = getInt("reviewsPerMenu", 5);
+        ordersPerBuyer = getInt("ordersPerBuyer", 10);
+        itemsPerOrder = getInt("itemsPerOrder", 3);
+        cartItems = getInt("cartItems", 8);
+        warmupIterations = getInt("warmup", 5);
+        iterations = getInt("iterations", 30);
+        outputDir = System.getProperty("benchmark.output", "build/benchmark");
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("seed", seed);
+        map.put("stands", stands);
+        map.put("menusPerStand", menusPerStand);
+        map.put("buyers", buyers);
+        map.put("reviewsPerMenu", reviewsPerMenu);
+        map.put("ordersPerBuyer", ordersPerBuyer);
+        map.put("itemsPerOrder", itemsPerOrder);
+        map.put("cartItems", cartItems);
+        map.put("warmupIterations", warmupIterations);
+        map.put("iterations", iterations);
+        return map;
+    }
+
+    private static int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    private static long getLong(String key, long defaultValue) {
+        String value = System.getProperty("benchmark." + key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return Long.parseLong(value.trim());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.kantinkampus.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * BENCHMARK RUNNER
+ * Times a body over warmup + measured iterations and writes all results as JSON.
+ * Setup runs before every iteration and is not timed.
+ */
+public class BenchmarkRunner {
+
+    public interface Step {
+        void run(int iteration);
+    }
+
+    public static class Result {
+        final String name;
+        final long[] samplesNs;
+
+        Result(String name, long[] samplesNs) {
+            this.name = name;
+            this.samplesNs = samplesNs;
+            Arrays.sort(this.samplesNs);
+        }
+
+        long percentile(double p) {
+            int index = (int) Math.ceil(p * samplesNs.length) - 1;
+            return samplesNs[Math.max(0, Math.min(index, samplesNs.length - 1))];
+        }
+
+        long mean() {
+            long sum = 0;
+            for (long s : samplesNs) sum += s;
+            return sum / samplesNs.length;
+        }
+    }
+
+    private final BenchmarkConfig config;
+    private final List<Result> results = new ArrayList<>();
+
+    public BenchmarkRunner(BenchmarkConfig config) {
+        this.config = config;
+    }
+
+    public void measure(String name, Step body) {
+        measure(name, null, body);
+    }
+
+    public void measure(String name, Step setup, Step body) {
+        for (int i = 0; i < config.warmupIterations; i++) {
+            if (setup != null) setup.run(i);
+            body.run(i);
+        }
+
+        long[] samples = new long[config.iterations];
+        for (int i = 0; i < config.iterations; i++) {
+            int iteration = config.warmupIterations + i;
+            if (setup != null) setup.run(iteration);
+
+            long start = System.nanoTime();
+            body.run(iteration);
+            samples[i] = System.nanoTime() - start;
+        }
+
+        Result result = new Result(name, samples);
+        results.add(result);
+        System.out.println(String.format(Locale.ROOT, "%-32s p50 %8.3f ms  p95 %8.3f ms",
+                name, result.percentile(0.50) / 1e6, result.percentile(0.95) / 1e6));
+    }
+
+    /**
+     * Write results-<timestamp>.json into the output dir
+     * @return the written file
+     */
+    public File writeJson(Map<String, Object> dataset) throws IOException {
+        File dir = new File(config.outputDir);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+        File file = new File(dir, "results-" + timestamp + ".json");
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"timestamp\": \"").append(timestamp).append("\",\n");
+        json.append("  \"config\": ").append(toJson(config.toMap())).append(",\n");
+        json.append("  \"dataset\": ").append(toJson(dataset)).append(",\n");
+        json.append("  \"benchmarks\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            json.append("    {\"name\": \"").append(r.name).append("\"")
+                    .append(", \"iterations\": ").append(r.samplesNs.length)
+                    .append(", \"minNs\": ").append(r.samplesNs[0])
+                    .append(", \"p50Ns\": ").append(r.percentile(0.50))
+                    .append(", \"p95Ns\": ").append(r.percentile(0.95))
+                    .append(", \"maxNs\": ").append(r.samplesNs[r.samplesNs.length - 1])
+                    .append(", \"meanNs\": ").append(r.mean())
+                    .append("}")
+                    .append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("  ]\n");
+        json.append("}\n");
+
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(json.toString());
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    private static String toJson(Map<String, Object> map) {
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (!first) sb.append(", ");
+            first = false;
+            sb.append("\"").append(entry.getKey()).append("\": ");
+            Object value = entry.getValue();
+            if (value instanceof Number) {
+                sb.append(value);
+            } else {
+                sb.append("\"").append(value).append("\"");
+            }
+        }
+        return sb.append("}").toString();
+    }
+}
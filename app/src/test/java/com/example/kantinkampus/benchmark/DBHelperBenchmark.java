@@ -0,0 +1,117 @@
+package com.example.kantinkampus.benchmark;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.kantinkampus.CartItem;
+import com.example.kantinkampus.DBHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * DBHELPER BENCHMARK
+ * Hot DBHelper queries against a seeded synthetic dataset (host SQLite via Robolectric).
+ *
+ * Run: ./gradlew :app:testDebugUnitTest -Pbenchmark
+ * Sizes: -Pbenchmark.stands=200 -Pbenchmark.buyers=1000 -Pbenchmark.iterations=50 ...
+ * Output: app/build/benchmark/results-<timestamp>.json
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class DBHelperBenchmark {
+    private static final String[] STATUSES = {"pending_verification", "verified", "cooking", "ready", "completed"};
+
+    private BenchmarkConfig config;
+    private DataGenerator data;
+    private DBHelper dbHelper;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        config = new BenchmarkConfig();
+        dbHelper = new DBHelper(context);
+        data = new DataGenerator(config);
+        data.populate(dbHelper.getWritableDatabase());
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void runAll() throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner(config);
+
+        runner.measure("getMenusByStand", i ->
+                dbHelper.getMenusByStand(pick(data.standIds, i)));
+
+        runner.measure("searchMenus", i ->
+                dbHelper.searchMenus(data.randomSearchTerm()));
+
+        runner.measure("getOrdersBySellerAndStatus", i ->
+                dbHelper.getOrdersBySellerAndStatus(pick(data.sellerIds, i), STATUSES[i % STATUSES.length]));
+
+        // Cart is refilled (untimed) before each checkout
+        int[] buyer = new int[1];
+        runner.measure("createOrdersFromCart", i -> {
+            buyer[0] = pick(data.buyerIds, i);
+            fillCart(buyer[0]);
+        }, i -> dbHelper.createOrdersFromCart(buyer[0], "💵 Cash"));
+
+        runner.measure("getCartItemsGroupedByStand", i -> {
+            buyer[0] = pick(data.buyerIds, i);
+            dbHelper.clearCart(buyer[0]);
+            fillCart(buyer[0]);
+        }, i -> dbHelper.getCartItemsGroupedByStand(buyer[0]));
+
+        runner.measure("getTotalOrdersByStatus", i ->
+                dbHelper.getTotalOrdersByStatus(pick(data.sellerIds, i), STATUSES[i % STATUSES.length]));
+        runner.measure("getTotalRevenue", i ->
+                dbHelper.getTotalRevenue(pick(data.sellerIds, i)));
+        runner.measure("getTodayRevenue", i ->
+                dbHelper.getTodayRevenue(pick(data.sellerIds, i)));
+        runner.measure("getTotalOrdersBySeller", i ->
+                dbHelper.getTotalOrdersBySeller(pick(data.sellerIds, i), "all"));
+
+        // Sanity: the dataset is actually what got measured
+        assertFalse(dbHelper.getMenusByStand(data.standIds.get(0)).isEmpty());
+        Map<Integer, List<CartItem>> grouped = dbHelper.getCartItemsGroupedByStand(buyer[0]);
+        assertFalse(grouped.isEmpty());
+
+        Map<String, Object> dataset = new LinkedHashMap<>();
+        dataset.put("stands", data.standIds.size());
+        dataset.put("menus", data.standIds.size() * config.menusPerStand);
+        dataset.put("buyers", data.buyerIds.size());
+        dataset.put("reviews", data.reviewCount);
+        dataset.put("orders", data.orderCount);
+
+        File output = runner.writeJson(dataset);
+        System.out.println("Benchmark results: " + output.getAbsolutePath());
+        assertTrue(output.exists());
+    }
+
+    private void fillCart(int buyerId) {
+        for (int menuId : data.randomCartMenus(config.cartItems)) {
+            dbHelper.addToCart(buyerId, menuId, 1, null);
+        }
+    }
+
+    private static int pick(List<Integer> ids, int iteration) {
+        return ids.get(iteration % ids.size());
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.kantinkampus.benchmark;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * DATA GENERATOR
+ * Seeded synthetic dataset on top of the demo data:
+ * sellers + stands, menus, buyers, reviews, orders with items.
+ * Same seed + config = same rows, so runs stay comparable.
+ */
+public class DataGenerator {
+    private static final String[] DISHES = {
+            "Nasi Goreng", "Mie Ayam", "Ayam Geprek", "Soto Ayam", "Bakso", "Gado-Gado",
+            "Nasi Uduk", "Rawon", "Sate Ayam", "Pecel Lele", "Es Teh", "Es Jeruk",
+            "Kopi Susu", "Jus Alpukat", "Pisang Goreng", "Risoles", "Tahu Isi", "Martabak"
+    };
+    private static final String[] VARIANTS = {
+            "Spesial", "Pedas", "Original", "Jumbo", "Keju", "Telur", "Komplit", "Mini"
+    };
+    private static final String[] CATEGORIES = {
+            "🍛 Makanan Berat", "🥤 Minuman", "🍪 Snack", "📦 Lainnya"
+    };
+    private static final String[] ORDER_STATUSES = {
+            "pending_verification", "verified", "cooking", "ready", "completed", "completed", "cancelled"
+    };
+
+    private final BenchmarkConfig config;
+    private final Random random;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+
+    public final List<Integer> sellerIds = new ArrayList<>();
+    public final List<Integer> standIds = new ArrayList<>();
+    public final List<Integer> buyerIds = new ArrayList<>();
+    public final List<List<int[]>> menusByStand = new ArrayList<>(); // {menuId, price} per stand
+    public int orderCount;
+    public int reviewCount;
+
+    public DataGenerator(BenchmarkConfig config) {
+        this.config = config;
+        this.random = new Random(config.seed);
+    }
+
+    /**
+     * Insert the whole dataset in one transaction
+     */
+    public void populate(SQLiteDatabase db) {
+        db.beginTransaction();
+        try {
+            insertSellersAndStands(db);
+            insertMenus(db);
+            insertBuyers(db);
+            insertReviews(db);
+            insertOrders(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void insertSellersAndStands(SQLiteDatabase db) {
+        SQLiteStatement user = compileUserInsert(db);
+        SQLiteStatement stand = db.compileStatement(
+                "INSERT INTO stands (seller_id, name, description, created_at) VALUES (?, ?, ?, ?)");
+
+        for (int i = 0; i < config.stands; i++) {
+            int sellerId = (int) insertUser(user, "bench.seller" + i + "@kantin.test", "Penjual " + i, "seller", null);
+            sellerIds.add(sellerId);
+
+            stand.clearBindings();
+            stand.bindLong(1, sellerId);
+            stand.bindString(2, "Stand " + DISHES[i % DISHES.length] + " " + i);
+            stand.bindString(3, "Stand benchmark " + i);
+            stand.bindString(4, randomTimestamp());
+            standIds.add((int) stand.executeInsert());
+        }
+    }
+
+    private void insertMenus(SQLiteDatabase db) {
+        SQLiteStatement menu = db.compileStatement(
+                "INSERT INTO menus (stand_id, name, price, description, category, status, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)");
+
+        for (int standId : standIds) {
+            List<int[]> menus = new ArrayList<>();
+            for (int j = 0; j < config.menusPerStand; j++) {
+                String dish = DISHES[random.nextInt(DISHES.length)];
+                int price = (5 + random.nextInt(26)) * 1000;
+
+                menu.clearBindings();
+                menu.bindLong(1, standId);
+                menu.bindString(2, dish + " " + VARIANTS[random.nextInt(VARIANTS.length)]);
+                menu.bindLong(3, price);
+                menu.bindString(4, "Menu " + dish.toLowerCase(Locale.ROOT) + " khas kantin");
+                menu.bindString(5, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                menu.bindString(6, random.nextInt(10) == 0 ? "unavailable" : "available");
+                menu.bindString(7, randomTimestamp());
+                menus.add(new int[]{(int) menu.executeInsert(), price});
+            }
+            menusByStand.add(menus);
+        }
+    }
+
+    private void insertBuyers(SQLiteDatabase db) {
+        SQLiteStatement user = compileUserInsert(db);
+        for (int i = 0; i < config.buyers; i++) {
+            String type = random.nextInt(4) == 0 ? "dosen" : "mahasiswa";
+            buyerIds.add((int) insertUser(user, "bench.buyer" + i + "@kantin.test", "Pembeli " + i, "buyer", type));
+        }
+    }
+
+    private void insertReviews(SQLiteDatabase db) {
+        SQLiteStatement review = db.compileStatement(
+                "INSERT INTO reviews (buyer_id, menu_id, rating, comment, created_at) VALUES (?, ?, ?, ?, ?)");
+
+        for (List<int[]> menus : menusByStand) {
+            for (int[] menu : menus) {
+                for (int k = 0; k < config.reviewsPerMenu; k++) {
+                    review.clearBindings();
+                    review.bindLong(1, randomBuyer());
+                    review.bindLong(2, menu[0]);
+                    review.bindLong(3, 1 + random.nextInt(5));
+                    review.bindString(4, "Ulasan " + k);
+                    review.bindString(5, randomTimestamp());
+                    review.executeInsert();
+                    reviewCount++;
+                }
+            }
+        }
+    }
+
+    private void insertOrders(SQLiteDatabase db) {
+        SQLiteStatement order = db.compileStatement(
+                "INSERT INTO orders (buyer_id, stand_id, total, status, payment_method, payment_status, " +
+                        "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        SQLiteStatement item = db.compileStatement(
+                "INSERT INTO order_items (order_id, menu_id, qty, price, subtotal) VALUES (?, ?, ?, ?, ?)");
+
+        for (int buyerId : buyerIds) {
+            for (int k = 0; k < config.ordersPerBuyer; k++) {
+                int standIndex = random.nextInt(standIds.size());
+                List<int[]> menus = menusByStand.get(standIndex);
+                String status = ORDER_STATUSES[random.nextInt(ORDER_STATUSES.length)];
+                String timestamp = randomTimestamp();
+
+                int[][] lines = new int[config.itemsPerOrder][];
+                int total = 0;
+                for (int i = 0; i < lines.length; i++) {
+                    int[] menu = menus.get(random.nextInt(menus.size()));
+                    int qty = 1 + random.nextInt(3);
+                    lines[i] = new int[]{menu[0], qty, menu[1]};
+                    total += qty * menu[1];
+                }
+
+                order.clearBindings();
+                order.bindLong(1, buyerId);
+                order.bindLong(2, standIds.get(standIndex));
+                order.bindLong(3, total);
+                order.bindString(4, status);
+                order.bindString(5, random.nextBoolean() ? "💵 Cash" : "🏦 Transfer Bank");
+                order.bindString(6, status.equals("pending_verification") ? "pending" : "verified");
+                order.bindString(7, timestamp);
+                order.bindString(8, timestamp);
+                long orderId = order.executeInsert();
+                orderCount++;
+
+                for (int[] line : lines) {
+                    item.clearBindings();
+                    item.bindLong(1, orderId);
+                    item.bindLong(2, line[0]);
+                    item.bindLong(3, line[1]);
+                    item.bindLong(4, line[2]);
+                    item.bindLong(5, (long) line[1] * line[2]);
+                    item.executeInsert();
+                }
+            }
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    public int randomBuyer() {
+        return buyerIds.get(random.nextInt(buyerIds.size()));
+    }
+
+    /**
+     * Menu ids from `count` different stands (for multi-stand carts)
+     */
+    public List<Integer> randomCartMenus(int count) {
+        List<Integer> menuIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<int[]> menus = menusByStand.get(random.nextInt(menusByStand.size()));
+            int menuId = menus.get(random.nextInt(menus.size()))[0];
+            if (!menuIds.contains(menuId)) {
+                menuIds.add(menuId);
+            }
+        }
+        return menuIds;
+    }
+
+    public String randomSearchTerm() {
+        String dish = DISHES[random.nextInt(DISHES.length)];
+        return dish.substring(0, Math.min(4, dish.length())).toLowerCase(Locale.ROOT);
+    }
+
+    private SQLiteStatement compileUserInsert(SQLiteDatabase db) {
+        return db.compileStatement(
+                "INSERT INTO users (email, password, name, role, phone, id_number, type, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+    }
+
+    private long insertUser(SQLiteStatement user, String email, String name, String role, String type) {
+        user.clearBindings();
+        user.bindString(1, email);
+        user.bindString(2, "bench123");
+        user.bindString(3, name);
+        user.bindString(4, role);
+        user.bindString(5, "08" + (100000000 + random.nextInt(900000000)));
+        user.bindString(6, String.valueOf(100000 + random.nextInt(900000)));
+        if (type != null) {
+            user.bindString(7, type);
+        } else {
+            user.bindNull(7);
+        }
+        user.bindString(8, randomTimestamp());
+        return user.executeInsert();
+    }
+
+    /**
+     * Some time in the last 30 days (today included, so getTodayRevenue has rows)
+     */
+    private String randomTimestamp() {
+        long offset = (long) (random.nextDouble() * 30L * 24 * 60 * 60 * 1000);
+        return dateFormat.format(new Date(System.currentTimeMillis() - offset));
+    }
+}